@@ -72,9 +72,8 @@ public class AIChatActivity extends AppCompatActivity {
         chatRecyclerView.setAdapter(chatAdapter);
 
         // Add welcome message
-        messages.add(new ChatMessage(ChatMessage.TYPE_AI,
-                "Hello! I'm your AI property assistant. How can I help you find your perfect property today?"));
-        chatAdapter.notifyItemInserted(messages.size() - 1);
+        chatAdapter.addMessage(new ChatMessage(ChatMessage.TYPE_AI,
+                "Hello! I'm your AI property assistant. How can I help you find your perfect property today?"), null);
 
         sendButton.setOnClickListener(v -> sendMessage());
 
@@ -85,9 +84,7 @@ public class AIChatActivity extends AppCompatActivity {
                 handler.postDelayed(() -> {
                     removeTypingIndicator();
                     String suggestion = "I can help you search for properties, provide market insights, or answer questions about neighborhoods. What are you interested in today?";
-                    messages.add(new ChatMessage(ChatMessage.TYPE_AI, suggestion));
-                    chatAdapter.notifyItemInserted(messages.size() - 1);
-                    chatRecyclerView.scrollToPosition(messages.size() - 1);
+                    chatAdapter.addMessage(new ChatMessage(ChatMessage.TYPE_AI, suggestion), this::scrollToLatest);
                 }, 2000);
             }
         }, 5000);
@@ -97,9 +94,7 @@ public class AIChatActivity extends AppCompatActivity {
         String message = messageInput.getText().toString().trim();
         if (!TextUtils.isEmpty(message)) {
             // Add user message
-            messages.add(new ChatMessage(ChatMessage.TYPE_USER, message));
-            chatAdapter.notifyItemInserted(messages.size() - 1);
-            chatRecyclerView.scrollToPosition(messages.size() - 1);
+            chatAdapter.addMessage(new ChatMessage(ChatMessage.TYPE_USER, message), this::scrollToLatest);
 
             messageInput.setText("");
 
@@ -115,9 +110,7 @@ public class AIChatActivity extends AppCompatActivity {
 
                 // Generate AI response based on message content
                 String aiResponse = generateAIResponse(message);
-                messages.add(new ChatMessage(ChatMessage.TYPE_AI, aiResponse));
-                chatAdapter.notifyItemInserted(messages.size() - 1);
-                chatRecyclerView.scrollToPosition(messages.size() - 1);
+                chatAdapter.addMessage(new ChatMessage(ChatMessage.TYPE_AI, aiResponse), this::scrollToLatest);
 
                 // Sometimes add a follow-up question after a delay
                 if (random.nextInt(100) < 70) { // 70% chance
@@ -126,9 +119,7 @@ public class AIChatActivity extends AppCompatActivity {
                     handler.postDelayed(() -> {
                         removeTypingIndicator();
                         String followUp = generateFollowUpQuestion(message);
-                        messages.add(new ChatMessage(ChatMessage.TYPE_AI, followUp));
-                        chatAdapter.notifyItemInserted(messages.size() - 1);
-                        chatRecyclerView.scrollToPosition(messages.size() - 1);
+                        chatAdapter.addMessage(new ChatMessage(ChatMessage.TYPE_AI, followUp), this::scrollToLatest);
                     }, 1500 + random.nextInt(1000));
                 }
             }, typingTime);
@@ -136,8 +127,10 @@ public class AIChatActivity extends AppCompatActivity {
     }
 
     private void showTypingIndicator() {
-        messages.add(new ChatMessage(ChatMessage.TYPE_TYPING, null));
-        chatAdapter.notifyItemInserted(messages.size() - 1);
+        chatAdapter.addMessage(new ChatMessage(ChatMessage.TYPE_TYPING, null), this::scrollToLatest);
+    }
+
+    private void scrollToLatest() {
         chatRecyclerView.scrollToPosition(messages.size() - 1);
     }
 
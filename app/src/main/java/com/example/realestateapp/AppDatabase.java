@@ -0,0 +1,197 @@
+package com.example.realestateapp;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * The app's SQLite database, opened in WAL mode. Every access runs on one
+ * dedicated I/O thread, in submission order, so a read always sees the
+ * writes queued before it. Writes that pile up behind each other are
+ * coalesced into a single transaction, which turns a burst of small updates
+ * into one fsync.
+ *
+ * <p>Tables: listings, listing_details, favorites, viewed, search_history
+ * and drafts, plus listings_fts, a full-text index over each listing's
+ * title, location and full description.</p>
+ */
+public final class AppDatabase extends SQLiteOpenHelper {
+
+    private static final String TAG = "AppDatabase";
+    private static final String NAME = "realestate.db";
+    private static final int VERSION = 1;
+    // Upper bound on writes folded into one transaction
+    private static final int MAX_BATCH = 256;
+
+    public interface Write {
+        void apply(SQLiteDatabase db);
+    }
+
+    public interface Query<T> {
+        T run(SQLiteDatabase db);
+    }
+
+    public interface Callback<T> {
+        void onResult(T result);
+    }
+
+    private static AppDatabase instance;
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final BlockingQueue<Task> tasks = new LinkedBlockingQueue<>();
+
+    private AppDatabase(Context context) {
+        super(context, NAME, null, VERSION);
+        setWriteAheadLoggingEnabled(true);
+        Thread thread = new Thread(this::runTasks, "app-db");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public static synchronized AppDatabase get(Context context) {
+        if (instance == null) {
+            instance = new AppDatabase(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    // Queues a write; it runs on the I/O thread, usually batched with its neighbours
+    public void write(Write write) {
+        tasks.add(new Task(write, null));
+    }
+
+    // Runs query on the I/O thread and hands the result to callback on the main thread
+    public <T> void read(Query<T> query, Callback<T> callback) {
+        tasks.add(new Task(null, () -> {
+            T result;
+            try {
+                result = query.run(getReadableDatabase());
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Query failed", e);
+                return;
+            }
+            mainHandler.post(() -> callback.onResult(result));
+        }));
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE listings ("
+                + "id INTEGER PRIMARY KEY, title TEXT, price_text TEXT, location TEXT, image_url TEXT, "
+                + "description TEXT, type TEXT, city TEXT, area TEXT, bedrooms INTEGER, "
+                + "latitude REAL, longitude REAL, listed_at INTEGER, updated_at INTEGER)");
+        // Full descriptions, amenities and gallery URLs, loaded one listing at a time
+        db.execSQL("CREATE TABLE listing_details (listing_id INTEGER PRIMARY KEY, description TEXT, "
+                + "amenities TEXT, image_urls TEXT)");
+        createListingsFts(db);
+
+        db.execSQL("CREATE TABLE favorites (listing_id INTEGER PRIMARY KEY, saved_at INTEGER NOT NULL)");
+        db.execSQL("CREATE TABLE viewed (listing_id INTEGER PRIMARY KEY, viewed_at INTEGER NOT NULL)");
+        db.execSQL("CREATE INDEX viewed_by_time ON viewed (viewed_at)");
+        db.execSQL("CREATE TABLE search_history (query TEXT PRIMARY KEY, searched_at INTEGER NOT NULL)");
+        db.execSQL("CREATE INDEX search_history_by_time ON search_history (searched_at)");
+        db.execSQL("CREATE TABLE drafts (id INTEGER PRIMARY KEY AUTOINCREMENT, title TEXT, price TEXT, "
+                + "address TEXT, description TEXT, type TEXT, bedrooms TEXT, image_uris TEXT, "
+                + "updated_at INTEGER NOT NULL)");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        // Version 1 is the first shipped schema
+    }
+
+    // FTS4 index with the listing id as docid; FTS4 ships with every Android SQLite build, FTS5
+    // does not. Title and location come from listings, the description from listing_details,
+    // or the catalog snippet while a listing has no detail record. Upserts use INSERT OR
+    // REPLACE, which fires no delete trigger, so the insert trigger clears the old entry itself.
+    private static void createListingsFts(SQLiteDatabase db) {
+        db.execSQL("CREATE VIRTUAL TABLE listings_fts USING fts4(title, location, description)");
+        db.execSQL("CREATE TRIGGER listings_fts_insert AFTER INSERT ON listings BEGIN "
+                + "DELETE FROM listings_fts WHERE docid = new.id; "
+                + "INSERT INTO listings_fts(docid, title, location, description) VALUES (new.id, new.title, "
+                + "new.location, COALESCE((SELECT description FROM listing_details WHERE listing_id = new.id), "
+                + "new.description)); END");
+        db.execSQL("CREATE TRIGGER listings_fts_update AFTER UPDATE ON listings BEGIN "
+                + "UPDATE listings_fts SET title = new.title, location = new.location, description = "
+                + "COALESCE((SELECT description FROM listing_details WHERE listing_id = new.id), new.description) "
+                + "WHERE docid = new.id; END");
+        db.execSQL("CREATE TRIGGER listings_fts_delete AFTER DELETE ON listings BEGIN "
+                + "DELETE FROM listings_fts WHERE docid = old.id; END");
+        db.execSQL("CREATE TRIGGER listing_details_fts_insert AFTER INSERT ON listing_details BEGIN "
+                + "UPDATE listings_fts SET description = COALESCE(new.description, "
+                + "(SELECT description FROM listings WHERE id = new.listing_id)) WHERE docid = new.listing_id; END");
+        db.execSQL("CREATE TRIGGER listing_details_fts_update AFTER UPDATE ON listing_details BEGIN "
+                + "UPDATE listings_fts SET description = COALESCE(new.description, "
+                + "(SELECT description FROM listings WHERE id = new.listing_id)) WHERE docid = new.listing_id; END");
+        db.execSQL("CREATE TRIGGER listing_details_fts_delete AFTER DELETE ON listing_details BEGIN "
+                + "UPDATE listings_fts SET description = "
+                + "(SELECT description FROM listings WHERE id = old.listing_id) WHERE docid = old.listing_id; END");
+    }
+
+    private void runTasks() {
+        List<Write> batch = new ArrayList<>();
+        while (true) {
+            Task task;
+            try {
+                task = tasks.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (task.read != null) {
+                task.read.run();
+                continue;
+            }
+            batch.add(task.write);
+            // Fold in the writes already waiting behind this one; a queued read ends the batch
+            Task next;
+            while (batch.size() < MAX_BATCH && (next = tasks.peek()) != null && next.write != null) {
+                batch.add(tasks.poll().write);
+            }
+            applyBatch(batch);
+            batch.clear();
+        }
+    }
+
+    private void applyBatch(List<Write> batch) {
+        SQLiteDatabase db;
+        try {
+            db = getWritableDatabase();
+        } catch (RuntimeException e) {
+            Log.e(TAG, "Cannot open database; dropping " + batch.size() + " writes", e);
+            return;
+        }
+        db.beginTransactionNonExclusive();
+        try {
+            for (Write write : batch) {
+                try {
+                    write.apply(db);
+                } catch (RuntimeException e) {
+                    // One bad write should not roll back the rest of the batch
+                    Log.e(TAG, "Write failed", e);
+                }
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    // A queued write or read; exactly one of the two is set
+    private static final class Task {
+        final Write write;
+        final Runnable read;
+
+        Task(Write write, Runnable read) {
+            this.write = write;
+            this.read = read;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.realestateapp;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Orders search matches by BM25 relevance over title, location and description,
+ * with a weight per field (BM25F style). Term statistics come from
+ * {@link PropertySearchIndex}, and only the top k rows are kept, in a bounded
+ * min-heap, so a broad query never sorts the whole result set.
+ */
+public class Bm25Ranker {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    // Query terms are prefixes; completions of a term count for a bit less than the exact word
+    private static final float PREFIX_MATCH_WEIGHT = 0.7f;
+    private static final int MAX_PREFIX_EXPANSIONS = 32;
+
+    private final float[] fieldWeights = new float[FieldPostings.FIELD_COUNT];
+
+    public Bm25Ranker() {
+        this(3f, 2f, 1f);
+    }
+
+    public Bm25Ranker(float titleWeight, float locationWeight, float descriptionWeight) {
+        fieldWeights[FieldPostings.FIELD_TITLE] = titleWeight;
+        fieldWeights[FieldPostings.FIELD_LOCATION] = locationWeight;
+        fieldWeights[FieldPostings.FIELD_DESCRIPTION] = descriptionWeight;
+    }
+
+    /**
+     * Returns at most k of the candidate rows, best first. Candidates must be in
+     * ascending row order, as returned by the index. Equal scores keep row order.
+     */
+    public int[] topK(PropertySearchIndex index, int[] candidates, String query, int k) {
+        String[] terms = PropertySearchIndex.tokenize(query);
+        if (terms.length == 0 || candidates.length == 0 || k <= 0) {
+            return candidates.length <= k ? candidates : Arrays.copyOf(candidates, Math.max(k, 0));
+        }
+
+        float[] scores = new float[candidates.length];
+        synchronized (index) {
+            float[] averageLengths = new float[FieldPostings.FIELD_COUNT];
+            for (int field = 0; field < averageLengths.length; field++) {
+                averageLengths[field] = index.averageFieldLength(field);
+            }
+            int documentCount = index.size();
+
+            float[] termScores = new float[candidates.length];
+            for (String term : terms) {
+                Arrays.fill(termScores, 0f);
+                int expansions = 0;
+                for (Map.Entry<String, FieldPostings> entry : index.scoredTerms(term).entrySet()) {
+                    if (expansions++ == MAX_PREFIX_EXPANSIONS) {
+                        break;
+                    }
+                    float weight = entry.getKey().equals(term) ? 1f : PREFIX_MATCH_WEIGHT;
+                    scoreTerm(index, entry.getValue(), weight, documentCount, averageLengths,
+                            candidates, termScores);
+                }
+                for (int i = 0; i < scores.length; i++) {
+                    scores[i] += termScores[i];
+                }
+            }
+        }
+        return selectTop(candidates, scores, k);
+    }
+
+    // Adds one vocabulary term's contribution, keeping the best expansion per candidate
+    private void scoreTerm(PropertySearchIndex index, FieldPostings postings, float weight,
+                           int documentCount, float[] averageLengths, int[] candidates, float[] termScores) {
+        int documentFrequency = postings.size();
+        float idf = (float) Math.log(1 + (documentCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+
+        // Merge-join the sorted postings with the sorted candidates
+        int p = 0;
+        int c = 0;
+        while (p < postings.size() && c < candidates.length) {
+            int row = postings.row(p);
+            if (row < candidates[c]) {
+                p++;
+            } else if (row > candidates[c]) {
+                c++;
+            } else {
+                float tf = 0f;
+                for (int field = 0; field < FieldPostings.FIELD_COUNT; field++) {
+                    int frequency = postings.frequency(p, field);
+                    if (frequency == 0 || averageLengths[field] == 0f) {
+                        continue;
+                    }
+                    float norm = 1 - B + B * index.fieldLength(row, field) / averageLengths[field];
+                    tf += fieldWeights[field] * frequency / norm;
+                }
+                float score = weight * idf * tf / (K1 + tf);
+                if (score > termScores[c]) {
+                    termScores[c] = score;
+                }
+                p++;
+                c++;
+            }
+        }
+    }
+
+    // Bounded min-heap of candidate positions; the weakest kept entry sits at the root
+    private static int[] selectTop(int[] candidates, float[] scores, int k) {
+        int capacity = Math.min(k, candidates.length);
+        int[] heap = new int[capacity];
+        int size = 0;
+        for (int i = 0; i < candidates.length; i++) {
+            if (size < capacity) {
+                heap[size] = i;
+                siftUp(heap, size++, scores);
+            } else if (weaker(heap[0], i, scores)) {
+                heap[0] = i;
+                siftDown(heap, size, scores);
+            }
+        }
+
+        // Pop weakest first, filling the result from the back
+        int[] result = new int[size];
+        for (int out = size - 1; out >= 0; out--) {
+            result[out] = candidates[heap[0]];
+            heap[0] = heap[--size];
+            siftDown(heap, size, scores);
+        }
+        return result;
+    }
+
+    // True when position a ranks below position b (lower score, or same score and later row)
+    private static boolean weaker(int a, int b, float[] scores) {
+        return scores[a] < scores[b] || (scores[a] == scores[b] && a > b);
+    }
+
+    private static void siftUp(int[] heap, int index, float[] scores) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!weaker(heap[index], heap[parent], scores)) {
+                return;
+            }
+            int tmp = heap[index];
+            heap[index] = heap[parent];
+            heap[parent] = tmp;
+            index = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, int size, float[] scores) {
+        int index = 0;
+        while (true) {
+            int left = 2 * index + 1;
+            if (left >= size) {
+                return;
+            }
+            int weakest = left;
+            int right = left + 1;
+            if (right < size && weaker(heap[right], heap[left], scores)) {
+                weakest = right;
+            }
+            if (!weaker(heap[weakest], heap[index], scores)) {
+                return;
+            }
+            int tmp = heap[index];
+            heap[index] = heap[weakest];
+            heap[weakest] = tmp;
+            index = weakest;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.realestateapp;
+
+// Rows touched by one applied sync batch, so screens can update just those rows instead of reloading
+public final class CatalogChangeSet {
+
+    private final int[] inserted;
+    private final int[] updated;
+    private final int[] removed;
+    private final long feedVersion;
+
+    CatalogChangeSet(int[] inserted, int[] updated, int[] removed, long feedVersion) {
+        this.inserted = inserted;
+        this.updated = updated;
+        this.removed = removed;
+        this.feedVersion = feedVersion;
+    }
+
+    // Rows appended by the batch
+    public int[] getInserted() {
+        return inserted.clone();
+    }
+
+    // Rows rewritten in place
+    public int[] getUpdated() {
+        return updated.clone();
+    }
+
+    // Rows tombstoned by the batch; their views still read the last known values
+    public int[] getRemoved() {
+        return removed.clone();
+    }
+
+    // Feed version the catalog reached with this batch
+    public long getFeedVersion() {
+        return feedVersion;
+    }
+
+    public boolean isEmpty() {
+        return inserted.length == 0 && updated.length == 0 && removed.length == 0;
+    }
+
+    @Override
+    public String toString() {
+        return "CatalogChangeSet{+" + inserted.length + " ~" + updated.length + " -" + removed.length
+                + " @" + feedVersion + "}";
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.realestateapp;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * The one place screens get catalog listings from. A screen subscribes a
+ * {@link Query} and receives the matching listings together with a
+ * {@link ListChange} against what it was shown before. When a sync changes
+ * the catalog, every open view is re-queried and diffed on a background
+ * thread, so each screen re-renders only the rows that were inserted,
+ * removed or changed.
+ *
+ * <p>Queries run against the memory-mapped snapshot from
+ * {@link CatalogStore#mapped}, so listing fields are decoded as cards read
+ * them and the catalog is never restored onto the heap just to show a list.
+ * A sync rewrites rows in place and saves a new snapshot with the same row
+ * numbers; the views then switch to the new mapping.</p>
+ */
+public final class CatalogRepository {
+
+    // Rows of catalog in display order; runs on the repository thread
+    public interface Query {
+        int[] rows(ListingTable catalog);
+    }
+
+    // Called on the main thread with an immutable list of the view's listings
+    public interface Observer {
+        void onChanged(List<Property> items, ListChange change);
+    }
+
+    private static CatalogRepository instance;
+
+    private final Callable<ListingTable> loader;
+    private final Executor worker;
+    private final Executor main;
+    // Touched only on the worker thread
+    private final List<Subscription> subscriptions = new ArrayList<>();
+    private ListingTable catalog;
+
+    CatalogRepository(Callable<ListingTable> loader, Executor worker, Executor main) {
+        this.loader = loader;
+        this.worker = worker;
+        this.main = main;
+    }
+
+    public static synchronized CatalogRepository get(Context context) {
+        if (instance == null) {
+            Context app = context.getApplicationContext();
+            Handler mainHandler = new Handler(Looper.getMainLooper());
+            Executor worker = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "catalog-views");
+                thread.setDaemon(true);
+                return thread;
+            });
+            instance = new CatalogRepository(() -> CatalogStore.mapped(app), worker, mainHandler::post);
+        }
+        return instance;
+    }
+
+    /**
+     * Starts a live view of the rows query selects. The observer gets the
+     * first result as one insertion, then a change set after every catalog
+     * update that affects the view. Close the subscription when the screen
+     * goes away.
+     */
+    public Subscription observe(Query query, Observer observer) {
+        Subscription subscription = new Subscription(query, observer);
+        worker.execute(() -> {
+            if (!subscription.closed) {
+                subscriptions.add(subscription);
+                subscription.refresh(null);
+            }
+        });
+        return subscription;
+    }
+
+    /**
+     * Re-queries every open view after a sync. Call it once the synced catalog
+     * has been saved, so the views read the new snapshot rather than the one
+     * the sync replaced.
+     */
+    public void onCatalogChanged(CatalogChangeSet changes) {
+        int[] updated = changes.getUpdated();
+        Arrays.sort(updated);
+        worker.execute(() -> {
+            // Mapped again on the next read
+            catalog = null;
+            for (Subscription subscription : subscriptions) {
+                subscription.refresh(updated);
+            }
+        });
+    }
+
+    // Worker thread only; the first view to open pays for mapping the catalog
+    private ListingTable catalog() {
+        if (catalog == null) {
+            try {
+                catalog = loader.call();
+            } catch (Exception e) {
+                throw new IllegalStateException("Cannot load the catalog", e);
+            }
+        }
+        return catalog;
+    }
+
+    // Every live listing, in row order
+    public static Query all() {
+        return catalog -> catalog.rowsMatching(null, null, false);
+    }
+
+    // Live listings of the given type and area (null matches any), see ListingTable.rowsMatching
+    public static Query matching(String type, String area, boolean locatedOnly) {
+        return catalog -> catalog.rowsMatching(type, area, locatedOnly);
+    }
+
+    // The newest live listings first
+    public static Query newest(int limit) {
+        return catalog -> catalog.newestRows(limit);
+    }
+
+    // Listings with the given ids in that order; ids no longer in the catalog are skipped
+    public static Query byIds(long[] ids) {
+        long[] copy = ids.clone();
+        return catalog -> {
+            int[] rows = new int[copy.length];
+            int count = 0;
+            for (long id : copy) {
+                int row = catalog.rowOf(id);
+                if (row != ListingTable.UNKNOWN) {
+                    rows[count++] = row;
+                }
+            }
+            return Arrays.copyOf(rows, count);
+        };
+    }
+
+    public static Query inCity(String city) {
+        return catalog -> catalog.rowsInCity(city);
+    }
+
+    // Listings for sale or for rent, see ListingClassifier.purpose
+    public static Query forPurpose(String purpose) {
+        return catalog -> {
+            int[] rows = catalog.rowsMatching(null, null, false);
+            int count = 0;
+            for (int row : rows) {
+                if (purpose.equals(ListingClassifier.purpose(catalog.priceText(row)))) {
+                    rows[count++] = row;
+                }
+            }
+            return Arrays.copyOf(rows, count);
+        };
+    }
+
+    // The rows of primary, or those of fallback while primary selects nothing
+    public static Query orElse(Query primary, Query fallback) {
+        return catalog -> {
+            int[] rows = primary.rows(catalog);
+            return rows.length > 0 ? rows : fallback.rows(catalog);
+        };
+    }
+
+    // One open view: its query and the rows its observer was last given
+    public final class Subscription {
+        private final Observer observer;
+        private volatile Query query;
+        private volatile boolean closed;
+        // Worker thread only
+        private int[] rows = new int[0];
+        private boolean delivered;
+
+        private Subscription(Query query, Observer observer) {
+            this.query = query;
+            this.observer = observer;
+        }
+
+        // Switches the view to a new query, e.g. after the favorites changed; the observer gets the difference
+        public void update(Query query) {
+            this.query = query;
+            worker.execute(() -> refresh(null));
+        }
+
+        public void close() {
+            closed = true;
+            worker.execute(() -> subscriptions.remove(this));
+        }
+
+        private void refresh(int[] updatedRows) {
+            if (closed) {
+                return;
+            }
+            ListingTable catalog = catalog();
+            int[] next = query.rows(catalog);
+            ListChange change = ListChange.between(rows, next, updatedRows != null ? updatedRows : new int[0]);
+            if (delivered && change.isEmpty()) {
+                return;
+            }
+            rows = next;
+            delivered = true;
+            List<Property> items = Collections.unmodifiableList(catalog.getAll(next));
+            main.execute(() -> {
+                if (!closed) {
+                    observer.onChanged(items, change);
+                }
+            });
+        }
+    }
+}
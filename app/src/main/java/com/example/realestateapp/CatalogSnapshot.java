@@ -0,0 +1,502 @@
+package com.example.realestateapp;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Versioned binary image of a {@link PropertyCatalog}, so a cold start can
+ * restore every listing with one sequential read instead of re-parsing text.
+ *
+ * <p>Layout, all big-endian:</p>
+ * <pre>
+ *   header   int magic, short version, short flags, int rowCount, long savedAt
+ *   strings  int count, then count x (int byteLength, UTF-8 bytes)
+ *   blocks   int count, then count x (int tag, int byteLength, payload)
+ *   trailer  long CRC32 of every byte before it
+ * </pre>
+ * Each block holds one catalog column. String cells are indexes into the
+ * shared string table (-1 for null), so a city or image host repeated on
+ * every row is stored once. Dictionary blocks list the values in code order,
+ * which keeps the codes of the type/city/area columns valid as written.
+ * Readers skip tags they do not know and leave columns without a block at
+ * their defaults, so columns can be added without bumping the version.
+ */
+public final class CatalogSnapshot {
+
+    static final int MAGIC = 0x52454353; // "RECS"
+    // Version 2 stores description snippets. Version 1 files held full descriptions and
+    // are rejected, so the app reseeds and its next sync refetches the detail records too.
+    static final short FORMAT_VERSION = 2;
+
+    static final int NULL_STRING = -1;
+
+    // Column blocks
+    static final int TAG_ID = 1;
+    static final int TAG_TITLE = 2;
+    static final int TAG_PRICE_TEXT = 3;
+    static final int TAG_LOCATION = 4;
+    static final int TAG_IMAGE_URL = 5;
+    static final int TAG_DESCRIPTION = 6;
+    static final int TAG_PRICE_AMOUNT = 7;
+    static final int TAG_CURRENCY = 8;
+    static final int TAG_LATITUDE = 9;
+    static final int TAG_LONGITUDE = 10;
+    static final int TAG_BEDROOMS = 11;
+    static final int TAG_LISTED_AT = 12;
+    static final int TAG_UPDATED_AT = 13;
+    static final int TAG_TYPE = 14;
+    static final int TAG_CITY = 15;
+    static final int TAG_AREA = 16;
+    // One byte per row, 1 for rows removed by a sync
+    static final int TAG_REMOVED = 17;
+    // A single long: the feed version the catalog was synced to
+    static final int TAG_FEED_VERSION = 18;
+    // Parsed attributes; bathrooms and parking are one byte per row, area an int of square feet
+    static final int TAG_BATHROOMS = 19;
+    static final int TAG_COVERED_AREA = 20;
+    static final int TAG_PARKING = 21;
+    // Image URL as a code into the prefix dictionary plus the remaining string; replaces
+    // TAG_IMAGE_URL, which is still read
+    static final int TAG_IMAGE_PREFIX = 22;
+    static final int TAG_IMAGE_SUFFIX = 23;
+    // Dictionary values in code order
+    static final int TAG_CURRENCY_VALUES = 100;
+    static final int TAG_TYPE_VALUES = 101;
+    static final int TAG_CITY_VALUES = 102;
+    static final int TAG_AREA_VALUES = 103;
+    static final int TAG_IMAGE_PREFIX_VALUES = 104;
+    // Lookup structures for MappedCatalog, skipped by read()
+    static final int TAG_STRING_OFFSETS = 200;
+    static final int TAG_ID_INDEX = 201;
+
+    // Bytes before the first string: magic, version, flags, row count, savedAt, string count
+    static final int STRINGS_START = 24;
+
+    private CatalogSnapshot() {
+    }
+
+    /** Thrown when a snapshot is truncated, corrupt or written by an unknown version. */
+    public static class FormatException extends IOException {
+        FormatException(String message) {
+            super(message);
+        }
+    }
+
+    // Writes the whole catalog; the catalog is locked only while its columns are encoded
+    public static void write(PropertyCatalog catalog, OutputStream out) throws IOException {
+        byte[] bytes;
+        synchronized (catalog) {
+            bytes = encode(catalog, System.currentTimeMillis());
+        }
+        out.write(bytes);
+        out.flush();
+    }
+
+    // Reads a snapshot written by write(); the stream is read to the end in one pass
+    public static PropertyCatalog read(InputStream in) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(64 * 1024);
+        byte[] chunk = new byte[64 * 1024];
+        int read;
+        while ((read = in.read(chunk)) != -1) {
+            buffer.write(chunk, 0, read);
+        }
+        return decode(buffer.toByteArray());
+    }
+
+    static byte[] encode(PropertyCatalog catalog, long savedAt) throws IOException {
+        int rows = catalog.size;
+        StringTable strings = new StringTable();
+        ByteArrayOutputStream body = new ByteArrayOutputStream(256 + rows * 96);
+        DataOutputStream blocks = new DataOutputStream(body);
+
+        Block block = new Block();
+        writeLongs(block, blocks, TAG_ID, catalog.ids, rows);
+        writeStrings(block, blocks, TAG_TITLE, catalog.titles, rows, strings);
+        writeStrings(block, blocks, TAG_PRICE_TEXT, catalog.priceTexts, rows, strings);
+        writeStrings(block, blocks, TAG_LOCATION, catalog.locations, rows, strings);
+        writeInts(block, blocks, TAG_IMAGE_PREFIX, catalog.imagePrefixCodes, rows);
+        writeStrings(block, blocks, TAG_IMAGE_SUFFIX, catalog.imageSuffixes, rows, strings);
+        writeStrings(block, blocks, TAG_DESCRIPTION, catalog.descriptions, rows, strings);
+        writeLongs(block, blocks, TAG_PRICE_AMOUNT, catalog.priceAmounts, rows);
+        writeInts(block, blocks, TAG_CURRENCY, catalog.currencyCodes, rows);
+        writeInts(block, blocks, TAG_LATITUDE, catalog.latitudes, rows);
+        writeInts(block, blocks, TAG_LONGITUDE, catalog.longitudes, rows);
+        block.begin(TAG_BEDROOMS);
+        block.data.write(catalog.bedrooms, 0, rows);
+        block.end(blocks);
+        block.begin(TAG_BATHROOMS);
+        block.data.write(catalog.bathrooms, 0, rows);
+        block.end(blocks);
+        writeInts(block, blocks, TAG_COVERED_AREA, catalog.coveredAreas, rows);
+        block.begin(TAG_PARKING);
+        block.data.write(catalog.parkingSpaces, 0, rows);
+        block.end(blocks);
+        writeLongs(block, blocks, TAG_LISTED_AT, catalog.listedAt, rows);
+        writeLongs(block, blocks, TAG_UPDATED_AT, catalog.updatedAt, rows);
+        writeInts(block, blocks, TAG_TYPE, catalog.typeCodes, rows);
+        writeInts(block, blocks, TAG_CITY, catalog.cityCodes, rows);
+        writeInts(block, blocks, TAG_AREA, catalog.areaCodes, rows);
+        block.begin(TAG_REMOVED);
+        for (int row = 0; row < rows; row++) {
+            block.data.writeByte(catalog.removed[row] ? 1 : 0);
+        }
+        block.end(blocks);
+        block.begin(TAG_FEED_VERSION);
+        block.data.writeLong(catalog.feedVersion);
+        block.end(blocks);
+        writeDictionary(block, blocks, TAG_CURRENCY_VALUES, catalog.currencies, strings);
+        writeDictionary(block, blocks, TAG_TYPE_VALUES, catalog.types, strings);
+        writeDictionary(block, blocks, TAG_CITY_VALUES, catalog.cities, strings);
+        writeDictionary(block, blocks, TAG_AREA_VALUES, catalog.areas, strings);
+        writeDictionary(block, blocks, TAG_IMAGE_PREFIX_VALUES, catalog.imagePrefixes, strings);
+
+        // File offset of each string's length prefix, so a mapped reader can decode one string
+        block.begin(TAG_STRING_OFFSETS);
+        int offset = STRINGS_START;
+        for (int i = 0; i < strings.size(); i++) {
+            block.data.writeInt(offset);
+            offset += 4 + strings.bytes[i].length;
+        }
+        block.end(blocks);
+
+        // (id, row) pairs of the live rows sorted by id, for binary search without a heap index
+        long[] sortedIds = new long[catalog.rowsById.size()];
+        int live = 0;
+        for (int row = 0; row < rows; row++) {
+            if (!catalog.removed[row]) {
+                sortedIds[live++] = catalog.ids[row];
+            }
+        }
+        Arrays.sort(sortedIds);
+        block.begin(TAG_ID_INDEX);
+        for (long id : sortedIds) {
+            block.data.writeLong(id);
+            block.data.writeInt(catalog.rowsById.get(id));
+        }
+        block.end(blocks);
+        blocks.flush();
+
+        ByteArrayOutputStream file = new ByteArrayOutputStream(body.size() + strings.byteSize + 64);
+        DataOutputStream out = new DataOutputStream(file);
+        out.writeInt(MAGIC);
+        out.writeShort(FORMAT_VERSION);
+        out.writeShort(0);
+        out.writeInt(rows);
+        out.writeLong(savedAt);
+        out.writeInt(strings.size());
+        for (int i = 0; i < strings.size(); i++) {
+            out.writeInt(strings.bytes[i].length);
+            out.write(strings.bytes[i]);
+        }
+        out.writeInt(block.count);
+        body.writeTo(out);
+        out.flush();
+
+        CRC32 crc = new CRC32();
+        crc.update(file.toByteArray(), 0, file.size());
+        out.writeLong(crc.getValue());
+        out.flush();
+        return file.toByteArray();
+    }
+
+    static PropertyCatalog decode(byte[] bytes) throws FormatException {
+        if (bytes.length < 28) {
+            throw new FormatException("Snapshot too short: " + bytes.length + " bytes");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length - 8);
+        if (crc.getValue() != buffer.getLong(bytes.length - 8)) {
+            throw new FormatException("Snapshot checksum mismatch");
+        }
+        buffer.limit(bytes.length - 8);
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new FormatException("Not a catalog snapshot");
+            }
+            short version = buffer.getShort();
+            if (version != FORMAT_VERSION) {
+                throw new FormatException("Unsupported snapshot version " + version);
+            }
+            buffer.getShort(); // flags, none defined yet
+            int rows = buffer.getInt();
+            buffer.getLong(); // savedAt
+            if (rows < 0) {
+                throw new FormatException("Negative row count");
+            }
+
+            String[] strings = new String[checkCount(buffer.getInt(), buffer)];
+            for (int i = 0; i < strings.length; i++) {
+                int length = checkCount(buffer.getInt(), buffer);
+                strings[i] = new String(bytes, buffer.position(), length, StandardCharsets.UTF_8);
+                buffer.position(buffer.position() + length);
+            }
+
+            PropertyCatalog catalog = new PropertyCatalog(rows);
+            // Columns without a block keep these defaults
+            Arrays.fill(catalog.priceAmounts, 0, rows, PropertyCatalog.UNKNOWN);
+            Arrays.fill(catalog.currencyCodes, 0, rows, StringDictionary.NO_CODE);
+            Arrays.fill(catalog.latitudes, 0, rows, PropertyCatalog.NO_COORDINATE);
+            Arrays.fill(catalog.longitudes, 0, rows, PropertyCatalog.NO_COORDINATE);
+            Arrays.fill(catalog.bedrooms, 0, rows, (byte) PropertyCatalog.UNKNOWN);
+            Arrays.fill(catalog.bathrooms, 0, rows, (byte) PropertyCatalog.UNKNOWN);
+            Arrays.fill(catalog.coveredAreas, 0, rows, PropertyCatalog.UNKNOWN);
+            Arrays.fill(catalog.parkingSpaces, 0, rows, (byte) PropertyCatalog.UNKNOWN);
+            Arrays.fill(catalog.typeCodes, 0, rows, StringDictionary.NO_CODE);
+            Arrays.fill(catalog.cityCodes, 0, rows, StringDictionary.NO_CODE);
+            Arrays.fill(catalog.areaCodes, 0, rows, StringDictionary.NO_CODE);
+            Arrays.fill(catalog.imagePrefixCodes, 0, rows, StringDictionary.NO_CODE);
+            String[] imageUrls = null;
+            boolean hasIds = false;
+
+            int blockCount = buffer.getInt();
+            for (int b = 0; b < blockCount; b++) {
+                int tag = buffer.getInt();
+                int length = checkCount(buffer.getInt(), buffer);
+                int end = buffer.position() + length;
+                ByteBuffer data = (ByteBuffer) buffer.slice().limit(length);
+                switch (tag) {
+                    case TAG_ID:
+                        data.asLongBuffer().get(catalog.ids, 0, rows);
+                        hasIds = true;
+                        break;
+                    case TAG_TITLE:
+                        readStrings(data, strings, catalog.titles, rows);
+                        break;
+                    case TAG_PRICE_TEXT:
+                        readStrings(data, strings, catalog.priceTexts, rows);
+                        break;
+                    case TAG_LOCATION:
+                        readStrings(data, strings, catalog.locations, rows);
+                        break;
+                    case TAG_IMAGE_URL:
+                        imageUrls = new String[rows];
+                        readStrings(data, strings, imageUrls, rows);
+                        break;
+                    case TAG_IMAGE_PREFIX:
+                        data.asIntBuffer().get(catalog.imagePrefixCodes, 0, rows);
+                        break;
+                    case TAG_IMAGE_SUFFIX:
+                        readStrings(data, strings, catalog.imageSuffixes, rows);
+                        break;
+                    case TAG_DESCRIPTION:
+                        readStrings(data, strings, catalog.descriptions, rows);
+                        break;
+                    case TAG_PRICE_AMOUNT:
+                        data.asLongBuffer().get(catalog.priceAmounts, 0, rows);
+                        break;
+                    case TAG_CURRENCY:
+                        data.asIntBuffer().get(catalog.currencyCodes, 0, rows);
+                        break;
+                    case TAG_LATITUDE:
+                        data.asIntBuffer().get(catalog.latitudes, 0, rows);
+                        break;
+                    case TAG_LONGITUDE:
+                        data.asIntBuffer().get(catalog.longitudes, 0, rows);
+                        break;
+                    case TAG_BEDROOMS:
+                        data.get(catalog.bedrooms, 0, rows);
+                        break;
+                    case TAG_BATHROOMS:
+                        data.get(catalog.bathrooms, 0, rows);
+                        break;
+                    case TAG_COVERED_AREA:
+                        data.asIntBuffer().get(catalog.coveredAreas, 0, rows);
+                        break;
+                    case TAG_PARKING:
+                        data.get(catalog.parkingSpaces, 0, rows);
+                        break;
+                    case TAG_LISTED_AT:
+                        data.asLongBuffer().get(catalog.listedAt, 0, rows);
+                        break;
+                    case TAG_UPDATED_AT:
+                        data.asLongBuffer().get(catalog.updatedAt, 0, rows);
+                        break;
+                    case TAG_TYPE:
+                        data.asIntBuffer().get(catalog.typeCodes, 0, rows);
+                        break;
+                    case TAG_CITY:
+                        data.asIntBuffer().get(catalog.cityCodes, 0, rows);
+                        break;
+                    case TAG_AREA:
+                        data.asIntBuffer().get(catalog.areaCodes, 0, rows);
+                        break;
+                    case TAG_REMOVED:
+                        for (int row = 0; row < rows; row++) {
+                            catalog.removed[row] = data.get() != 0;
+                        }
+                        break;
+                    case TAG_FEED_VERSION:
+                        catalog.feedVersion = data.getLong();
+                        break;
+                    case TAG_CURRENCY_VALUES:
+                        readDictionary(data, strings, catalog.currencies);
+                        break;
+                    case TAG_TYPE_VALUES:
+                        readDictionary(data, strings, catalog.types);
+                        break;
+                    case TAG_CITY_VALUES:
+                        readDictionary(data, strings, catalog.cities);
+                        break;
+                    case TAG_AREA_VALUES:
+                        readDictionary(data, strings, catalog.areas);
+                        break;
+                    case TAG_IMAGE_PREFIX_VALUES:
+                        readDictionary(data, strings, catalog.imagePrefixes);
+                        break;
+                    default:
+                        // Written by a newer build; safe to ignore
+                        break;
+                }
+                buffer.position(end);
+            }
+            if (!hasIds) {
+                throw new FormatException("Snapshot has no id column");
+            }
+            checkCodes(catalog.currencyCodes, rows, catalog.currencies);
+            checkCodes(catalog.typeCodes, rows, catalog.types);
+            checkCodes(catalog.cityCodes, rows, catalog.cities);
+            checkCodes(catalog.areaCodes, rows, catalog.areas);
+            checkCodes(catalog.imagePrefixCodes, rows, catalog.imagePrefixes);
+            if (imageUrls != null) {
+                for (int row = 0; row < rows; row++) {
+                    catalog.setImageUrl(row, imageUrls[row]);
+                }
+            }
+            catalog.restored(rows);
+            return catalog;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new FormatException("Truncated snapshot: " + e);
+        }
+    }
+
+    private static void writeStrings(Block block, DataOutputStream blocks, int tag, String[] column, int rows,
+                                     StringTable strings) throws IOException {
+        block.begin(tag);
+        for (int row = 0; row < rows; row++) {
+            block.data.writeInt(strings.indexOf(column[row]));
+        }
+        block.end(blocks);
+    }
+
+    private static void writeLongs(Block block, DataOutputStream blocks, int tag, long[] column, int rows)
+            throws IOException {
+        block.begin(tag);
+        for (int row = 0; row < rows; row++) {
+            block.data.writeLong(column[row]);
+        }
+        block.end(blocks);
+    }
+
+    private static void writeInts(Block block, DataOutputStream blocks, int tag, int[] column, int rows)
+            throws IOException {
+        block.begin(tag);
+        for (int row = 0; row < rows; row++) {
+            block.data.writeInt(column[row]);
+        }
+        block.end(blocks);
+    }
+
+    private static void writeDictionary(Block block, DataOutputStream blocks, int tag, StringDictionary dictionary,
+                                        StringTable strings) throws IOException {
+        block.begin(tag);
+        block.data.writeInt(dictionary.size());
+        for (int code = 0; code < dictionary.size(); code++) {
+            block.data.writeInt(strings.indexOf(dictionary.decode(code)));
+        }
+        block.end(blocks);
+    }
+
+    private static void readStrings(ByteBuffer data, String[] strings, String[] column, int rows) {
+        for (int row = 0; row < rows; row++) {
+            int index = data.getInt();
+            column[row] = index == NULL_STRING ? null : strings[index];
+        }
+    }
+
+    private static void readDictionary(ByteBuffer data, String[] strings, StringDictionary dictionary)
+            throws FormatException {
+        int count = data.getInt();
+        for (int code = 0; code < count; code++) {
+            String value = strings[data.getInt()];
+            if (dictionary.encode(value) != code) {
+                throw new FormatException("Duplicate dictionary value " + value);
+            }
+        }
+    }
+
+    private static void checkCodes(int[] codes, int rows, StringDictionary dictionary) throws FormatException {
+        for (int row = 0; row < rows; row++) {
+            if (codes[row] < StringDictionary.NO_CODE || codes[row] >= dictionary.size()) {
+                throw new FormatException("Dictionary code " + codes[row] + " out of range at row " + row);
+            }
+        }
+    }
+
+    private static int checkCount(int count, ByteBuffer buffer) throws FormatException {
+        if (count < 0 || count > buffer.remaining()) {
+            throw new FormatException("Bad length " + count);
+        }
+        return count;
+    }
+
+    // One column block, buffered so its byte length can be written before the payload
+    private static final class Block {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+        final DataOutputStream data = new DataOutputStream(bytes);
+        int tag;
+        int count;
+
+        void begin(int tag) {
+            this.tag = tag;
+            bytes.reset();
+        }
+
+        void end(DataOutputStream out) throws IOException {
+            data.flush();
+            out.writeInt(tag);
+            out.writeInt(bytes.size());
+            bytes.writeTo(out);
+            count++;
+        }
+    }
+
+    // Deduplicated strings in first-use order
+    private static final class StringTable {
+        final Map<String, Integer> indexes = new HashMap<>();
+        byte[][] bytes = new byte[64][];
+        int byteSize;
+
+        int indexOf(String value) {
+            if (value == null) {
+                return NULL_STRING;
+            }
+            Integer index = indexes.get(value);
+            if (index != null) {
+                return index;
+            }
+            int next = indexes.size();
+            if (next == bytes.length) {
+                bytes = Arrays.copyOf(bytes, next * 2);
+            }
+            bytes[next] = value.getBytes(StandardCharsets.UTF_8);
+            byteSize += 4 + bytes[next].length;
+            indexes.put(value, next);
+            return next;
+        }
+
+        int size() {
+            return indexes.size();
+        }
+    }
+}
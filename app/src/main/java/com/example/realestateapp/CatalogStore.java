@@ -0,0 +1,185 @@
+package com.example.realestateapp;
+
+import android.content.Context;
+import android.util.Log;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Keeps the shared catalog in a CatalogSnapshot file so a cold start skips rebuilding it
+public final class CatalogStore {
+
+    private static final String TAG = "CatalogStore";
+    private static final String SNAPSHOT_FILE = "catalog.snapshot";
+
+    // One sync at a time for the whole app, whichever screen asked for it
+    private static final Executor SYNC_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "catalog-sync");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final AtomicBoolean syncing = new AtomicBoolean();
+
+    // Mapping of the current snapshot file; dropped whenever a new snapshot is saved
+    private static MappedCatalog mapped;
+    // The app-wide heap catalog, once loadShared() has restored or seeded it
+    private static PropertyCatalog shared;
+
+    private CatalogStore() {
+    }
+
+    /**
+     * Returns the shared catalog, restoring it from the snapshot on first use.
+     * Without a usable snapshot the sample listings are seeded and saved. Reads
+     * a file, so call it off the main thread.
+     */
+    public static synchronized PropertyCatalog loadShared(Context context) {
+        if (shared != null) {
+            return shared;
+        }
+        File file = snapshotFile(context);
+        if (file.isFile()) {
+            long start = System.nanoTime();
+            try (InputStream in = new FileInputStream(file)) {
+                shared = CatalogSnapshot.read(in);
+                Log.d(TAG, "Restored " + shared.size() + " listings from " + file.length() + " bytes in "
+                        + (System.nanoTime() - start) / 1000 + " us");
+                return shared;
+            } catch (IOException e) {
+                Log.w(TAG, "Discarding unreadable catalog snapshot", e);
+                file.delete();
+            }
+        }
+        PropertyCatalog catalog = new PropertyCatalog();
+        SampleListings.seed(catalog);
+        shared = catalog;
+        save(context, catalog);
+        OfflineListings.upsert(context, catalog, catalog.rowsMatching(null, null, false));
+        ListingDetails.store(context, SampleListings.details(catalog));
+        return catalog;
+    }
+
+    /**
+     * Listings read straight from the memory-mapped snapshot, decoded field by
+     * field as screens bind them. Falls back to the heap catalog when there is
+     * no snapshot that can be mapped. Touches the disk, so call it off the main
+     * thread where possible.
+     */
+    public static synchronized ListingTable mapped(Context context) {
+        if (mapped != null) {
+            return mapped;
+        }
+        File file = snapshotFile(context);
+        if (!file.isFile()) {
+            // Seeds and saves the first snapshot
+            loadShared(context);
+        }
+        try {
+            mapped = MappedCatalog.open(file);
+            return mapped;
+        } catch (IOException e) {
+            Log.w(TAG, "Cannot map catalog snapshot, using the heap catalog", e);
+            return loadShared(context);
+        }
+    }
+
+    /**
+     * Starts a {@link #sync} in the background unless one is already running,
+     * in which case the request is dropped: the running sync fetches up to the
+     * feed's latest version anyway. Safe to call from any screen's onCreate.
+     */
+    public static void requestSync(Context context) {
+        if (!syncing.compareAndSet(false, true)) {
+            return;
+        }
+        Context app = context.getApplicationContext();
+        SYNC_EXECUTOR.execute(() -> {
+            try {
+                sync(app);
+            } finally {
+                syncing.set(false);
+            }
+        });
+    }
+
+    /**
+     * Pulls the changes since the last sync from the configured feed, applies
+     * them to the shared catalog and persists a new snapshot. Returns null when
+     * no feed is configured or the sync failed. Blocks on the network; screens
+     * should use {@link #requestSync} so that syncs never overlap.
+     */
+    public static CatalogSync.Result sync(Context context) {
+        String url = context.getString(R.string.catalog_feed_url);
+        if (url.isEmpty()) {
+            return null;
+        }
+        PropertyCatalog catalog = loadShared(context);
+        try {
+            CatalogSync.Result result = new CatalogSync(catalog, new HttpListingFeed(url)).sync();
+            Log.d(TAG, result.toString());
+            CatalogChangeSet changes = result.getChanges();
+            // Persist even a batch that changed no rows, or its range is fetched again on every launch
+            if (result.getToVersion() > result.getFromVersion()) {
+                save(context, catalog);
+            }
+            if (!changes.isEmpty()) {
+                // Open screens re-query the new snapshot and re-render just the rows the batch touched
+                CatalogRepository.get(context).onCatalogChanged(changes);
+                int[] changed = concat(changes.getInserted(), changes.getUpdated());
+                OfflineListings.upsert(context, catalog, changed);
+                int[] removed = changes.getRemoved();
+                long[] removedIds = new long[removed.length];
+                for (int i = 0; i < removed.length; i++) {
+                    removedIds[i] = catalog.id(removed[i]);
+                }
+                OfflineListings.remove(context, removedIds);
+                ListingDetails.store(context, result.getDetails());
+                ListingDetails.remove(context, removedIds);
+            }
+            return result;
+        } catch (IOException e) {
+            Log.w(TAG, "Catalog sync failed", e);
+            return null;
+        }
+    }
+
+    // Writes the catalog to a temporary file and renames it over the snapshot, so a crash
+    // mid-write leaves the previous snapshot intact. Call after every sync.
+    public static synchronized boolean save(Context context, PropertyCatalog catalog) {
+        File file = snapshotFile(context);
+        File tmp = new File(file.getPath() + ".tmp");
+        try (OutputStream out = new FileOutputStream(tmp)) {
+            CatalogSnapshot.write(catalog, out);
+        } catch (IOException e) {
+            Log.w(TAG, "Failed to write catalog snapshot", e);
+            tmp.delete();
+            return false;
+        }
+        if (!tmp.renameTo(file)) {
+            Log.w(TAG, "Failed to replace catalog snapshot");
+            tmp.delete();
+            return false;
+        }
+        // Screens still holding the old mapping keep reading the replaced file
+        mapped = null;
+        return true;
+    }
+
+    private static int[] concat(int[] first, int[] second) {
+        int[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+    private static File snapshotFile(Context context) {
+        return new File(context.getApplicationContext().getFilesDir(), SNAPSHOT_FILE);
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.realestateapp;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Brings a {@link PropertyCatalog} up to date with a {@link ListingFeed} by
+ * asking only for the changes since the catalog's feed version, then applying
+ * the inserts, updates and tombstones as one batch. Listeners get the
+ * resulting {@link CatalogChangeSet} on the syncing thread.
+ */
+public final class CatalogSync {
+
+    public interface Listener {
+        void onCatalogChanged(CatalogChangeSet changes);
+    }
+
+    private final PropertyCatalog catalog;
+    private final ListingFeed feed;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    public CatalogSync(PropertyCatalog catalog, ListingFeed feed) {
+        this.catalog = catalog;
+        this.feed = feed;
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    // One fetch-and-apply round; blocks on the feed, so call it off the main thread
+    public Result sync() throws IOException {
+        long since = catalog.feedVersion();
+        long fetchStart = System.nanoTime();
+        byte[] body = feed.changesSince(since);
+        long fetchNanos = System.nanoTime() - fetchStart;
+
+        ListingDelta delta = ListingDelta.decode(body);
+        if (delta.getFromVersion() > since) {
+            throw new IOException("Feed skipped versions " + since + " to " + delta.getFromVersion());
+        }
+        long applyStart = System.nanoTime();
+        CatalogChangeSet changes = catalog.apply(delta.getUpserts(), delta.getTombstones(), delta.getToVersion());
+        long applyNanos = System.nanoTime() - applyStart;
+
+        if (!changes.isEmpty()) {
+            for (Listener listener : listeners) {
+                listener.onCatalogChanged(changes);
+            }
+        }
+        // Feed listings always carry their id, so every upsert has a detail record
+        List<ListingDetail> details = new ArrayList<>(delta.getUpserts().size());
+        for (PropertyCatalog.Listing listing : delta.getUpserts()) {
+            details.add(listing.detail());
+        }
+        return new Result(changes, details, since, body.length, fetchNanos, applyNanos);
+    }
+
+    // What one sync did and what it cost
+    public static final class Result {
+        private final CatalogChangeSet changes;
+        private final List<ListingDetail> details;
+        private final long fromVersion;
+        private final int bytesTransferred;
+        private final long fetchNanos;
+        private final long applyNanos;
+
+        Result(CatalogChangeSet changes, List<ListingDetail> details, long fromVersion, int bytesTransferred,
+                long fetchNanos, long applyNanos) {
+            this.changes = changes;
+            this.details = details;
+            this.fromVersion = fromVersion;
+            this.bytesTransferred = bytesTransferred;
+            this.fetchNanos = fetchNanos;
+            this.applyNanos = applyNanos;
+        }
+
+        public CatalogChangeSet getChanges() {
+            return changes;
+        }
+
+        // Detail records of the inserted and updated listings, which the catalog does not keep
+        public List<ListingDetail> getDetails() {
+            return details;
+        }
+
+        public long getFromVersion() {
+            return fromVersion;
+        }
+
+        public long getToVersion() {
+            return changes.getFeedVersion();
+        }
+
+        // Size of the feed response body
+        public int getBytesTransferred() {
+            return bytesTransferred;
+        }
+
+        public long getFetchNanos() {
+            return fetchNanos;
+        }
+
+        // Time spent applying the batch to the catalog, excluding fetch and decode
+        public long getApplyNanos() {
+            return applyNanos;
+        }
+
+        @Override
+        public String toString() {
+            return "Sync " + fromVersion + "->" + getToVersion() + ": " + changes + ", " + bytesTransferred
+                    + " bytes, fetch " + fetchNanos / 1000 + " us, apply " + applyNanos / 1000 + " us";
+        }
+    }
+}
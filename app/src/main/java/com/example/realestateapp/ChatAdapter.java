@@ -1,5 +1,7 @@
 package com.example.realestateapp;
 
+import android.os.Handler;
+import android.os.Looper;
 import android.util.DisplayMetrics;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -7,17 +9,75 @@ import android.view.ViewGroup;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.text.PrecomputedTextCompat;
 import androidx.recyclerview.widget.RecyclerView;
 
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
 public class ChatAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+    // Bubbles take at most this share of the screen width
+    static final float MAX_BUBBLE_FRACTION = 0.75f;
+
+    // Bubble text measured with each bubble layout's own paint, by message id
+    static final PrecomputedTexts USER_TEXT = new PrecomputedTexts(128);
+    static final PrecomputedTexts AI_TEXT = new PrecomputedTexts(128);
+
+    // Measures message text in the order messages are added
+    private static final Executor TEXT_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "chat-text");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
     private List<ChatMessage> messages;
+    // Worked out once from the first parent; set on each holder when it is created, not per bind
+    private int maxBubbleWidth;
+
+    // A bubble that shows message text; the user and AI holders implement it over their views
+    interface BubbleView {
+        void showText(@Nullable PrecomputedTextCompat measured, String text);
+    }
 
     public ChatAdapter(List<ChatMessage> messages) {
         this.messages = messages;
     }
 
+    /**
+     * Lays out the message's text on a background thread, then appends it to
+     * the list and calls onAdded on the main thread. Messages appear in the
+     * order they are added here, so use this for every message, including
+     * typing indicators.
+     */
+    public void addMessage(ChatMessage message, @Nullable Runnable onAdded) {
+        TEXT_EXECUTOR.execute(() -> {
+            PrecomputedTexts texts = textsFor(message.getType());
+            if (texts != null) {
+                texts.measure(message.getId(), message.getMessage());
+            }
+            mainHandler.post(() -> {
+                messages.add(message);
+                notifyItemInserted(messages.size() - 1);
+                if (onAdded != null) {
+                    onAdded.run();
+                }
+            });
+        });
+    }
+
+    @Nullable
+    private static PrecomputedTexts textsFor(int type) {
+        if (type == ChatMessage.TYPE_USER) {
+            return USER_TEXT;
+        } else if (type == ChatMessage.TYPE_AI) {
+            return AI_TEXT;
+        }
+        return null;
+    }
+
     @Override
     public int getItemViewType(int position) {
         return messages.get(position).getType();
@@ -26,14 +86,24 @@ public class ChatAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
     @NonNull
     @Override
     public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        if (maxBubbleWidth == 0) {
+            DisplayMetrics displayMetrics = parent.getResources().getDisplayMetrics();
+            maxBubbleWidth = bubbleWidth(displayMetrics.widthPixels);
+        }
         if (viewType == ChatMessage.TYPE_USER) {
             View view = LayoutInflater.from(parent.getContext())
                     .inflate(R.layout.item_chat_user, parent, false);
-            return new UserMessageViewHolder(view);
+            UserMessageViewHolder holder = new UserMessageViewHolder(view);
+            holder.messageText.setMaxWidth(maxBubbleWidth);
+            USER_TEXT.learn(holder.messageText);
+            return holder;
         } else if (viewType == ChatMessage.TYPE_AI) {
             View view = LayoutInflater.from(parent.getContext())
                     .inflate(R.layout.item_chat_ai, parent, false);
-            return new AIMessageViewHolder(view);
+            AIMessageViewHolder holder = new AIMessageViewHolder(view);
+            holder.messageText.setMaxWidth(maxBubbleWidth);
+            AI_TEXT.learn(holder.messageText);
+            return holder;
         } else {
             // Typing indicator
             View view = LayoutInflater.from(parent.getContext())
@@ -44,30 +114,20 @@ public class ChatAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
 
     @Override
     public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
-        ChatMessage message = messages.get(position);
-
-        if (holder instanceof UserMessageViewHolder) {
-            UserMessageViewHolder userHolder = (UserMessageViewHolder) holder;
-            userHolder.messageText.setText(message.getMessage());
-
-            // Set max width for message bubble based on screen width
-            DisplayMetrics displayMetrics = userHolder.itemView.getContext().getResources().getDisplayMetrics();
-            int screenWidth = displayMetrics.widthPixels;
-            int maxWidth = (int)(screenWidth * 0.75); // 75% of screen width
-
-            userHolder.messageText.setMaxWidth(maxWidth);
-        } else if (holder instanceof AIMessageViewHolder) {
-            AIMessageViewHolder aiHolder = (AIMessageViewHolder) holder;
-            aiHolder.messageText.setText(message.getMessage());
+        // Typing indicators are not bubbles and have nothing to bind
+        if (holder instanceof BubbleView) {
+            bind(messages.get(position), (BubbleView) holder);
+        }
+    }
 
-            // Set max width for message bubble based on screen width
-            DisplayMetrics displayMetrics = aiHolder.itemView.getContext().getResources().getDisplayMetrics();
-            int screenWidth = displayMetrics.widthPixels;
-            int maxWidth = (int)(screenWidth * 0.75); // 75% of screen width
+    // The holder's view type is the message type, so the texts it is measured into match its layout
+    static void bind(ChatMessage message, BubbleView bubble) {
+        PrecomputedTexts texts = textsFor(message.getType());
+        bubble.showText(texts != null ? texts.get(message.getId()) : null, message.getMessage());
+    }
 
-            aiHolder.messageText.setMaxWidth(maxWidth);
-        }
-        // No binding needed for typing indicator
+    static int bubbleWidth(int screenWidth) {
+        return (int) (screenWidth * MAX_BUBBLE_FRACTION);
     }
 
     @Override
@@ -75,22 +135,32 @@ public class ChatAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
         return messages.size();
     }
 
-    static class UserMessageViewHolder extends RecyclerView.ViewHolder {
+    static class UserMessageViewHolder extends RecyclerView.ViewHolder implements BubbleView {
         private TextView messageText;
 
         UserMessageViewHolder(View itemView) {
             super(itemView);
             messageText = itemView.findViewById(R.id.messageText);
         }
+
+        @Override
+        public void showText(@Nullable PrecomputedTextCompat measured, String text) {
+            PrecomputedTexts.setText(messageText, measured, text);
+        }
     }
 
-    static class AIMessageViewHolder extends RecyclerView.ViewHolder {
+    static class AIMessageViewHolder extends RecyclerView.ViewHolder implements BubbleView {
         private TextView messageText;
 
         AIMessageViewHolder(View itemView) {
             super(itemView);
             messageText = itemView.findViewById(R.id.messageText);
         }
+
+        @Override
+        public void showText(@Nullable PrecomputedTextCompat measured, String text) {
+            PrecomputedTexts.setText(messageText, measured, text);
+        }
     }
 
     static class TypingIndicatorViewHolder extends RecyclerView.ViewHolder {
@@ -1,18 +1,29 @@
 package com.example.realestateapp;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 public class ChatMessage {
     public static final int TYPE_USER = 0;
     public static final int TYPE_AI = 1;
     public static final int TYPE_TYPING = 2;
 
+    private static final AtomicLong nextId = new AtomicLong();
+
+    private final long id;
     private int type;
     private String message;
 
     public ChatMessage(int type, String message) {
+        this.id = nextId.incrementAndGet();
         this.type = type;
         this.message = message;
     }
 
+    // Unique within the process; later messages get larger ids
+    public long getId() {
+        return id;
+    }
+
     public int getType() {
         return type;
     }
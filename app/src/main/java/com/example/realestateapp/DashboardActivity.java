@@ -1,11 +1,8 @@
 package com.example.realestateapp;
 
-import android.annotation.SuppressLint;
 import android.content.Intent;
 import android.content.SharedPreferences;
 import android.os.Bundle;
-import android.os.Handler;
-import android.os.Looper;
 import android.util.Log;
 import android.view.View;
 import android.view.animation.AnimationUtils;
@@ -27,12 +24,12 @@ import com.google.android.material.navigation.NavigationView;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
 import java.util.ArrayList;
-import java.util.List;
 
 @SuppressWarnings("SpellCheckingInspection")
 public class DashboardActivity extends AppCompatActivity {
 
     private static final String TAG = "DashboardActivity";
+    private static final int RECOMMENDED_COUNT = 4;
 
     private DrawerLayout drawerLayout;
     private NavigationView navigationView;
@@ -43,7 +40,7 @@ public class DashboardActivity extends AppCompatActivity {
     private Fragment currentFragment = null;
     private FirebaseAuth mAuth;
     private PropertyAdapter propertyAdapter;
-    private final List<Property> recommendedProperties = new ArrayList<>();
+    private CatalogRepository.Subscription recommendedSubscription;
 
     // Custom Navigation Views
     private LinearLayout navHome, navSearch, navSaved, navProfile;
@@ -164,8 +161,11 @@ public class DashboardActivity extends AppCompatActivity {
         if (propertyRecyclerView != null) {
             propertyRecyclerView.setLayoutManager(
                     new LinearLayoutManager(this, LinearLayoutManager.HORIZONTAL, false));
-            propertyAdapter = new PropertyAdapter(recommendedProperties);
+            PropertyCardPool.attach(propertyRecyclerView, PropertyCardPool.HORIZONTAL_STRIP);
+            propertyAdapter = new PropertyAdapter(new ArrayList<>());
             propertyRecyclerView.setAdapter(propertyAdapter);
+            // Fill the pool for the search and saved tabs once the dashboard has settled
+            PropertyCardPool.preinflateWhenIdle(propertyRecyclerView, PropertyCardPool.VERTICAL_LIST);
         }
 
         // Set click listener for search
@@ -456,7 +456,6 @@ public class DashboardActivity extends AppCompatActivity {
         }
     }
 
-    @SuppressLint("NotifyDataSetChanged")
     private void showRecommendedProperties() {
         LinearLayout mainContainer = findViewById(R.id.mainContainer);
         if (mainContainer == null) {
@@ -473,58 +472,42 @@ public class DashboardActivity extends AppCompatActivity {
             return;
         }
 
+        // The newest listings as a live view: the first result fills the cards, later syncs
+        // only touch the cards whose listings changed
         final View finalLoadingView = loadingView;
-        new Handler(Looper.getMainLooper()).postDelayed(() -> {
-            recommendedProperties.clear();
-
-            recommendedProperties.add(new Property(
-                    "Modern Downtown Apartment",
-                    "PKR 9,500,000",
-                    "Islamabad, F-7 Markaz",
-                    "https://images.unsplash.com/photo-1540518614846-7eded433c457?ixlib=rb-1.2.1&auto=format&fit=crop&w=500&q=60"
-            ));
-
-            recommendedProperties.add(new Property(
-                    "Luxury Villa with Pool",
-                    "PKR 25,000,000",
-                    "DHA Phase 5, Lahore",
-                    "https://images.unsplash.com/photo-1564013799919-ab600027ffc6?ixlib=rb-1.2.1&auto=format&fit=crop&w=500&q=60"
-            ));
-
-            recommendedProperties.add(new Property(
-                    "Cozy Family Home",
-                    "PKR 7,000,000",
-                    "Gulberg, Lahore",
-                    "https://images.unsplash.com/photo-1576941089067-2de3c901e126?ixlib=rb-1.2.1&auto=format&fit=crop&w=500&q=60"
-            ));
-
-            recommendedProperties.add(new Property(
-                    "Bahria Town Penthouse",
-                    "PKR 15,500,000",
-                    "Bahria Town, Karachi",
-                    "https://images.unsplash.com/photo-1493809842364-78817add7ffb?ixlib=rb-1.2.1&auto=format&fit=crop&w=500&q=60"
-            ));
-
-            if (propertyAdapter != null) {
-                propertyAdapter.notifyDataSetChanged();
-            }
+        recommendedSubscription = CatalogRepository.get(this).observe(
+                CatalogRepository.newest(RECOMMENDED_COUNT), (items, change) -> {
+                    if (propertyAdapter != null) {
+                        propertyAdapter.submitList(items);
+                    }
+                    if (finalLoadingView.getParent() == null) {
+                        return;
+                    }
+                    mainContainer.removeView(finalLoadingView);
+
+                    RecyclerView propertyRecyclerView = findViewById(R.id.propertyRecyclerView);
+                    if (propertyRecyclerView != null) {
+                        propertyRecyclerView.setAlpha(0f);
+                        propertyRecyclerView.setTranslationY(100f);
+                        propertyRecyclerView.animate()
+                                .alpha(1f)
+                                .translationY(0f)
+                                .setDuration(800)
+                                .setInterpolator(new android.view.animation.DecelerateInterpolator())
+                                .start();
+                    }
+                });
 
-            if (mainContainer != null && finalLoadingView != null && finalLoadingView.getParent() != null) {
-                mainContainer.removeView(finalLoadingView);
-            }
+        // Fetch only what changed since the snapshot; the repository pushes the result to open screens
+        CatalogStore.requestSync(this);
+    }
 
-            RecyclerView propertyRecyclerView = findViewById(R.id.propertyRecyclerView);
-            if (propertyRecyclerView != null) {
-                propertyRecyclerView.setAlpha(0f);
-                propertyRecyclerView.setTranslationY(100f);
-                propertyRecyclerView.animate()
-                        .alpha(1f)
-                        .translationY(0f)
-                        .setDuration(800)
-                        .setInterpolator(new android.view.animation.DecelerateInterpolator())
-                        .start();
-            }
-        }, 1500);
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (recommendedSubscription != null) {
+            recommendedSubscription.close();
+        }
     }
 
     private void setupAIChat() {
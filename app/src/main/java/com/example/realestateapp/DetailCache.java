@@ -0,0 +1,47 @@
+package com.example.realestateapp;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LRU cache of {@link ListingDetail} records keyed by listing id. Size is
+ * bounded by entry count and by an estimate of retained bytes, so opening
+ * many listings in a row cannot grow the heap without limit.
+ */
+final class DetailCache {
+
+    private static final int MAX_ENTRIES = 32;
+    private static final long MAX_BYTES = 512 * 1024;
+
+    // Rough cost of a map entry and its boxed key
+    private static final int ENTRY_OVERHEAD = 64;
+
+    private final LinkedHashMap<Long, ListingDetail> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long estimatedBytes;
+
+    // Cached detail of the listing, or null
+    synchronized ListingDetail get(long listingId) {
+        return entries.get(listingId);
+    }
+
+    synchronized void put(ListingDetail detail) {
+        remove(detail.getListingId());
+        entries.put(detail.getListingId(), detail);
+        estimatedBytes += ENTRY_OVERHEAD + detail.estimatedBytes();
+
+        // The newest entry is kept even when it alone is over the byte bound
+        Iterator<Map.Entry<Long, ListingDetail>> eldest = entries.entrySet().iterator();
+        while ((entries.size() > MAX_ENTRIES || estimatedBytes > MAX_BYTES) && entries.size() > 1) {
+            estimatedBytes -= ENTRY_OVERHEAD + eldest.next().getValue().estimatedBytes();
+            eldest.remove();
+        }
+    }
+
+    synchronized void remove(long listingId) {
+        ListingDetail removed = entries.remove(listingId);
+        if (removed != null) {
+            estimatedBytes -= ENTRY_OVERHEAD + removed.estimatedBytes();
+        }
+    }
+}
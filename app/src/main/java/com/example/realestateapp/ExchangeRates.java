@@ -0,0 +1,48 @@
+package com.example.realestateapp;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Conversion table used to put prices in different currencies on one scale.
+ * Rates are "base currency units per one unit of the currency" and can be
+ * replaced at runtime, e.g. after fetching fresh rates.
+ */
+public class ExchangeRates {
+
+    public static final String BASE_CURRENCY = "PKR";
+
+    private final Map<String, Double> rates = new HashMap<>();
+
+    public ExchangeRates() {
+        rates.put(BASE_CURRENCY, 1.0);
+    }
+
+    // Approximate rates, good enough for ordering and filtering sample listings
+    public static ExchangeRates defaults() {
+        ExchangeRates rates = new ExchangeRates();
+        rates.setRate("USD", 280.0);
+        rates.setRate("AED", 76.0);
+        rates.setRate("EUR", 300.0);
+        rates.setRate("GBP", 355.0);
+        rates.setRate("SAR", 74.5);
+        return rates;
+    }
+
+    public synchronized void setRate(String currency, double baseUnitsPerUnit) {
+        rates.put(currency, baseUnitsPerUnit);
+    }
+
+    public synchronized boolean hasRate(String currency) {
+        return rates.containsKey(currency);
+    }
+
+    // Amount in base-currency minor units, or -1 when the currency is unknown
+    public synchronized long toBaseMinor(Price price) {
+        Double rate = rates.get(price.getCurrency());
+        if (rate == null) {
+            return -1;
+        }
+        return Math.round(price.getAmountMinor() * rate);
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.realestateapp;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * One compressed {@link RowBitmap} per facet value (type, purpose, city, area,
+ * bedrooms).
+ * Filter combinations are answered with bitmap AND/OR and facet counts with
+ * popcounts, so nothing here ever scans listings.
+ */
+public class FacetIndex {
+
+    public static final String TYPE = "type";
+    public static final String PURPOSE = "purpose";
+    public static final String CITY = "city";
+    public static final String AREA = "area";
+    // Values are bedroom counts as decimal strings
+    public static final String BEDROOMS = "bedrooms";
+
+    private static final String[] FACETS = {TYPE, PURPOSE, CITY, AREA, BEDROOMS};
+
+    // Facet -> value -> rows having that value
+    private final Map<String, Map<String, RowBitmap>> bitmaps = new HashMap<>();
+    // Row id -> its value for each entry of FACETS, kept so a row can be removed
+    private final List<String[]> rowValues = new ArrayList<>();
+
+    public FacetIndex() {
+        for (String facet : FACETS) {
+            bitmaps.put(facet, new LinkedHashMap<>());
+        }
+    }
+
+    public synchronized void add(int row, Property property) {
+        String location = property.getLocation();
+        String[] values = {
+                ListingClassifier.type(property.getTitle()),
+                ListingClassifier.purpose(property.getPrice()),
+                ListingClassifier.city(location),
+                ListingClassifier.area(location),
+                property.getBedrooms() != ListingTable.UNKNOWN ? String.valueOf(property.getBedrooms()) : null
+        };
+        while (rowValues.size() <= row) {
+            rowValues.add(null);
+        }
+        rowValues.set(row, values);
+
+        for (int i = 0; i < FACETS.length; i++) {
+            if (values[i] == null) {
+                continue;
+            }
+            Map<String, RowBitmap> facet = bitmaps.get(FACETS[i]);
+            RowBitmap bitmap = facet.get(values[i]);
+            if (bitmap == null) {
+                bitmap = new RowBitmap();
+                facet.put(values[i], bitmap);
+            }
+            bitmap.add(row);
+        }
+    }
+
+    public synchronized void remove(int row) {
+        if (row >= rowValues.size() || rowValues.get(row) == null) {
+            return;
+        }
+        String[] values = rowValues.get(row);
+        for (int i = 0; i < FACETS.length; i++) {
+            if (values[i] == null) {
+                continue;
+            }
+            Map<String, RowBitmap> facet = bitmaps.get(FACETS[i]);
+            RowBitmap bitmap = facet.get(values[i]);
+            if (bitmap != null) {
+                bitmap.remove(row);
+                if (bitmap.isEmpty()) {
+                    facet.remove(values[i]);
+                }
+            }
+        }
+        rowValues.set(row, null);
+    }
+
+    // Rows matching every selected facet, or null when no facet is selected
+    public synchronized RowBitmap select(SearchFilters filters) {
+        return select(filters, null);
+    }
+
+    // Same as select(filters) but ignoring one facet; used for that facet's counts
+    synchronized RowBitmap select(SearchFilters filters, String excludedFacet) {
+        RowBitmap result = null;
+        for (Map.Entry<String, Set<String>> entry : filters.facets().entrySet()) {
+            String facet = entry.getKey();
+            Map<String, RowBitmap> values = bitmaps.get(facet);
+            if (facet.equals(excludedFacet) || values == null) {
+                continue;
+            }
+            RowBitmap union = new RowBitmap();
+            for (String value : entry.getValue()) {
+                RowBitmap bitmap = values.get(value);
+                if (bitmap != null) {
+                    union = union.or(bitmap);
+                }
+            }
+            result = result == null ? union : result.and(union);
+        }
+        return result;
+    }
+
+    // Rows having any of the given values of one facet
+    public synchronized RowBitmap union(String facet, Collection<String> values) {
+        RowBitmap union = new RowBitmap();
+        Map<String, RowBitmap> bitmaps = this.bitmaps.get(facet);
+        if (bitmaps == null) {
+            return union;
+        }
+        for (String value : values) {
+            RowBitmap bitmap = bitmaps.get(value);
+            if (bitmap != null) {
+                union = union.or(bitmap);
+            }
+        }
+        return union;
+    }
+
+    // Upper bound on union(facet, values).cardinality() without building the union
+    public synchronized int count(String facet, Collection<String> values) {
+        Map<String, RowBitmap> bitmaps = this.bitmaps.get(facet);
+        int count = 0;
+        if (bitmaps != null) {
+            for (String value : values) {
+                RowBitmap bitmap = bitmaps.get(value);
+                count += bitmap != null ? bitmap.cardinality() : 0;
+            }
+        }
+        return count;
+    }
+
+    // Values of a numeric facet such as BEDROOMS within [min, max]
+    public synchronized Set<String> valuesBetween(String facet, int min, int max) {
+        Set<String> result = new TreeSet<>();
+        Map<String, RowBitmap> bitmaps = this.bitmaps.get(facet);
+        if (bitmaps == null) {
+            return result;
+        }
+        for (String value : bitmaps.keySet()) {
+            try {
+                int number = Integer.parseInt(value);
+                if (number >= min && number <= max) {
+                    result.add(value);
+                }
+            } catch (NumberFormatException ignored) {
+                // Not a numeric value
+            }
+        }
+        return result;
+    }
+
+    // The stored spelling of a value, matched case-insensitively, or null when absent
+    public synchronized String findValue(String facet, String value) {
+        Map<String, RowBitmap> bitmaps = this.bitmaps.get(facet);
+        if (bitmaps != null) {
+            for (String candidate : bitmaps.keySet()) {
+                if (candidate.equalsIgnoreCase(value)) {
+                    return candidate;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Counts per value of a facet, restricted to base (null for all rows) and to
+     * the selection on the other facets, so each chip shows how many results
+     * selecting it would add.
+     */
+    public synchronized Map<String, Integer> counts(String facet, RowBitmap base, SearchFilters filters) {
+        RowBitmap scope = select(filters, facet);
+        if (scope == null) {
+            scope = base;
+        } else if (base != null) {
+            scope = scope.and(base);
+        }
+
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        Map<String, RowBitmap> values = bitmaps.get(facet);
+        if (values == null) {
+            return counts;
+        }
+        for (Map.Entry<String, RowBitmap> entry : values.entrySet()) {
+            RowBitmap bitmap = entry.getValue();
+            counts.put(entry.getKey(), scope == null ? bitmap.cardinality() : bitmap.andCardinality(scope));
+        }
+        return counts;
+    }
+}
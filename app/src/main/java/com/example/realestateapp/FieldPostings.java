@@ -0,0 +1,62 @@
+package com.example.realestateapp;
+
+import java.util.Arrays;
+
+// Posting list that also records how often the term occurs in each indexed field, for relevance scoring
+final class FieldPostings {
+
+    static final int FIELD_TITLE = 0;
+    static final int FIELD_LOCATION = 1;
+    static final int FIELD_DESCRIPTION = 2;
+    static final int FIELD_COUNT = 3;
+
+    private int[] rows = new int[2];
+    // FIELD_COUNT frequencies per posting, in the same order as rows
+    private short[] frequencies = new short[2 * FIELD_COUNT];
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    int row(int index) {
+        return rows[index];
+    }
+
+    int frequency(int index, int field) {
+        return frequencies[index * FIELD_COUNT + field];
+    }
+
+    // Keeps postings in row order; new rows usually come last, but a reused row goes in its place
+    void add(int row, int[] fieldFrequencies) {
+        if (size == rows.length) {
+            rows = Arrays.copyOf(rows, size * 2);
+            frequencies = Arrays.copyOf(frequencies, size * 2 * FIELD_COUNT);
+        }
+        int index = size;
+        if (size > 0 && rows[size - 1] > row) {
+            index = -Arrays.binarySearch(rows, 0, size, row) - 1;
+            System.arraycopy(rows, index, rows, index + 1, size - index);
+            System.arraycopy(frequencies, index * FIELD_COUNT, frequencies, (index + 1) * FIELD_COUNT,
+                    (size - index) * FIELD_COUNT);
+        }
+        rows[index] = row;
+        for (int field = 0; field < FIELD_COUNT; field++) {
+            frequencies[index * FIELD_COUNT + field] =
+                    (short) Math.min(fieldFrequencies[field], Short.MAX_VALUE);
+        }
+        size++;
+    }
+
+    boolean remove(int row) {
+        int index = Arrays.binarySearch(rows, 0, size, row);
+        if (index < 0) {
+            return false;
+        }
+        System.arraycopy(rows, index + 1, rows, index, size - index - 1);
+        System.arraycopy(frequencies, (index + 1) * FIELD_COUNT, frequencies, index * FIELD_COUNT,
+                (size - index - 1) * FIELD_COUNT);
+        size--;
+        return true;
+    }
+}
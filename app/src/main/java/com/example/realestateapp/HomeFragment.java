@@ -32,10 +32,11 @@ public class HomeFragment extends Fragment {
     private ChatAdapter chatAdapter;
     private PropertyAdapter propertyAdapter;
     private List<ChatMessage> chatMessages;
-    private List<Property> propertyList;
+    private CatalogRepository.Subscription propertySubscription;
     private int chatStep = 0;
     private String userAction, userBudget, userCity;
     private static final String TAG = "HomeFragment";
+    private static final int FALLBACK_COUNT = 5;
     private Handler handler;
 
     @Nullable
@@ -84,8 +85,7 @@ public class HomeFragment extends Fragment {
 
         // Initialize Property RecyclerView (initially hidden)
         try {
-            propertyList = new ArrayList<>();
-            propertyAdapter = new PropertyAdapter(propertyList);
+            propertyAdapter = new PropertyAdapter(new ArrayList<>());
             propertyRecyclerView.setLayoutManager(new LinearLayoutManager(getContext()));
             propertyRecyclerView.setAdapter(propertyAdapter);
             propertyRecyclerView.setVisibility(View.GONE);
@@ -138,9 +138,8 @@ public class HomeFragment extends Fragment {
     }
 
     private void addAIMessage(String message) {
-        chatMessages.add(new ChatMessage(ChatMessage.TYPE_AI, message));
-        chatAdapter.notifyItemInserted(chatMessages.size() - 1);
-        chatRecyclerView.scrollToPosition(chatMessages.size() - 1);
+        chatAdapter.addMessage(new ChatMessage(ChatMessage.TYPE_AI, message),
+                () -> chatRecyclerView.scrollToPosition(chatMessages.size() - 1));
     }
 
     private void showOptions() {
@@ -227,18 +226,15 @@ public class HomeFragment extends Fragment {
     }
 
     private void fetchProperties() {
-        // Simulate fetching properties based on user requirements
-        // For now, we’ll use sample data
-        propertyList.clear();
-        if (userCity != null && userCity.toLowerCase().contains("islamabad")) {
-            propertyList.add(new Property("Modern House in F-7", "AED 1,200,000", "Islamabad, F-7", "https://images.unsplash.com/photo-1600585154340-be6161a56a0c"));
-            propertyList.add(new Property("Luxury Apartment in E-11", "AED 800,000", "Islamabad, E-11", "https://images.unsplash.com/photo-1600585154340-be6161a56a0c"));
-            propertyList.add(new Property("Villa in G-13", "AED 1,500,000", "Islamabad, G-13", "https://images.unsplash.com/photo-1600585154340-be6161a56a0c"));
-        } else {
-            propertyList.add(new Property("Cozy Townhouse", "AED 600,000", userCity != null ? userCity : "Unknown City", "https://images.unsplash.com/photo-1600585154340-be6161a56a0c"));
-            propertyList.add(new Property("Spacious Penthouse", "AED 2,000,000", userCity != null ? userCity : "Unknown City", "https://images.unsplash.com/photo-1600585154340-be6161a56a0c"));
+        // Listings in the chosen city, or the newest ones when the catalog has none there;
+        // the view keeps following catalog syncs while the fragment is shown
+        if (propertySubscription != null) {
+            propertySubscription.close();
         }
-        propertyAdapter.notifyDataSetChanged();
+        CatalogRepository.Query query = CatalogRepository.orElse(
+                CatalogRepository.inCity(userCity), CatalogRepository.newest(FALLBACK_COUNT));
+        propertySubscription = CatalogRepository.get(requireContext()).observe(query,
+                (items, change) -> propertyAdapter.submitList(items));
     }
 
     private void showSuccessMessage(String message) {
@@ -303,5 +299,9 @@ public class HomeFragment extends Fragment {
         if (handler != null) {
             handler.removeCallbacksAndMessages(null);
         }
+        if (propertySubscription != null) {
+            propertySubscription.close();
+            propertySubscription = null;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.example.realestateapp;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+// Listing feed served over HTTP: GET <url>?since=<version> answers with an encoded ListingDelta
+public final class HttpListingFeed implements ListingFeed {
+
+    private static final int TIMEOUT_MS = 15000;
+
+    private final String url;
+
+    public HttpListingFeed(String url) {
+        this.url = url;
+    }
+
+    @Override
+    public byte[] changesSince(long version) throws IOException {
+        String separator = url.contains("?") ? "&" : "?";
+        HttpURLConnection connection = (HttpURLConnection) new URL(url + separator + "since=" + version).openConnection();
+        try {
+            connection.setConnectTimeout(TIMEOUT_MS);
+            connection.setReadTimeout(TIMEOUT_MS);
+            connection.setRequestProperty("Accept", "application/octet-stream");
+            int status = connection.getResponseCode();
+            if (status != HttpURLConnection.HTTP_OK) {
+                throw new IOException("Feed answered HTTP " + status);
+            }
+            int length = connection.getContentLength();
+            ByteArrayOutputStream body = new ByteArrayOutputStream(length > 0 ? length : 16 * 1024);
+            byte[] chunk = new byte[16 * 1024];
+            try (InputStream in = connection.getInputStream()) {
+                int read;
+                while ((read = in.read(chunk)) != -1) {
+                    body.write(chunk, 0, read);
+                }
+            }
+            return body.toByteArray();
+        } finally {
+            connection.disconnect();
+        }
+    }
+}
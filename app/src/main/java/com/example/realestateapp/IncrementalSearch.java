@@ -0,0 +1,90 @@
+package com.example.realestateapp;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Sits in front of {@link PropertySearchIndex} and reuses earlier answers while
+ * the user types. When a query extends the previous one, only the previous
+ * matches are re-checked; on backspace the longest recently seen prefix is
+ * reused from a small LRU before falling back to the full index.
+ */
+public class IncrementalSearch {
+
+    private static final int MAX_RECENT_PREFIXES = 16;
+
+    private final PropertySearchIndex index;
+    private final Map<String, int[]> recentPrefixes =
+            new LinkedHashMap<String, int[]>(MAX_RECENT_PREFIXES, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, int[]> eldest) {
+                    return size() > MAX_RECENT_PREFIXES;
+                }
+            };
+    private String lastQuery;
+    private int[] lastRows;
+    private long indexVersion = -1;
+
+    public IncrementalSearch(PropertySearchIndex index) {
+        this.index = index;
+    }
+
+    public synchronized int[] search(String query) {
+        String[] terms = PropertySearchIndex.tokenize(query);
+        String normalized = String.join(" ", terms);
+
+        // Any add/remove on the index invalidates everything we remember
+        if (index.version() != indexVersion) {
+            indexVersion = index.version();
+            recentPrefixes.clear();
+            lastQuery = null;
+            lastRows = null;
+        }
+
+        int[] rows;
+        if (normalized.equals(lastQuery)) {
+            rows = lastRows;
+        } else if (lastQuery != null && normalized.startsWith(lastQuery)) {
+            // Typing forward: the answer is a subset of the previous survivors
+            rows = narrow(lastRows, terms, normalized);
+        } else {
+            rows = recentPrefixes.get(normalized);
+            if (rows == null) {
+                String base = longestCachedPrefix(normalized);
+                rows = base != null ? narrow(recentPrefixes.get(base), terms, normalized) : index.search(normalized);
+            }
+        }
+
+        lastQuery = normalized;
+        lastRows = rows;
+        recentPrefixes.put(normalized, rows);
+        return rows;
+    }
+
+    private int[] narrow(int[] candidates, String[] terms, String normalized) {
+        // Re-checking most of the catalog row by row is slower than the postings,
+        // and typo-corrected terms can only be resolved through the index
+        if (candidates.length > index.size() / 4 || index.needsFuzzyMatch(terms)) {
+            return index.search(normalized);
+        }
+        int[] result = new int[candidates.length];
+        int count = 0;
+        for (int row : candidates) {
+            if (index.matches(row, terms)) {
+                result[count++] = row;
+            }
+        }
+        return count == result.length ? result : Arrays.copyOf(result, count);
+    }
+
+    private String longestCachedPrefix(String normalized) {
+        String best = null;
+        for (String key : recentPrefixes.keySet()) {
+            if (normalized.startsWith(key) && (best == null || key.length() > best.length())) {
+                best = key;
+            }
+        }
+        return best;
+    }
+}
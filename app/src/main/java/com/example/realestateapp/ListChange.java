@@ -0,0 +1,185 @@
+package com.example.realestateapp;
+
+import java.util.Arrays;
+
+/**
+ * Minimal set of range operations that turns one ordered list of catalog rows
+ * into another: removals, then insertions, then in-place changes, each as
+ * (position, count) runs. Replaying them in order through a {@link Receiver}
+ * keeps an adapter in step without rebinding rows that did not move or change.
+ */
+public final class ListChange {
+
+    public interface Receiver {
+        void onRemoved(int position, int count);
+
+        void onInserted(int position, int count);
+
+        void onChanged(int position, int count);
+    }
+
+    static final ListChange NONE = new ListChange(new int[0], 0);
+
+    private static final int REMOVED = 0;
+    private static final int INSERTED = 1;
+    private static final int CHANGED = 2;
+
+    // (kind, position, count) triples in replay order
+    private final int[] ops;
+    private final int length;
+
+    private ListChange(int[] ops, int length) {
+        this.ops = ops;
+        this.length = length;
+    }
+
+    /**
+     * Changes from before to after. Rows are compared by number, so each row
+     * may appear at most once per list; rows kept in both lists are reported
+     * as changed when they appear in updatedRows (sorted ascending). Rows that
+     * moved are removed and inserted again, keeping the longest run of rows
+     * whose relative order did not change in place.
+     */
+    static ListChange between(int[] before, int[] after, int[] updatedRows) {
+        LongIntHashMap afterIndex = new LongIntHashMap();
+        for (int i = 0; i < after.length; i++) {
+            afterIndex.put(after[i], i);
+        }
+        // Position in after of each row of before, or MISSING
+        int[] target = new int[before.length];
+        for (int i = 0; i < before.length; i++) {
+            target[i] = afterIndex.get(before[i]);
+        }
+        boolean[] keptBefore = longestIncreasing(target);
+        boolean[] keptAfter = new boolean[after.length];
+        for (int i = 0; i < before.length; i++) {
+            if (keptBefore[i]) {
+                keptAfter[target[i]] = true;
+            }
+        }
+
+        Builder builder = new Builder();
+        // Back to front, so earlier positions stay valid while removing
+        int i = before.length - 1;
+        while (i >= 0) {
+            if (keptBefore[i]) {
+                i--;
+                continue;
+            }
+            int end = i;
+            while (i >= 0 && !keptBefore[i]) {
+                i--;
+            }
+            builder.add(REMOVED, i + 1, end - i);
+        }
+        // What is left is the kept rows in after's order, so inserting front to back lands every row in place
+        runs(builder, INSERTED, after, keptAfter, false, null);
+        runs(builder, CHANGED, after, keptAfter, true, updatedRows);
+        return builder.build();
+    }
+
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    public void dispatchTo(Receiver receiver) {
+        for (int i = 0; i < length; i += 3) {
+            int position = ops[i + 1];
+            int count = ops[i + 2];
+            switch (ops[i]) {
+                case REMOVED:
+                    receiver.onRemoved(position, count);
+                    break;
+                case INSERTED:
+                    receiver.onInserted(position, count);
+                    break;
+                default:
+                    receiver.onChanged(position, count);
+                    break;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("ListChange{");
+        for (int i = 0; i < length; i += 3) {
+            if (i > 0) {
+                text.append(", ");
+            }
+            text.append("-+~".charAt(ops[i])).append(ops[i + 1]).append('x').append(ops[i + 2]);
+        }
+        return text.append('}').toString();
+    }
+
+    // Coalesces the positions of after selected by kept == wanted (and updated, when given) into runs
+    private static void runs(Builder builder, int kind, int[] after, boolean[] kept, boolean wanted,
+                             int[] updatedRows) {
+        int i = 0;
+        while (i < after.length) {
+            if (!selected(after, kept, wanted, updatedRows, i)) {
+                i++;
+                continue;
+            }
+            int start = i;
+            while (i < after.length && selected(after, kept, wanted, updatedRows, i)) {
+                i++;
+            }
+            builder.add(kind, start, i - start);
+        }
+    }
+
+    private static boolean selected(int[] after, boolean[] kept, boolean wanted, int[] updatedRows, int i) {
+        return kept[i] == wanted && (updatedRows == null || Arrays.binarySearch(updatedRows, after[i]) >= 0);
+    }
+
+    // Marks a longest strictly increasing subsequence of the non-MISSING values, O(n log n)
+    private static boolean[] longestIncreasing(int[] values) {
+        int[] tails = new int[values.length];
+        int[] previous = new int[values.length];
+        int length = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == LongIntHashMap.MISSING) {
+                continue;
+            }
+            int low = 0;
+            int high = length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (values[tails[mid]] < values[i]) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            previous[i] = low > 0 ? tails[low - 1] : -1;
+            tails[low] = i;
+            if (low == length) {
+                length++;
+            }
+        }
+        boolean[] marked = new boolean[values.length];
+        for (int i = length > 0 ? tails[length - 1] : -1; i >= 0; i = previous[i]) {
+            marked[i] = true;
+        }
+        return marked;
+    }
+
+    private static final class Builder {
+        private int[] ops = new int[12];
+        private int length;
+
+        void add(int kind, int position, int count) {
+            if (length + 3 > ops.length) {
+                ops = Arrays.copyOf(ops, ops.length * 2);
+            }
+            ops[length++] = kind;
+            ops[length++] = position;
+            ops[length++] = count;
+        }
+
+        ListChange build() {
+            return length == 0 ? NONE : new ListChange(ops, length);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.realestateapp;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Numeric attributes of a listing parsed out of its free text: bedrooms,
+ * bathrooms, covered area and parking spaces. This runs once, when a listing
+ * is written to the catalog, so filters and sorts compare primitive columns
+ * instead of matching text at query time. Attributes the text does not
+ * mention stay UNKNOWN.
+ */
+final class ListingAttributes {
+
+    static final int UNKNOWN = ListingTable.UNKNOWN;
+
+    // Covered area is normalized to square feet. A marla is taken as 225 sq ft, the
+    // size most housing societies use, and a kanal as 20 marla.
+    static final int SQ_FT_PER_MARLA = 225;
+    static final int SQ_FT_PER_KANAL = 20 * SQ_FT_PER_MARLA;
+    private static final double SQ_FT_PER_SQ_YD = 9;
+    private static final double SQ_FT_PER_SQ_M = 10.7639;
+
+    // "3 Bed", "4-bedroom", "2BR", "3 bhk"
+    private static final Pattern BEDROOMS = Pattern.compile("(\\d{1,2})\\s*-?\\s*(?:bedrooms?|beds?|br|bhk)\\b");
+    // "2 bath", "3 Bathrooms", "2 washrooms"
+    private static final Pattern BATHROOMS = Pattern.compile("(\\d{1,2})\\s*-?\\s*(?:bathrooms?|baths?|washrooms?)\\b");
+    // "1,800 sq ft", "10 marla", "1 kanal", "200 sq yd", "120 m2"
+    private static final Pattern AREA = Pattern.compile("(\\d{1,3}(?:,\\d{3})+|\\d+(?:\\.\\d+)?)\\s*-?\\s*"
+            + "(sq\\.?\\s*(?:ft|feet)|square\\s*(?:feet|foot|ft)|sqft|ft2"
+            + "|sq\\.?\\s*(?:yds?|yards?)|square\\s*yards?"
+            + "|sq\\.?\\s*m|square\\s*met(?:er|re)s?|m2"
+            + "|marlas?|kanals?)(?![a-z])");
+    // "2 car parking", "1 garage", "parking for 3 cars"
+    private static final Pattern PARKING_COUNT = Pattern.compile(
+            "(\\d{1,2})\\s*-?\\s*(?:cars?\\s*)?(?:parking|garages?|car\\s*porch)|parking\\s*for\\s*(\\d{1,2})");
+    private static final Pattern PARKING = Pattern.compile("\\b(?:parking|garage|car\\s*porch)\\b");
+    private static final Pattern NO_PARKING = Pattern.compile("\\bno\\s*(?:parking|garage)\\b");
+
+    int bedrooms = UNKNOWN;
+    int bathrooms = UNKNOWN;
+    int coveredAreaSqFt = UNKNOWN;
+    int parkingSpaces = UNKNOWN;
+
+    private ListingAttributes() {
+    }
+
+    // Parses texts in order; the first text mentioning an attribute decides it
+    static ListingAttributes parse(String... texts) {
+        ListingAttributes attributes = new ListingAttributes();
+        for (String text : texts) {
+            if (text != null && !text.isEmpty()) {
+                attributes.parseText(text.toLowerCase(Locale.ROOT));
+            }
+        }
+        return attributes;
+    }
+
+    private void parseText(String text) {
+        if (bedrooms == UNKNOWN) {
+            bedrooms = count(BEDROOMS, text);
+        }
+        if (bathrooms == UNKNOWN) {
+            bathrooms = count(BATHROOMS, text);
+        }
+        if (coveredAreaSqFt == UNKNOWN) {
+            coveredAreaSqFt = area(text);
+        }
+        if (parkingSpaces == UNKNOWN) {
+            parkingSpaces = parking(text);
+        }
+    }
+
+    private static int count(Pattern pattern, String text) {
+        Matcher matcher = pattern.matcher(text);
+        return matcher.find() ? Integer.parseInt(matcher.group(1)) : UNKNOWN;
+    }
+
+    private static int area(String text) {
+        Matcher matcher = AREA.matcher(text);
+        while (matcher.find()) {
+            double value = Double.parseDouble(matcher.group(1).replace(",", ""));
+            double sqFt = value * sqFtPerUnit(matcher.group(2));
+            if (sqFt >= 1 && sqFt < Integer.MAX_VALUE) {
+                return (int) Math.round(sqFt);
+            }
+        }
+        return UNKNOWN;
+    }
+
+    private static double sqFtPerUnit(String unit) {
+        if (unit.startsWith("marla")) {
+            return SQ_FT_PER_MARLA;
+        }
+        if (unit.startsWith("kanal")) {
+            return SQ_FT_PER_KANAL;
+        }
+        if (unit.contains("y")) {
+            return SQ_FT_PER_SQ_YD;
+        }
+        if (unit.endsWith("m") || unit.contains("met") || unit.equals("m2")) {
+            return SQ_FT_PER_SQ_M;
+        }
+        return 1;
+    }
+
+    // Counted spaces when given, 1 for a bare mention, 0 for "no parking"
+    private static int parking(String text) {
+        if (NO_PARKING.matcher(text).find()) {
+            return 0;
+        }
+        Matcher matcher = PARKING_COUNT.matcher(text);
+        if (matcher.find()) {
+            return Integer.parseInt(matcher.group(1) != null ? matcher.group(1) : matcher.group(2));
+        }
+        return PARKING.matcher(text).find() ? 1 : UNKNOWN;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.realestateapp;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+// Derives facet values (type, purpose, city, area) from the display fields of a listing;
+// numeric attributes such as bedrooms are parsed by ListingAttributes
+final class ListingClassifier {
+
+    static final String TYPE_HOUSE = "House";
+    static final String TYPE_APARTMENT = "Apartment";
+    static final String TYPE_COMMERCIAL = "Commercial";
+
+    static final String PURPOSE_SALE = "Sale";
+    static final String PURPOSE_RENT = "Rent";
+
+    private static final Set<String> KNOWN_CITIES = new HashSet<>(Arrays.asList(
+            "karachi", "lahore", "islamabad", "rawalpindi", "peshawar", "quetta",
+            "multan", "faisalabad", "hyderabad", "sialkot", "dubai", "abu dhabi", "sharjah"));
+
+    private ListingClassifier() {
+    }
+
+    static String type(String title) {
+        if (title == null) {
+            return null;
+        }
+        String text = title.toLowerCase(Locale.ROOT);
+        if (containsAny(text, "commercial", "plaza", "shop", "office", "warehouse")) {
+            return TYPE_COMMERCIAL;
+        }
+        if (containsAny(text, "apartment", "flat", "penthouse", "studio")) {
+            return TYPE_APARTMENT;
+        }
+        if (containsAny(text, "house", "villa", "home", "townhouse", "bungalow")) {
+            return TYPE_HOUSE;
+        }
+        return null;
+    }
+
+    // Rental prices are quoted per period, e.g. "PKR 45,000/month"
+    static String purpose(String price) {
+        if (price == null) {
+            return PURPOSE_SALE;
+        }
+        String text = price.toLowerCase(Locale.ROOT);
+        return containsAny(text, "/month", "per month", "/year", "per year") ? PURPOSE_RENT : PURPOSE_SALE;
+    }
+
+    static boolean isKnownCity(String name) {
+        return KNOWN_CITIES.contains(name.toLowerCase(Locale.ROOT));
+    }
+
+    // Locations come as "Area, City" or "City, Area"
+    static String city(String location) {
+        String[] parts = splitLocation(location);
+        for (String part : parts) {
+            if (KNOWN_CITIES.contains(part.toLowerCase(Locale.ROOT))) {
+                return part;
+            }
+        }
+        return parts.length > 1 ? parts[parts.length - 1] : null;
+    }
+
+    static String area(String location) {
+        String[] parts = splitLocation(location);
+        String city = city(location);
+        for (String part : parts) {
+            if (!part.equals(city)) {
+                return part;
+            }
+        }
+        return null;
+    }
+
+    private static String[] splitLocation(String location) {
+        if (location == null || location.trim().isEmpty()) {
+            return new String[0];
+        }
+        String[] parts = location.split(",");
+        for (int i = 0; i < parts.length; i++) {
+            parts[i] = parts[i].trim();
+        }
+        return parts;
+    }
+
+    private static boolean containsAny(String text, String... needles) {
+        for (String needle : needles) {
+            if (text.contains(needle)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
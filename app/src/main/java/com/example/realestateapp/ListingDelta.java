@@ -0,0 +1,189 @@
+package com.example.realestateapp;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Changes to the listing feed between two feed versions: listings inserted or
+ * updated since fromVersion, and ids removed since then. The wire format is
+ * binary and big-endian:
+ * <pre>
+ *   int magic, short version, long fromVersion, long toVersion
+ *   int upsertCount, then per listing: long id, strings title, price,
+ *       location, imageUrl, description, type, city, area, double latitude,
+ *       double longitude, int bedrooms, long listedAt, long updatedAt,
+ *       string lists amenities, imageUrls
+ *   int tombstoneCount, then that many long ids
+ * </pre>
+ * Strings are an int UTF-8 byte length (-1 for null) followed by the bytes;
+ * string lists are an int count followed by the strings. Version 1 deltas,
+ * which end each listing at updatedAt, are still read.
+ */
+public final class ListingDelta {
+
+    static final int MAGIC = 0x52454c44; // "RELD"
+    static final short FORMAT_VERSION = 2;
+
+    private final long fromVersion;
+    private final long toVersion;
+    private final List<PropertyCatalog.Listing> upserts;
+    private final long[] tombstones;
+
+    public ListingDelta(long fromVersion, long toVersion, List<PropertyCatalog.Listing> upserts, long[] tombstones) {
+        this.fromVersion = fromVersion;
+        this.toVersion = toVersion;
+        this.upserts = Collections.unmodifiableList(upserts);
+        this.tombstones = tombstones;
+    }
+
+    public long getFromVersion() {
+        return fromVersion;
+    }
+
+    public long getToVersion() {
+        return toVersion;
+    }
+
+    public List<PropertyCatalog.Listing> getUpserts() {
+        return upserts;
+    }
+
+    public long[] getTombstones() {
+        return tombstones.clone();
+    }
+
+    public byte[] encode() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + upserts.size() * 160);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeShort(FORMAT_VERSION);
+        out.writeLong(fromVersion);
+        out.writeLong(toVersion);
+        out.writeInt(upserts.size());
+        for (PropertyCatalog.Listing listing : upserts) {
+            out.writeLong(listing.id);
+            writeString(out, listing.title);
+            writeString(out, listing.price);
+            writeString(out, listing.location);
+            writeString(out, listing.imageUrl);
+            writeString(out, listing.description);
+            writeString(out, listing.type);
+            writeString(out, listing.city);
+            writeString(out, listing.area);
+            out.writeDouble(listing.latitude);
+            out.writeDouble(listing.longitude);
+            out.writeInt(listing.bedrooms);
+            out.writeLong(listing.listedAt);
+            out.writeLong(listing.updatedAt);
+            writeStrings(out, listing.amenities);
+            writeStrings(out, listing.imageUrls);
+        }
+        out.writeInt(tombstones.length);
+        for (long id : tombstones) {
+            out.writeLong(id);
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    public static ListingDelta decode(byte[] bytes) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        try {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a listing delta");
+            }
+            short version = in.readShort();
+            if (version < 1 || version > FORMAT_VERSION) {
+                throw new IOException("Unsupported listing delta version " + version);
+            }
+            long fromVersion = in.readLong();
+            long toVersion = in.readLong();
+            int upsertCount = readCount(in, bytes.length);
+            List<PropertyCatalog.Listing> upserts = new ArrayList<>(upsertCount);
+            for (int i = 0; i < upsertCount; i++) {
+                long id = in.readLong();
+                PropertyCatalog.Listing listing = new PropertyCatalog.Listing(
+                        readString(in, bytes.length), readString(in, bytes.length),
+                        readString(in, bytes.length), readString(in, bytes.length));
+                listing.id = id;
+                listing.description = readString(in, bytes.length);
+                listing.type = readString(in, bytes.length);
+                listing.city = readString(in, bytes.length);
+                listing.area = readString(in, bytes.length);
+                listing.latitude = in.readDouble();
+                listing.longitude = in.readDouble();
+                listing.bedrooms = in.readInt();
+                listing.listedAt = in.readLong();
+                listing.updatedAt = in.readLong();
+                if (version >= 2) {
+                    listing.amenities = readStrings(in, bytes.length);
+                    listing.imageUrls = readStrings(in, bytes.length);
+                }
+                upserts.add(listing);
+            }
+            long[] tombstones = new long[readCount(in, bytes.length)];
+            for (int i = 0; i < tombstones.length; i++) {
+                tombstones[i] = in.readLong();
+            }
+            return new ListingDelta(fromVersion, toVersion, upserts, tombstones);
+        } catch (EOFException e) {
+            throw new IOException("Truncated listing delta", e);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static void writeStrings(DataOutputStream out, List<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            writeString(out, value);
+        }
+    }
+
+    private static List<String> readStrings(DataInputStream in, int limit) throws IOException {
+        int count = readCount(in, limit);
+        List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(readString(in, limit));
+        }
+        return values;
+    }
+
+    private static String readString(DataInputStream in, int limit) throws IOException {
+        int length = in.readInt();
+        if (length == -1) {
+            return null;
+        }
+        if (length < 0 || length > limit) {
+            throw new IOException("Bad string length " + length);
+        }
+        byte[] utf8 = new byte[length];
+        in.readFully(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    // Guards allocations against a corrupt count
+    private static int readCount(DataInputStream in, int limit) throws IOException {
+        int count = in.readInt();
+        if (count < 0 || count > limit) {
+            throw new IOException("Bad count " + count);
+        }
+        return count;
+    }
+}
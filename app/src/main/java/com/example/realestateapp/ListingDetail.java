@@ -0,0 +1,86 @@
+package com.example.realestateapp;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The heavy part of a listing: its full description, amenities and gallery
+ * image URLs. Catalog rows keep only a short description snippet for lists,
+ * maps and search; the detail record is loaded on demand when one listing is
+ * opened, see {@link ListingDetails}.
+ */
+public final class ListingDetail {
+
+    // Length of the description snippet kept in the catalog
+    static final int SUMMARY_LENGTH = 160;
+
+    // Rough per-object costs used for the memory estimate
+    private static final int OBJECT_OVERHEAD = 16;
+    private static final int STRING_OVERHEAD = 40;
+
+    private final long listingId;
+    private final String description;
+    private final List<String> amenities;
+    private final List<String> imageUrls;
+
+    public ListingDetail(long listingId, String description, List<String> amenities, List<String> imageUrls) {
+        this.listingId = listingId;
+        this.description = description;
+        this.amenities = Collections.unmodifiableList(amenities);
+        this.imageUrls = Collections.unmodifiableList(imageUrls);
+    }
+
+    public long getListingId() {
+        return listingId;
+    }
+
+    // Full description, or null when the listing has none
+    public String getDescription() {
+        return description;
+    }
+
+    public List<String> getAmenities() {
+        return amenities;
+    }
+
+    public List<String> getImageUrls() {
+        return imageUrls;
+    }
+
+    // Approximate heap footprint, used to bound DetailCache
+    int estimatedBytes() {
+        long bytes = OBJECT_OVERHEAD * 4 + stringBytes(description);
+        for (String amenity : amenities) {
+            bytes += stringBytes(amenity);
+        }
+        for (String url : imageUrls) {
+            bytes += stringBytes(url);
+        }
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Cuts description down to the snippet stored in catalog rows: at most
+     * SUMMARY_LENGTH characters, ending on a word boundary with an ellipsis
+     * when anything was dropped. Null stays null.
+     */
+    static String summary(String description) {
+        if (description == null || description.length() <= SUMMARY_LENGTH) {
+            return description;
+        }
+        int end = SUMMARY_LENGTH - 1;
+        int space = description.lastIndexOf(' ', end);
+        if (space > SUMMARY_LENGTH / 2) {
+            end = space;
+        }
+        // Never split a surrogate pair
+        if (Character.isHighSurrogate(description.charAt(end - 1))) {
+            end--;
+        }
+        return description.substring(0, end).trim() + "…";
+    }
+
+    private static long stringBytes(String value) {
+        return value == null ? 0 : STRING_OVERHEAD + 2L * value.length();
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.realestateapp;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Detail records of listings, kept in AppDatabase and fetched only when a
+ * listing is opened. Recently opened records stay in a bounded
+ * {@link DetailCache}, so going back and forth between a few listings does
+ * not hit the disk.
+ */
+public final class ListingDetails {
+
+    private static final DetailCache cache = new DetailCache();
+
+    private ListingDetails() {
+    }
+
+    /**
+     * Hands the detail of the listing to callback on the main thread, or null
+     * when none is stored. A cached record is delivered before this returns.
+     */
+    public static void load(Context context, long listingId, AppDatabase.Callback<ListingDetail> callback) {
+        ListingDetail cached = cache.get(listingId);
+        if (cached != null) {
+            callback.onResult(cached);
+            return;
+        }
+        AppDatabase.get(context).read(db -> query(db, listingId), detail -> {
+            if (detail != null) {
+                cache.put(detail);
+            }
+            callback.onResult(detail);
+        });
+    }
+
+    public static void store(Context context, List<ListingDetail> details) {
+        if (details.isEmpty()) {
+            return;
+        }
+        for (ListingDetail detail : details) {
+            cache.remove(detail.getListingId());
+        }
+        AppDatabase.get(context).write(db -> {
+            for (ListingDetail detail : details) {
+                ContentValues values = new ContentValues();
+                values.put("listing_id", detail.getListingId());
+                values.put("description", detail.getDescription());
+                values.put("amenities", join(detail.getAmenities()));
+                values.put("image_urls", join(detail.getImageUrls()));
+                db.insertWithOnConflict("listing_details", null, values, SQLiteDatabase.CONFLICT_REPLACE);
+            }
+        });
+    }
+
+    public static void remove(Context context, long[] listingIds) {
+        if (listingIds.length == 0) {
+            return;
+        }
+        for (long id : listingIds) {
+            cache.remove(id);
+        }
+        AppDatabase.get(context).write(db -> {
+            for (long id : listingIds) {
+                db.delete("listing_details", "listing_id = ?", new String[]{Long.toString(id)});
+            }
+        });
+    }
+
+    private static ListingDetail query(SQLiteDatabase db, long listingId) {
+        try (Cursor cursor = db.rawQuery(
+                "SELECT description, amenities, image_urls FROM listing_details WHERE listing_id = ?",
+                new String[]{Long.toString(listingId)})) {
+            if (!cursor.moveToFirst()) {
+                return null;
+            }
+            return new ListingDetail(listingId, cursor.getString(0),
+                    split(cursor.getString(1)), split(cursor.getString(2)));
+        }
+    }
+
+    // Lists are stored one value per line; amenities and URLs never contain newlines
+    private static String join(List<String> values) {
+        return String.join("\n", values);
+    }
+
+    private static List<String> split(String stored) {
+        if (stored == null || stored.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return new ArrayList<>(Arrays.asList(stored.split("\n")));
+    }
+}
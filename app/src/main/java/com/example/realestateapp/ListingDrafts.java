@@ -0,0 +1,81 @@
+package com.example.realestateapp;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+
+// Unfinished "List Your Property" forms, kept until the listing is submitted
+public final class ListingDrafts {
+
+    public static final long NO_DRAFT = 0;
+
+    // Form fields of one draft; imageUris is newline-separated
+    public static final class Draft {
+        public long id = NO_DRAFT;
+        public String title;
+        public String price;
+        public String address;
+        public String description;
+        public String type;
+        public String bedrooms;
+        public String imageUris;
+    }
+
+    private ListingDrafts() {
+    }
+
+    // Most recently edited draft, or null when there is none
+    public static void latest(Context context, AppDatabase.Callback<Draft> callback) {
+        AppDatabase.get(context).read(db -> {
+            try (Cursor cursor = db.rawQuery("SELECT id, title, price, address, description, type, bedrooms, "
+                    + "image_uris FROM drafts ORDER BY updated_at DESC LIMIT 1", null)) {
+                if (!cursor.moveToFirst()) {
+                    return null;
+                }
+                Draft draft = new Draft();
+                draft.id = cursor.getLong(0);
+                draft.title = cursor.getString(1);
+                draft.price = cursor.getString(2);
+                draft.address = cursor.getString(3);
+                draft.description = cursor.getString(4);
+                draft.type = cursor.getString(5);
+                draft.bedrooms = cursor.getString(6);
+                draft.imageUris = cursor.getString(7);
+                return draft;
+            }
+        }, callback);
+    }
+
+    // Inserts the draft, or overwrites it when it already has an id; the id is filled in on the I/O thread
+    public static void save(Context context, Draft draft) {
+        long now = System.currentTimeMillis();
+        ContentValues values = new ContentValues();
+        values.put("title", draft.title);
+        values.put("price", draft.price);
+        values.put("address", draft.address);
+        values.put("description", draft.description);
+        values.put("type", draft.type);
+        values.put("bedrooms", draft.bedrooms);
+        values.put("image_uris", draft.imageUris);
+        values.put("updated_at", now);
+        AppDatabase.get(context).write(db -> {
+            synchronized (draft) {
+                if (draft.id == NO_DRAFT
+                        || db.update("drafts", values, "id = ?", new String[]{Long.toString(draft.id)}) == 0) {
+                    draft.id = db.insert("drafts", null, values);
+                }
+            }
+        });
+    }
+
+    public static void delete(Context context, Draft draft) {
+        AppDatabase.get(context).write(db -> {
+            synchronized (draft) {
+                if (draft.id != NO_DRAFT) {
+                    db.delete("drafts", "id = ?", new String[]{Long.toString(draft.id)});
+                    draft.id = NO_DRAFT;
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.realestateapp;
+
+import java.io.IOException;
+
+// Source of listing changes; returns the encoded ListingDelta bytes exactly as transferred
+public interface ListingFeed {
+
+    byte[] changesSince(long version) throws IOException;
+}
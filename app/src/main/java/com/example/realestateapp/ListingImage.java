@@ -0,0 +1,111 @@
+package com.example.realestateapp;
+
+import androidx.annotation.Nullable;
+
+/**
+ * A listing photo to load through Glide. Unlike a plain URL string, Glide
+ * routes this model through {@link ListingImageLoader}, which asks the image
+ * host for a copy about as wide as the view instead of the original.
+ *
+ * <p>Requested widths are rounded up to one of {@link #WIDTHS}, so views of
+ * similar size share one download and one disk cache entry. Hosts that
+ * cannot resize get the URL unchanged.</p>
+ */
+public final class ListingImage {
+
+    // Pixel widths the host is asked for; anything wider gets the largest
+    static final int[] WIDTHS = {160, 320, 480, 640, 960, 1280, 1920};
+
+    private static final String[] RESIZING_HOSTS = {"images.unsplash.com", "plus.unsplash.com"};
+
+    private final String url;
+
+    private ListingImage(String url) {
+        this.url = url;
+    }
+
+    // Null for a listing without a photo, which Glide shows as the error drawable
+    @Nullable
+    public static ListingImage of(@Nullable String url) {
+        return url != null && !url.isEmpty() ? new ListingImage(url) : null;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    // The URL to fetch for a view widthPixels wide; the original URL when the size is unknown
+    String urlForWidth(int widthPixels) {
+        if (widthPixels <= 0 || !resizable(url)) {
+            return url;
+        }
+        return withWidth(url, bucket(widthPixels));
+    }
+
+    // Smallest cached width at least as wide as widthPixels
+    static int bucket(int widthPixels) {
+        for (int width : WIDTHS) {
+            if (width >= widthPixels) {
+                return width;
+            }
+        }
+        return WIDTHS[WIDTHS.length - 1];
+    }
+
+    static boolean resizable(String url) {
+        int hostStart = url.indexOf("://");
+        if (hostStart < 0) {
+            return false;
+        }
+        hostStart += 3;
+        int hostEnd = hostStart;
+        while (hostEnd < url.length() && "/?#:".indexOf(url.charAt(hostEnd)) < 0) {
+            hostEnd++;
+        }
+        String host = url.substring(hostStart, hostEnd);
+        for (String resizing : RESIZING_HOSTS) {
+            if (resizing.equalsIgnoreCase(host)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Replaces the w query parameter (adding it if missing) and drops h, so
+     * the host scales the photo to width and keeps its aspect ratio. Other
+     * parameters such as crop and format stay as they were.
+     */
+    static String withWidth(String url, int width) {
+        int fragment = url.indexOf('#');
+        String base = fragment >= 0 ? url.substring(0, fragment) : url;
+        String suffix = fragment >= 0 ? url.substring(fragment) : "";
+        int query = base.indexOf('?');
+        StringBuilder result = new StringBuilder(base.length() + 8);
+        result.append(query >= 0 ? base.substring(0, query) : base).append("?w=").append(width);
+        if (query >= 0) {
+            for (String param : base.substring(query + 1).split("&")) {
+                if (param.isEmpty() || param.startsWith("w=") || param.startsWith("h=")) {
+                    continue;
+                }
+                result.append('&').append(param);
+            }
+        }
+        return result.append(suffix).toString();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof ListingImage && url.equals(((ListingImage) other).url);
+    }
+
+    @Override
+    public int hashCode() {
+        return url.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return url;
+    }
+}
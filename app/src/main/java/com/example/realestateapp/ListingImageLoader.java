@@ -0,0 +1,53 @@
+package com.example.realestateapp;
+
+import androidx.annotation.NonNull;
+
+import com.bumptech.glide.load.Options;
+import com.bumptech.glide.load.model.GlideUrl;
+import com.bumptech.glide.load.model.ModelCache;
+import com.bumptech.glide.load.model.ModelLoader;
+import com.bumptech.glide.load.model.ModelLoaderFactory;
+import com.bumptech.glide.load.model.MultiModelLoaderFactory;
+import com.bumptech.glide.load.model.stream.BaseGlideUrlLoader;
+
+import java.io.InputStream;
+
+/**
+ * Loads a {@link ListingImage} from a URL sized for the target view. Glide
+ * passes the measured target size in pixels, so the rewritten width already
+ * accounts for screen density. The sized URL is also the cache key: each
+ * width bucket is downloaded once and kept on disk by itself.
+ */
+final class ListingImageLoader extends BaseGlideUrlLoader<ListingImage> {
+
+    // Sized URLs already built, keyed by model and target size
+    private static final int MODEL_CACHE_SIZE = 200;
+
+    private ListingImageLoader(ModelLoader<GlideUrl, InputStream> urlLoader, ModelCache<ListingImage, GlideUrl> cache) {
+        super(urlLoader, cache);
+    }
+
+    @Override
+    protected String getUrl(ListingImage model, int width, int height, Options options) {
+        return model.urlForWidth(width);
+    }
+
+    @Override
+    public boolean handles(@NonNull ListingImage model) {
+        return true;
+    }
+
+    static final class Factory implements ModelLoaderFactory<ListingImage, InputStream> {
+        private final ModelCache<ListingImage, GlideUrl> cache = new ModelCache<>(MODEL_CACHE_SIZE);
+
+        @NonNull
+        @Override
+        public ModelLoader<ListingImage, InputStream> build(@NonNull MultiModelLoaderFactory multiFactory) {
+            return new ListingImageLoader(multiFactory.build(GlideUrl.class, InputStream.class), cache);
+        }
+
+        @Override
+        public void teardown() {
+        }
+    }
+}
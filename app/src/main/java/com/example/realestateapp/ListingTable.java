@@ -0,0 +1,110 @@
+package com.example.realestateapp;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rows of listings that {@link Property} views read from. Rows are addressed
+ * by number and found by stable 64-bit id; each field is read on demand
+ * through the column methods, so an implementation is free to keep its
+ * columns on the heap ({@link PropertyCatalog}) or decode them from a mapped
+ * file ({@link MappedCatalog}).
+ */
+public abstract class ListingTable {
+
+    public static final int UNKNOWN = -1;
+    // Never assigned to a listing
+    public static final long NO_ID = 0;
+
+    // Number of rows, including any a sync removed; rows run from 0 to size() - 1
+    public abstract int size();
+
+    // False for rows a sync has removed
+    public abstract boolean isLive(int row);
+
+    // Row of the listing with this id, or UNKNOWN
+    public abstract int rowOf(long id);
+
+    // Rows of the given type and area (null matches any); with locatedOnly, rows without
+    // coordinates are skipped
+    public abstract int[] rowsMatching(String type, String area, boolean locatedOnly);
+
+    // Live rows whose city is city
+    public abstract int[] rowsInCity(String city);
+
+    // Rows of the most recently listed listings, newest first; undated listings come last
+    public abstract int[] newestRows(int limit);
+
+    // Row view of one listing
+    public Property get(int row) {
+        return new Property(this, row);
+    }
+
+    // Row view of the listing with this id, or null when there is no such listing
+    public Property getById(long id) {
+        int row = rowOf(id);
+        return row == UNKNOWN ? null : new Property(this, row);
+    }
+
+    public List<Property> getAll(int[] rows) {
+        List<Property> result = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            result.add(new Property(this, row));
+        }
+        return result;
+    }
+
+    // Views of the listings with these ids, in the same order; unknown ids are skipped
+    public List<Property> getAllById(long[] ids) {
+        List<Property> result = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            int row = rowOf(id);
+            if (row != UNKNOWN) {
+                result.add(new Property(this, row));
+            }
+        }
+        return result;
+    }
+
+    // Column reads backing the Property row view
+
+    abstract long id(int row);
+
+    abstract String title(int row);
+
+    abstract String priceText(int row);
+
+    abstract String location(int row);
+
+    abstract String imageUrl(int row);
+
+    abstract String description(int row);
+
+    // Parsed price, or null when the price text holds no amount
+    abstract Price price(int row);
+
+    abstract boolean hasCoordinates(int row);
+
+    // NaN when the listing has no coordinates
+    abstract double latitude(int row);
+
+    abstract double longitude(int row);
+
+    abstract int bedrooms(int row);
+
+    abstract int bathrooms(int row);
+
+    abstract int coveredAreaSqFt(int row);
+
+    abstract int parkingSpaces(int row);
+
+    abstract long listedAt(int row);
+
+    abstract long updatedAt(int row);
+
+    abstract String type(int row);
+
+    abstract String city(int row);
+
+    abstract String area(int row);
+}
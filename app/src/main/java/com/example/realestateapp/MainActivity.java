@@ -39,10 +39,11 @@ public class MainActivity extends AppCompatActivity {
     private ChatAdapter chatAdapter;
     private PropertyAdapter propertyAdapter;
     private List<ChatMessage> chatMessages;
-    private List<Property> propertyList;
+    private CatalogRepository.Subscription propertySubscription;
     private int chatStep = 0; // To track the AI conversation steps
     private String userAction, userBudget, userCity;
     private static final String TAG = "MainActivity";
+    private static final int FALLBACK_COUNT = 5;
     private Handler handler;
 
     @Override
@@ -116,8 +117,7 @@ public class MainActivity extends AppCompatActivity {
 
         // Initialize Property RecyclerView (initially hidden)
         try {
-            propertyList = new ArrayList<>();
-            propertyAdapter = new PropertyAdapter(propertyList);
+            propertyAdapter = new PropertyAdapter(new ArrayList<>());
             propertyRecyclerView.setLayoutManager(new LinearLayoutManager(this));
             propertyRecyclerView.setAdapter(propertyAdapter);
             Log.d(TAG, "onCreate: Property RecyclerView initialized");
@@ -219,9 +219,8 @@ public class MainActivity extends AppCompatActivity {
     }
 
     private void addAIMessage(String message) {
-        chatMessages.add(new ChatMessage(ChatMessage.TYPE_AI, message));
-        chatAdapter.notifyItemInserted(chatMessages.size() - 1);
-        chatRecyclerView.scrollToPosition(chatMessages.size() - 1);
+        chatAdapter.addMessage(new ChatMessage(ChatMessage.TYPE_AI, message),
+                () -> chatRecyclerView.scrollToPosition(chatMessages.size() - 1));
     }
 
     private void showOptions() {
@@ -306,20 +305,15 @@ public class MainActivity extends AppCompatActivity {
     }
 
     private void fetchProperties() {
-        // Simulate fetching properties based on user requirements
-        // For now, we’ll use sample data
         Log.d(TAG, "Fetching properties for action: " + userAction + ", budget: " + userBudget + ", city: " + userCity);
-        propertyList.clear();
-        if (userCity != null && userCity.toLowerCase().contains("islamabad")) {
-            propertyList.add(new Property("Modern House in F-7", "AED 1,200,000", "Islamabad, F-7", "https://images.unsplash.com/photo-1600585154340-be6161a56a0c"));
-            propertyList.add(new Property("Luxury Apartment in E-11", "AED 800,000", "Islamabad, E-11", "https://images.unsplash.com/photo-1600585154340-be6161a56a0c"));
-            propertyList.add(new Property("Villa in G-13", "AED 1,500,000", "Islamabad, G-13", "https://images.unsplash.com/photo-1600585154340-be6161a56a0c"));
-        } else {
-            propertyList.add(new Property("Cozy Townhouse", "AED 600,000", userCity != null ? userCity : "Unknown City", "https://images.unsplash.com/photo-1600585154340-be6161a56a0c"));
-            propertyList.add(new Property("Spacious Penthouse", "AED 2,000,000", userCity != null ? userCity : "Unknown City", "https://images.unsplash.com/photo-1600585154340-be6161a56a0c"));
+        // Listings in the chosen city, or the newest ones when the catalog has none there
+        if (propertySubscription != null) {
+            propertySubscription.close();
         }
-        // Using notifyDataSetChanged() since the entire list is cleared and repopulated
-        propertyAdapter.notifyDataSetChanged();
+        CatalogRepository.Query query = CatalogRepository.orElse(
+                CatalogRepository.inCity(userCity), CatalogRepository.newest(FALLBACK_COUNT));
+        propertySubscription = CatalogRepository.get(this).observe(query,
+                (items, change) -> propertyAdapter.submitList(items));
     }
 
     private void showSuccessMessage(String message) {
@@ -416,5 +410,8 @@ public class MainActivity extends AppCompatActivity {
             handler.removeCallbacksAndMessages(null);
             Log.d(TAG, "onDestroy: Removed all handler callbacks");
         }
+        if (propertySubscription != null) {
+            propertySubscription.close();
+        }
     }
 }
\ No newline at end of file
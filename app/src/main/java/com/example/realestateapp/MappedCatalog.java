@@ -0,0 +1,355 @@
+package com.example.realestateapp;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Read-only {@link ListingTable} over a memory-mapped {@link CatalogSnapshot}
+ * file. Nothing is copied onto the heap when the file is opened: the column
+ * blocks are located once and every field is decoded from the mapping when a
+ * {@link Property} asks for it, so heap use does not grow with the catalog.
+ * Filters scan only the fixed-width columns (codes, coordinates, dates) and
+ * id lookups binary-search the snapshot's sorted id index, which holds only
+ * live rows.
+ *
+ * <p>The checksum is not verified here, since that would page in the whole
+ * file; snapshots are only ever replaced by an atomic rename, and every read
+ * is bounds-checked by the buffer.</p>
+ */
+public final class MappedCatalog extends ListingTable {
+
+    private static final int NO_BLOCK = -1;
+    private static final int ID_ENTRY_BYTES = 12;
+
+    private final MappedByteBuffer buffer;
+    private final int rows;
+    private final long feedVersion;
+    // Payload offset of each known block, indexed by tag
+    private final int[] blocks = new int[CatalogSnapshot.TAG_ID_INDEX + 1];
+
+    private MappedCatalog(MappedByteBuffer buffer) throws CatalogSnapshot.FormatException {
+        this.buffer = buffer;
+        Arrays.fill(blocks, NO_BLOCK);
+        int limit = buffer.limit() - 8;
+        if (limit < CatalogSnapshot.STRINGS_START
+                || buffer.getInt(0) != CatalogSnapshot.MAGIC
+                || buffer.getShort(4) != CatalogSnapshot.FORMAT_VERSION) {
+            throw new CatalogSnapshot.FormatException("Not a catalog snapshot of version "
+                    + CatalogSnapshot.FORMAT_VERSION);
+        }
+        rows = buffer.getInt(8);
+        int position = CatalogSnapshot.STRINGS_START;
+        int strings = buffer.getInt(position - 4);
+        // Walk the length prefixes to reach the blocks; no string is decoded
+        for (int i = 0; i < strings; i++) {
+            position = skip(position, buffer.getInt(position), limit);
+        }
+        int blockCount = buffer.getInt(position);
+        position += 4;
+        for (int b = 0; b < blockCount; b++) {
+            int tag = buffer.getInt(position);
+            int length = buffer.getInt(position + 4);
+            if (tag >= 0 && tag < blocks.length) {
+                blocks[tag] = position + 8;
+            }
+            position = skip(position + 4, length, limit);
+        }
+        if (rows < 0 || blocks[CatalogSnapshot.TAG_ID_INDEX] == NO_BLOCK
+                || blocks[CatalogSnapshot.TAG_STRING_OFFSETS] == NO_BLOCK) {
+            throw new CatalogSnapshot.FormatException("Snapshot has no lookup blocks for mapping");
+        }
+        int versionBlock = blocks[CatalogSnapshot.TAG_FEED_VERSION];
+        feedVersion = versionBlock == NO_BLOCK ? 0 : buffer.getLong(versionBlock);
+    }
+
+    // Maps the snapshot file; the mapping stays valid after the file is replaced
+    public static MappedCatalog open(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new CatalogSnapshot.FormatException("Snapshot too large to map: " + channel.size());
+            }
+            return new MappedCatalog(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IndexOutOfBoundsException e) {
+            throw new CatalogSnapshot.FormatException("Truncated snapshot: " + e);
+        }
+    }
+
+    @Override
+    public int size() {
+        return rows;
+    }
+
+    @Override
+    public boolean isLive(int row) {
+        int block = blocks[CatalogSnapshot.TAG_REMOVED];
+        return block == NO_BLOCK || buffer.get(block + checkRow(row)) == 0;
+    }
+
+    // Feed version of the catalog when this snapshot was saved
+    public long feedVersion() {
+        return feedVersion;
+    }
+
+    @Override
+    public int rowOf(long id) {
+        int base = blocks[CatalogSnapshot.TAG_ID_INDEX];
+        int low = 0;
+        int high = buffer.getInt(base - 4) / ID_ENTRY_BYTES - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midId = buffer.getLong(base + mid * ID_ENTRY_BYTES);
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return buffer.getInt(base + mid * ID_ENTRY_BYTES + 8);
+            }
+        }
+        return UNKNOWN;
+    }
+
+    @Override
+    public int[] rowsMatching(String type, String area, boolean locatedOnly) {
+        int typeCode = findCode(CatalogSnapshot.TAG_TYPE_VALUES, type);
+        int areaCode = findCode(CatalogSnapshot.TAG_AREA_VALUES, area);
+        if ((type != null && typeCode == StringDictionary.NO_CODE)
+                || (area != null && areaCode == StringDictionary.NO_CODE)) {
+            return new int[0];
+        }
+        int[] result = new int[rows];
+        int count = 0;
+        for (int row = 0; row < rows; row++) {
+            if (isLive(row)
+                    && (type == null || intAt(CatalogSnapshot.TAG_TYPE, row, StringDictionary.NO_CODE) == typeCode)
+                    && (area == null || intAt(CatalogSnapshot.TAG_AREA, row, StringDictionary.NO_CODE) == areaCode)
+                    && (!locatedOnly || hasCoordinates(row))) {
+                result[count++] = row;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    @Override
+    public int[] rowsInCity(String city) {
+        int cityCode = findCode(CatalogSnapshot.TAG_CITY_VALUES, city);
+        if (cityCode == StringDictionary.NO_CODE) {
+            return new int[0];
+        }
+        int[] result = new int[rows];
+        int count = 0;
+        for (int row = 0; row < rows; row++) {
+            if (isLive(row) && intAt(CatalogSnapshot.TAG_CITY, row, StringDictionary.NO_CODE) == cityCode) {
+                result[count++] = row;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    @Override
+    public int[] newestRows(int limit) {
+        int count = Math.min(Math.max(limit, 0), rows);
+        int[] newest = new int[count];
+        int filled = 0;
+        for (int row = 0; row < rows; row++) {
+            long time = listedAt(row);
+            if (!isLive(row) || (filled == count && (count == 0 || time <= listedAt(newest[count - 1])))) {
+                continue;
+            }
+            int at = filled < count ? filled++ : count - 1;
+            while (at > 0 && listedAt(newest[at - 1]) < time) {
+                newest[at] = newest[at - 1];
+                at--;
+            }
+            newest[at] = row;
+        }
+        return filled == count ? newest : Arrays.copyOf(newest, filled);
+    }
+
+    @Override
+    long id(int row) {
+        return longAt(CatalogSnapshot.TAG_ID, row, NO_ID);
+    }
+
+    @Override
+    String title(int row) {
+        return stringAt(CatalogSnapshot.TAG_TITLE, row);
+    }
+
+    @Override
+    String priceText(int row) {
+        return stringAt(CatalogSnapshot.TAG_PRICE_TEXT, row);
+    }
+
+    @Override
+    String location(int row) {
+        return stringAt(CatalogSnapshot.TAG_LOCATION, row);
+    }
+
+    @Override
+    String imageUrl(int row) {
+        if (blocks[CatalogSnapshot.TAG_IMAGE_SUFFIX] == NO_BLOCK) {
+            return stringAt(CatalogSnapshot.TAG_IMAGE_URL, row);
+        }
+        String prefix = dictionaryValue(CatalogSnapshot.TAG_IMAGE_PREFIX_VALUES, CatalogSnapshot.TAG_IMAGE_PREFIX, row);
+        String suffix = stringAt(CatalogSnapshot.TAG_IMAGE_SUFFIX, row);
+        return prefix == null ? suffix : prefix + suffix;
+    }
+
+    @Override
+    String description(int row) {
+        return stringAt(CatalogSnapshot.TAG_DESCRIPTION, row);
+    }
+
+    @Override
+    Price price(int row) {
+        long amount = longAt(CatalogSnapshot.TAG_PRICE_AMOUNT, row, UNKNOWN);
+        return amount == UNKNOWN ? null : new Price(
+                dictionaryValue(CatalogSnapshot.TAG_CURRENCY_VALUES, CatalogSnapshot.TAG_CURRENCY, row), amount);
+    }
+
+    @Override
+    boolean hasCoordinates(int row) {
+        return intAt(CatalogSnapshot.TAG_LATITUDE, row, PropertyCatalog.NO_COORDINATE) != PropertyCatalog.NO_COORDINATE;
+    }
+
+    @Override
+    double latitude(int row) {
+        int value = intAt(CatalogSnapshot.TAG_LATITUDE, row, PropertyCatalog.NO_COORDINATE);
+        return value == PropertyCatalog.NO_COORDINATE ? Double.NaN : value / PropertyCatalog.MICRODEGREES;
+    }
+
+    @Override
+    double longitude(int row) {
+        int value = intAt(CatalogSnapshot.TAG_LONGITUDE, row, PropertyCatalog.NO_COORDINATE);
+        return value == PropertyCatalog.NO_COORDINATE ? Double.NaN : value / PropertyCatalog.MICRODEGREES;
+    }
+
+    @Override
+    int bedrooms(int row) {
+        return byteAt(CatalogSnapshot.TAG_BEDROOMS, row);
+    }
+
+    @Override
+    int bathrooms(int row) {
+        return byteAt(CatalogSnapshot.TAG_BATHROOMS, row);
+    }
+
+    @Override
+    int coveredAreaSqFt(int row) {
+        return intAt(CatalogSnapshot.TAG_COVERED_AREA, row, UNKNOWN);
+    }
+
+    @Override
+    int parkingSpaces(int row) {
+        return byteAt(CatalogSnapshot.TAG_PARKING, row);
+    }
+
+    @Override
+    long listedAt(int row) {
+        return longAt(CatalogSnapshot.TAG_LISTED_AT, row, 0);
+    }
+
+    @Override
+    long updatedAt(int row) {
+        return longAt(CatalogSnapshot.TAG_UPDATED_AT, row, 0);
+    }
+
+    @Override
+    String type(int row) {
+        return dictionaryValue(CatalogSnapshot.TAG_TYPE_VALUES, CatalogSnapshot.TAG_TYPE, row);
+    }
+
+    @Override
+    String city(int row) {
+        return dictionaryValue(CatalogSnapshot.TAG_CITY_VALUES, CatalogSnapshot.TAG_CITY, row);
+    }
+
+    @Override
+    String area(int row) {
+        return dictionaryValue(CatalogSnapshot.TAG_AREA_VALUES, CatalogSnapshot.TAG_AREA, row);
+    }
+
+    // Small counts stored one byte per row; UNKNOWN when the block is missing
+    private int byteAt(int tag, int row) {
+        int block = blocks[tag];
+        return block == NO_BLOCK ? UNKNOWN : buffer.get(block + checkRow(row));
+    }
+
+    private long longAt(int tag, int row, long missing) {
+        int block = blocks[tag];
+        return block == NO_BLOCK ? missing : buffer.getLong(block + checkRow(row) * 8);
+    }
+
+    private int intAt(int tag, int row, int missing) {
+        int block = blocks[tag];
+        return block == NO_BLOCK ? missing : buffer.getInt(block + checkRow(row) * 4);
+    }
+
+    private String stringAt(int tag, int row) {
+        return string(intAt(tag, row, CatalogSnapshot.NULL_STRING));
+    }
+
+    private String dictionaryValue(int valuesTag, int codesTag, int row) {
+        int code = intAt(codesTag, row, StringDictionary.NO_CODE);
+        int block = blocks[valuesTag];
+        if (code == StringDictionary.NO_CODE || block == NO_BLOCK) {
+            return null;
+        }
+        return string(buffer.getInt(block + 4 + code * 4));
+    }
+
+    // Code of value in a dictionary block, or NO_CODE; decodes only that dictionary's values
+    private int findCode(int valuesTag, String value) {
+        int block = blocks[valuesTag];
+        if (value == null || block == NO_BLOCK) {
+            return StringDictionary.NO_CODE;
+        }
+        int count = buffer.getInt(block);
+        for (int code = 0; code < count; code++) {
+            if (value.equals(string(buffer.getInt(block + 4 + code * 4)))) {
+                return code;
+            }
+        }
+        return StringDictionary.NO_CODE;
+    }
+
+    private String string(int index) {
+        if (index == CatalogSnapshot.NULL_STRING) {
+            return null;
+        }
+        int offset = buffer.getInt(blocks[CatalogSnapshot.TAG_STRING_OFFSETS] + index * 4);
+        byte[] bytes = new byte[buffer.getInt(offset)];
+        // Relative bulk get on a duplicate, so concurrent readers never share a position
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset + 4);
+        try {
+            view.get(bytes);
+        } catch (BufferUnderflowException e) {
+            throw new IndexOutOfBoundsException("String " + index + " runs past the snapshot");
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int checkRow(int row) {
+        if (row < 0 || row >= rows) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + rows);
+        }
+        return row;
+    }
+
+    private static int skip(int position, int length, int limit) throws CatalogSnapshot.FormatException {
+        if (length < 0 || position + 4 + length > limit) {
+            throw new CatalogSnapshot.FormatException("Bad length " + length + " at " + position);
+        }
+        return position + 4 + length;
+    }
+}
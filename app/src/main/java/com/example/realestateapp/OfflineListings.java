@@ -0,0 +1,89 @@
+package com.example.realestateapp;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import java.util.Locale;
+
+// Listings mirrored into AppDatabase, so they can be queried by full text while offline
+public final class OfflineListings {
+
+    private OfflineListings() {
+    }
+
+    // Inserts or updates the given rows of table; the row values are read on the calling thread
+    public static void upsert(Context context, ListingTable table, int[] rows) {
+        ContentValues[] batch = new ContentValues[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            batch[i] = values(table.get(rows[i]));
+        }
+        AppDatabase.get(context).write(db -> {
+            for (ContentValues values : batch) {
+                db.insertWithOnConflict("listings", null, values, SQLiteDatabase.CONFLICT_REPLACE);
+            }
+        });
+    }
+
+    public static void remove(Context context, long[] ids) {
+        AppDatabase.get(context).write(db -> {
+            for (long id : ids) {
+                db.delete("listings", "id = ?", new String[]{Long.toString(id)});
+            }
+        });
+    }
+
+    // Ids of listings whose title, location or full description contain every word of text as a prefix
+    public static void search(Context context, String text, int limit, AppDatabase.Callback<long[]> callback) {
+        String match = matchExpression(text);
+        AppDatabase.get(context).read(db -> {
+            if (match.isEmpty()) {
+                return new long[0];
+            }
+            try (Cursor cursor = db.rawQuery("SELECT docid FROM listings_fts WHERE listings_fts MATCH ? LIMIT "
+                    + limit, new String[]{match})) {
+                long[] ids = new long[cursor.getCount()];
+                for (int i = 0; cursor.moveToNext(); i++) {
+                    ids[i] = cursor.getLong(0);
+                }
+                return ids;
+            }
+        }, callback);
+    }
+
+    // "dha  phase-6" becomes "dha* phase* 6*"; FTS operators in user text are dropped
+    static String matchExpression(String text) {
+        StringBuilder match = new StringBuilder();
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                if (match.length() > 0) {
+                    match.append(' ');
+                }
+                match.append(word).append('*');
+            }
+        }
+        return match.toString();
+    }
+
+    private static ContentValues values(Property property) {
+        ContentValues values = new ContentValues();
+        values.put("id", property.getId());
+        values.put("title", property.getTitle());
+        values.put("price_text", property.getPrice());
+        values.put("location", property.getLocation());
+        values.put("image_url", property.getImageUrl());
+        values.put("description", property.getDescription());
+        values.put("type", property.getType());
+        values.put("city", property.getCity());
+        values.put("area", property.getArea());
+        values.put("bedrooms", property.getBedrooms());
+        if (property.hasCoordinates()) {
+            values.put("latitude", property.getLatitude());
+            values.put("longitude", property.getLongitude());
+        }
+        values.put("listed_at", property.getListedAt());
+        values.put("updated_at", property.getUpdatedAt());
+        return values;
+    }
+}
@@ -0,0 +1,338 @@
+package com.example.realestateapp;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Autocomplete for place names ("DHA Phase 6, Karachi", "Blue Area",
+ * "F-7 Markaz"), weighted by how many listings mention them. Names are stored
+ * in a trie flattened into primitive arrays, and every node keeps its best
+ * completions precomputed, so a lookup is one walk down the typed prefix.
+ * Every word of a name is also a key, so "markaz" completes to "F-7 Markaz".
+ *
+ * <p>The flattened arrays serialize directly, letting startup load the trie
+ * from disk instead of rebuilding it.</p>
+ */
+public class PlaceAutocomplete {
+
+    private static final int MAGIC = 0x504c4143; // "PLAC"
+    private static final int FORMAT_VERSION = 1;
+    // Completions precomputed per node; lookups can ask for fewer
+    static final int MAX_COMPLETIONS = 8;
+
+    private final long sourceFingerprint;
+    private final String[] names;
+    private final int[] weights;
+    // Trie nodes, root at 0: label, first child and next sibling (-1 for none)
+    private final char[] labels;
+    private final int[] firstChild;
+    private final int[] nextSibling;
+    // Best entry ids per node, flattened; node n owns topEntries[topStart[n] .. topStart[n + 1])
+    private final int[] topStart;
+    private final int[] topEntries;
+
+    private PlaceAutocomplete(long sourceFingerprint, String[] names, int[] weights, char[] labels,
+                              int[] firstChild, int[] nextSibling, int[] topStart, int[] topEntries) {
+        this.sourceFingerprint = sourceFingerprint;
+        this.names = names;
+        this.weights = weights;
+        this.labels = labels;
+        this.firstChild = firstChild;
+        this.nextSibling = nextSibling;
+        this.topStart = topStart;
+        this.topEntries = topEntries;
+    }
+
+    // Identifies the listing data the trie was built from; compare before reusing a saved copy
+    public long getSourceFingerprint() {
+        return sourceFingerprint;
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    // Up to limit place names starting with (a word starting with) prefix, most listed first
+    public List<String> complete(String prefix, int limit) {
+        List<String> result = new ArrayList<>();
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return result;
+        }
+
+        int node = 0;
+        for (int i = 0; i < key.length() && node >= 0; i++) {
+            node = child(node, key.charAt(i));
+        }
+        if (node < 0) {
+            return result;
+        }
+        int end = Math.min(topStart[node + 1], topStart[node] + limit);
+        for (int i = topStart[node]; i < end; i++) {
+            result.add(names[topEntries[i]]);
+        }
+        return result;
+    }
+
+    private int child(int node, char label) {
+        for (int c = firstChild[node]; c >= 0; c = nextSibling[c]) {
+            if (labels[c] == label) {
+                return c;
+            }
+        }
+        return -1;
+    }
+
+    // Locations as whole strings plus each comma-separated part, counted per listing
+    public static PlaceAutocomplete fromProperties(List<Property> properties) {
+        Builder builder = new Builder();
+        for (Property property : properties) {
+            String location = property.getLocation();
+            if (location == null || location.trim().isEmpty()) {
+                continue;
+            }
+            builder.add(location.trim(), 1);
+            String[] parts = location.split(",");
+            if (parts.length > 1) {
+                for (String part : parts) {
+                    builder.add(part.trim(), 1);
+                }
+            }
+        }
+        return builder.build(fingerprint(properties));
+    }
+
+    // Cheap hash of the indexed locations, used to tell whether a saved trie is still current
+    public static long fingerprint(List<Property> properties) {
+        long hash = 1125899906842597L;
+        for (Property property : properties) {
+            String location = property.getLocation();
+            hash = 31 * hash + (location != null ? location.hashCode() : 0);
+        }
+        return 31 * hash + properties.size();
+    }
+
+    public void writeTo(OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeLong(sourceFingerprint);
+        out.writeInt(names.length);
+        for (int i = 0; i < names.length; i++) {
+            out.writeUTF(names[i]);
+            out.writeInt(weights[i]);
+        }
+        out.writeInt(labels.length);
+        for (int node = 0; node < labels.length; node++) {
+            out.writeChar(labels[node]);
+            out.writeInt(firstChild[node]);
+            out.writeInt(nextSibling[node]);
+        }
+        for (int start : topStart) {
+            out.writeInt(start);
+        }
+        for (int entry : topEntries) {
+            out.writeInt(entry);
+        }
+        out.flush();
+    }
+
+    public static PlaceAutocomplete readFrom(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(stream);
+        if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+            throw new IOException("Not a place autocomplete file of version " + FORMAT_VERSION);
+        }
+        long fingerprint = in.readLong();
+        int entryCount = in.readInt();
+        String[] names = new String[entryCount];
+        int[] weights = new int[entryCount];
+        for (int i = 0; i < entryCount; i++) {
+            names[i] = in.readUTF();
+            weights[i] = in.readInt();
+        }
+        int nodeCount = in.readInt();
+        char[] labels = new char[nodeCount];
+        int[] firstChild = new int[nodeCount];
+        int[] nextSibling = new int[nodeCount];
+        for (int node = 0; node < nodeCount; node++) {
+            labels[node] = in.readChar();
+            firstChild[node] = in.readInt();
+            nextSibling[node] = in.readInt();
+        }
+        int[] topStart = new int[nodeCount + 1];
+        for (int i = 0; i <= nodeCount; i++) {
+            topStart[i] = in.readInt();
+        }
+        int[] topEntries = new int[topStart[nodeCount]];
+        for (int i = 0; i < topEntries.length; i++) {
+            topEntries[i] = in.readInt();
+        }
+        return new PlaceAutocomplete(fingerprint, names, weights, labels, firstChild, nextSibling,
+                topStart, topEntries);
+    }
+
+    // Lowercases and collapses punctuation and whitespace runs into single spaces
+    static String normalize(String text) {
+        StringBuilder builder = new StringBuilder(text.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && builder.length() > 0) {
+                    builder.append(' ');
+                }
+                pendingSpace = false;
+                builder.append(Character.toLowerCase(c));
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return builder.toString();
+    }
+
+    public static class Builder {
+
+        // Normalized name -> display name and summed weight
+        private final Map<String, String> displayNames = new LinkedHashMap<>();
+        private final Map<String, Integer> weights = new LinkedHashMap<>();
+
+        public Builder add(String placeName, int weight) {
+            String key = normalize(placeName);
+            if (key.isEmpty()) {
+                return this;
+            }
+            if (!displayNames.containsKey(key)) {
+                displayNames.put(key, placeName);
+            }
+            Integer current = weights.get(key);
+            weights.put(key, (current != null ? current : 0) + weight);
+            return this;
+        }
+
+        public PlaceAutocomplete build(long sourceFingerprint) {
+            String[] keys = displayNames.keySet().toArray(new String[0]);
+            String[] names = new String[keys.length];
+            int[] entryWeights = new int[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                names[i] = displayNames.get(keys[i]);
+                entryWeights[i] = weights.get(keys[i]);
+            }
+
+            // Build a pointer trie first; every word start of a name is a key for that name
+            BuildNode root = new BuildNode('\0');
+            for (int entry = 0; entry < keys.length; entry++) {
+                String key = keys[entry];
+                for (int start = 0; start < key.length(); start++) {
+                    if (start == 0 || key.charAt(start - 1) == ' ') {
+                        root.insert(key, start, entry);
+                    }
+                }
+            }
+
+            // Flatten breadth-first into arrays
+            List<BuildNode> order = new ArrayList<>();
+            order.add(root);
+            for (int i = 0; i < order.size(); i++) {
+                order.get(i).index = i;
+                order.addAll(order.get(i).children.values());
+            }
+            int nodeCount = order.size();
+            char[] labels = new char[nodeCount];
+            int[] firstChild = new int[nodeCount];
+            int[] nextSibling = new int[nodeCount];
+            Arrays.fill(firstChild, -1);
+            Arrays.fill(nextSibling, -1);
+            for (BuildNode node : order) {
+                labels[node.index] = node.label;
+                BuildNode previous = null;
+                for (BuildNode child : node.children.values()) {
+                    if (previous == null) {
+                        firstChild[node.index] = child.index;
+                    } else {
+                        nextSibling[previous.index] = child.index;
+                    }
+                    previous = child;
+                }
+            }
+
+            // Best completions per node, computed children first
+            int[][] top = new int[nodeCount][];
+            for (int i = nodeCount - 1; i >= 0; i--) {
+                BuildNode node = order.get(i);
+                List<Integer> candidates = new ArrayList<>(node.terminalEntries);
+                for (BuildNode child : node.children.values()) {
+                    for (int entry : top[child.index]) {
+                        candidates.add(entry);
+                    }
+                }
+                top[i] = best(candidates, entryWeights);
+            }
+            int[] topStart = new int[nodeCount + 1];
+            for (int i = 0; i < nodeCount; i++) {
+                topStart[i + 1] = topStart[i] + top[i].length;
+            }
+            int[] topEntries = new int[topStart[nodeCount]];
+            for (int i = 0; i < nodeCount; i++) {
+                System.arraycopy(top[i], 0, topEntries, topStart[i], top[i].length);
+            }
+
+            return new PlaceAutocomplete(sourceFingerprint, names, entryWeights, labels, firstChild,
+                    nextSibling, topStart, topEntries);
+        }
+
+        // Distinct entries by weight descending (ties by entry order), at most MAX_COMPLETIONS
+        private static int[] best(List<Integer> candidates, int[] entryWeights) {
+            List<Integer> distinct = new ArrayList<>();
+            for (Integer entry : candidates) {
+                if (!distinct.contains(entry)) {
+                    distinct.add(entry);
+                }
+            }
+            distinct.sort((a, b) -> entryWeights[a] != entryWeights[b]
+                    ? Integer.compare(entryWeights[b], entryWeights[a]) : Integer.compare(a, b));
+            int count = Math.min(distinct.size(), MAX_COMPLETIONS);
+            int[] result = new int[count];
+            for (int i = 0; i < count; i++) {
+                result[i] = distinct.get(i);
+            }
+            return result;
+        }
+    }
+
+    private static class BuildNode {
+        final char label;
+        // Sorted by label so the flattened sibling chains are deterministic
+        final TreeMap<Character, BuildNode> children = new TreeMap<>();
+        final List<Integer> terminalEntries = new ArrayList<>(1);
+        int index;
+
+        BuildNode(char label) {
+            this.label = label;
+        }
+
+        void insert(String key, int start, int entry) {
+            BuildNode node = this;
+            for (int i = start; i < key.length(); i++) {
+                char c = key.charAt(i);
+                BuildNode child = node.children.get(c);
+                if (child == null) {
+                    child = new BuildNode(c);
+                    node.children.put(c, child);
+                }
+                node = child;
+            }
+            if (!node.terminalEntries.contains(entry)) {
+                node.terminalEntries.add(entry);
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.realestateapp;
+
+import android.content.Context;
+import android.widget.ArrayAdapter;
+import android.widget.Filter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Dropdown adapter for the search box; suggestions come from the place trie instead of scanning a list
+public class PlaceSuggestionAdapter extends ArrayAdapter<String> {
+
+    private static final int MAX_SUGGESTIONS = 6;
+
+    // Swapped in once loaded; read on the filter's background thread
+    private volatile PlaceAutocomplete autocomplete;
+    private final List<String> suggestions = new ArrayList<>();
+
+    public PlaceSuggestionAdapter(Context context) {
+        super(context, android.R.layout.simple_dropdown_item_1line);
+    }
+
+    public void setAutocomplete(PlaceAutocomplete autocomplete) {
+        this.autocomplete = autocomplete;
+    }
+
+    @Override
+    public int getCount() {
+        return suggestions.size();
+    }
+
+    @Override
+    public String getItem(int position) {
+        return suggestions.get(position);
+    }
+
+    @Override
+    public Filter getFilter() {
+        return filter;
+    }
+
+    private final Filter filter = new Filter() {
+        @Override
+        protected FilterResults performFiltering(CharSequence constraint) {
+            FilterResults results = new FilterResults();
+            PlaceAutocomplete current = autocomplete;
+            List<String> matches = current != null && constraint != null
+                    ? current.complete(constraint.toString(), MAX_SUGGESTIONS)
+                    : new ArrayList<>();
+            results.values = matches;
+            results.count = matches.size();
+            return results;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected void publishResults(CharSequence constraint, FilterResults results) {
+            suggestions.clear();
+            if (results.values != null) {
+                suggestions.addAll((List<String>) results.values);
+            }
+            if (results.count > 0) {
+                notifyDataSetChanged();
+            } else {
+                notifyDataSetInvalidated();
+            }
+        }
+    };
+}
@@ -0,0 +1,118 @@
+package com.example.realestateapp;
+
+import android.text.TextUtils;
+import android.widget.TextView;
+
+import androidx.annotation.Nullable;
+import androidx.collection.LongSparseArray;
+import androidx.core.text.PrecomputedTextCompat;
+import androidx.core.widget.TextViewCompat;
+
+/**
+ * Text measured off the main thread for one kind of TextView, such as the AI
+ * chat bubble or the card title. The paint, break strategy, hyphenation and
+ * direction are read from a real view of that layout the first time one is
+ * created, so the measured text matches what the view would have computed.
+ * Results are kept by id (message id or listing id) and reused while the
+ * text and the view's parameters stay the same. Once full, measuring a new
+ * id evicts the entry that was least recently measured or bound.
+ *
+ * <p>Until a view has been seen there is nothing to measure with, and
+ * {@link #measure} returns null; binding then falls back to plain text.</p>
+ */
+final class PrecomputedTexts {
+
+    private final int maxEntries;
+    // Keyed by a primitive long so the lookup on every bind boxes nothing; guarded by itself
+    private final LongSparseArray<Entry> measured = new LongSparseArray<>();
+    // Ticks once per lookup or store; an entry's tick says how recently it was used
+    private long clock;
+    private volatile PrecomputedTextCompat.Params params;
+
+    private static final class Entry {
+        PrecomputedTextCompat text;
+        long lastUsed;
+    }
+
+    PrecomputedTexts(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    // Main thread: takes the text parameters of view, dropping texts measured with older ones
+    void learn(TextView view) {
+        PrecomputedTextCompat.Params current = TextViewCompat.getTextMetricsParams(view);
+        if (current.equals(params)) {
+            return;
+        }
+        params = current;
+        synchronized (measured) {
+            measured.clear();
+        }
+    }
+
+    /**
+     * Measures text for the entry id, or returns the earlier result if it is
+     * still valid. Slow for long text; call it on a background thread.
+     */
+    @Nullable
+    PrecomputedTextCompat measure(long id, @Nullable CharSequence text) {
+        PrecomputedTextCompat.Params current = params;
+        if (current == null || text == null) {
+            return null;
+        }
+        PrecomputedTextCompat cached = get(id);
+        if (cached != null && cached.getParams().equals(current) && TextUtils.equals(cached, text)) {
+            return cached;
+        }
+        PrecomputedTextCompat result = PrecomputedTextCompat.create(text, current);
+        synchronized (measured) {
+            Entry entry = measured.get(id);
+            if (entry == null) {
+                if (measured.size() >= maxEntries) {
+                    measured.removeAt(leastRecentlyUsed());
+                }
+                entry = new Entry();
+                measured.put(id, entry);
+            }
+            entry.text = result;
+            entry.lastUsed = ++clock;
+        }
+        return result;
+    }
+
+    @Nullable
+    PrecomputedTextCompat get(long id) {
+        synchronized (measured) {
+            Entry entry = measured.get(id);
+            if (entry == null) {
+                return null;
+            }
+            entry.lastUsed = ++clock;
+            return entry.text;
+        }
+    }
+
+    // Linear in the number of entries, but only runs on the measuring thread, once per new id
+    private int leastRecentlyUsed() {
+        int oldest = 0;
+        for (int i = 1; i < measured.size(); i++) {
+            if (measured.valueAt(i).lastUsed < measured.valueAt(oldest).lastUsed) {
+                oldest = i;
+            }
+        }
+        return oldest;
+    }
+
+    // Shows the measured layout when it fits view, otherwise lets the view measure text itself
+    static void setText(TextView view, @Nullable PrecomputedTextCompat precomputed, @Nullable CharSequence text) {
+        if (precomputed != null) {
+            try {
+                TextViewCompat.setPrecomputedText(view, precomputed);
+                return;
+            } catch (IllegalArgumentException e) {
+                // Measured for other parameters, e.g. before a font scale change
+            }
+        }
+        view.setText(text);
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.realestateapp;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Numeric form of a display price such as "PKR 15,000,000", "AED 800,000",
+ * "$500,000", "PKR 2.5 Crore" or "PKR 45,000/month". Amounts are kept in minor
+ * units (1/100 of the currency) so they compare and sort as plain longs.
+ */
+public final class Price {
+
+    public static final int MINOR_UNITS = 100;
+
+    // Words written after an amount, in listings and in typed queries alike: "2.5 crore", "10M", "45k"
+    static final Map<String, Long> MULTIPLIERS;
+
+    static {
+        Map<String, Long> multipliers = new HashMap<>();
+        multipliers.put("k", 1_000L);
+        multipliers.put("thousand", 1_000L);
+        multipliers.put("lakh", 100_000L);
+        multipliers.put("lakhs", 100_000L);
+        multipliers.put("lac", 100_000L);
+        multipliers.put("lacs", 100_000L);
+        multipliers.put("m", 1_000_000L);
+        multipliers.put("mn", 1_000_000L);
+        multipliers.put("million", 1_000_000L);
+        multipliers.put("cr", 10_000_000L);
+        multipliers.put("crore", 10_000_000L);
+        multipliers.put("crores", 10_000_000L);
+        multipliers.put("b", 1_000_000_000L);
+        multipliers.put("bn", 1_000_000_000L);
+        multipliers.put("billion", 1_000_000_000L);
+        multipliers.put("arab", 1_000_000_000L);
+        MULTIPLIERS = Collections.unmodifiableMap(multipliers);
+    }
+
+    private final String currency;
+    private final long amountMinor;
+
+    public Price(String currency, long amountMinor) {
+        this.currency = currency;
+        this.amountMinor = amountMinor;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public long getAmountMinor() {
+        return amountMinor;
+    }
+
+    // Returns null when the text holds no amount
+    public static Price parse(String text) {
+        if (text == null) {
+            return null;
+        }
+
+        String currency = null;
+        StringBuilder digits = new StringBuilder();
+        boolean decimalPoint = false;
+        StringBuilder code = new StringBuilder();
+
+        int i = 0;
+        for (; i < text.length(); i++) {
+            char c = text.charAt(i);
+            boolean sawDigit = digits.length() > 0;
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            } else if (c == ',' && sawDigit) {
+                // Thousands separator
+            } else if (c == '.' && sawDigit && !decimalPoint) {
+                decimalPoint = true;
+                digits.append(c);
+            } else if (sawDigit) {
+                // The number ends at the first other character, e.g. " Crore" or "/month"
+                break;
+            } else if (Character.isLetter(c)) {
+                code.append(c);
+            } else {
+                if (currency == null) {
+                    currency = currencyForSymbol(c);
+                }
+                if (code.length() > 0 && currency == null) {
+                    currency = currencyForCode(code.toString());
+                }
+                code.setLength(0);
+            }
+        }
+
+        if (digits.length() == 0) {
+            return null;
+        }
+        if (currency == null && code.length() > 0) {
+            currency = currencyForCode(code.toString());
+        }
+        BigDecimal amount = new BigDecimal(digits.charAt(digits.length() - 1) == '.'
+                ? digits.substring(0, digits.length() - 1) : digits.toString());
+        amount = amount.multiply(BigDecimal.valueOf(multiplierAt(text, i) * MINOR_UNITS));
+        return new Price(currency != null ? currency : ExchangeRates.BASE_CURRENCY,
+                amount.setScale(0, RoundingMode.HALF_UP).longValue());
+    }
+
+    // The multiplier word right after an amount, glued on or after spaces, or 1 when there is none
+    private static long multiplierAt(String text, int start) {
+        int i = start;
+        while (i < text.length() && text.charAt(i) == ' ') {
+            i++;
+        }
+        int end = i;
+        while (end < text.length() && Character.isLetter(text.charAt(end))) {
+            end++;
+        }
+        Long multiplier = MULTIPLIERS.get(text.substring(i, end).toLowerCase(Locale.ROOT));
+        return multiplier != null ? multiplier : 1;
+    }
+
+    private static String currencyForSymbol(char symbol) {
+        switch (symbol) {
+            case '$':
+                return "USD";
+            case '\u20AC': // Euro sign
+                return "EUR";
+            case '\u00A3': // Pound sign
+                return "GBP";
+            default:
+                return null;
+        }
+    }
+
+    private static String currencyForCode(String code) {
+        String upper = code.toUpperCase(Locale.ROOT);
+        if (upper.equals("RS") || upper.equals("RS.")) {
+            return "PKR";
+        }
+        return upper.length() == 3 ? upper : null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Price)) return false;
+        Price other = (Price) o;
+        return amountMinor == other.amountMinor && currency.equals(other.currency);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * currency.hashCode() + Long.hashCode(amountMinor);
+    }
+
+    @Override
+    public String toString() {
+        return currency + " " + (amountMinor / MINOR_UNITS) + "." + String.format(Locale.ROOT, "%02d", amountMinor % MINOR_UNITS);
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.realestateapp;
+
+import java.util.Arrays;
+
+/**
+ * Listing prices normalized to base-currency minor units, kept in a sorted
+ * primitive array so a slider range resolves with two binary searches.
+ */
+public class PriceIndex {
+
+    private static final long UNKNOWN = -1;
+
+    private final ExchangeRates rates;
+    // Row id -> normalized price, UNKNOWN for removed or unparseable rows
+    private long[] rowPrices = new long[16];
+    private int rowCount;
+
+    // Parallel arrays ordered by price; rebuilt lazily after changes
+    private long[] sortedPrices = new long[0];
+    private int[] sortedRows = new int[0];
+    private boolean dirty;
+
+    public PriceIndex(ExchangeRates rates) {
+        this.rates = rates;
+    }
+
+    public synchronized void add(int row, Property property) {
+        if (row >= rowPrices.length) {
+            int oldLength = rowPrices.length;
+            rowPrices = Arrays.copyOf(rowPrices, Math.max(row + 1, oldLength * 2));
+            Arrays.fill(rowPrices, oldLength, rowPrices.length, UNKNOWN);
+        }
+        for (int i = rowCount; i < row; i++) {
+            rowPrices[i] = UNKNOWN;
+        }
+        Price price = property.getParsedPrice();
+        rowPrices[row] = price != null ? rates.toBaseMinor(price) : UNKNOWN;
+        rowCount = Math.max(rowCount, row + 1);
+        dirty = true;
+    }
+
+    public synchronized void remove(int row) {
+        if (row < rowCount && rowPrices[row] != UNKNOWN) {
+            rowPrices[row] = UNKNOWN;
+            dirty = true;
+        }
+    }
+
+    // Normalized price of a row, or -1 when unknown
+    public synchronized long priceOf(int row) {
+        return row < rowCount ? rowPrices[row] : UNKNOWN;
+    }
+
+    // Rows priced within [minPrice, maxPrice] (inclusive), cheapest first
+    public synchronized int[] range(long minPrice, long maxPrice) {
+        ensureSorted();
+        int from = lowerBound(minPrice);
+        int to = lowerBound(maxPrice == Long.MAX_VALUE ? Long.MAX_VALUE : maxPrice + 1);
+        return from >= to ? new int[0] : Arrays.copyOfRange(sortedRows, from, to);
+    }
+
+    public synchronized int count(long minPrice, long maxPrice) {
+        ensureSorted();
+        int to = lowerBound(maxPrice == Long.MAX_VALUE ? Long.MAX_VALUE : maxPrice + 1);
+        return Math.max(0, to - lowerBound(minPrice));
+    }
+
+    // Reorders the given rows by price; rows without a price go last
+    public synchronized int[] sortByPrice(int[] rows, boolean ascending) {
+        long[] keys = new long[rows.length];
+        int[] result = rows.clone();
+        for (int i = 0; i < rows.length; i++) {
+            long price = priceOf(rows[i]);
+            if (price == UNKNOWN) {
+                keys[i] = Long.MAX_VALUE;
+            } else {
+                keys[i] = ascending ? price : -price;
+            }
+        }
+        sort(keys, result, 0, result.length - 1);
+        return result;
+    }
+
+    private int lowerBound(long price) {
+        int low = 0;
+        int high = sortedPrices.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sortedPrices[mid] < price) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void ensureSorted() {
+        if (!dirty) {
+            return;
+        }
+        int count = 0;
+        for (int row = 0; row < rowCount; row++) {
+            if (rowPrices[row] != UNKNOWN) {
+                count++;
+            }
+        }
+        long[] prices = new long[count];
+        int[] rows = new int[count];
+        int next = 0;
+        for (int row = 0; row < rowCount; row++) {
+            if (rowPrices[row] != UNKNOWN) {
+                prices[next] = rowPrices[row];
+                rows[next] = row;
+                next++;
+            }
+        }
+        sort(prices, rows, 0, count - 1);
+        sortedPrices = prices;
+        sortedRows = rows;
+        dirty = false;
+    }
+
+    // Quicksort on primitive keys carrying row ids along, avoiding boxed comparators
+    private static void sort(long[] keys, int[] rows, int low, int high) {
+        while (low < high) {
+            long pivot = keys[(low + high) >>> 1];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (keys[i] < pivot) i++;
+                while (keys[j] > pivot) j--;
+                if (i <= j) {
+                    long key = keys[i];
+                    keys[i] = keys[j];
+                    keys[j] = key;
+                    int row = rows[i];
+                    rows[i] = rows[j];
+                    rows[j] = row;
+                    i++;
+                    j--;
+                }
+            }
+            // Recurse into the smaller half to bound stack depth
+            if (j - low < high - i) {
+                sort(keys, rows, low, j);
+                low = i;
+            } else {
+                sort(keys, rows, i, high);
+                high = j;
+            }
+        }
+    }
+}
@@ -1,56 +1,114 @@
 package com.example.realestateapp;
 
+// Read-only view of one row of a ListingTable; holds no listing data itself
 public class Property {
-    private String id;
-    private String title;
-    private String price;
-    private String location;
-    private String imageUrl;
+    private final ListingTable catalog;
+    private final int row;
 
-    // Constructor for compatibility with existing code
-    public Property(String title, String price, String location, String imageUrl) {
-        this.title = title;
-        this.price = price;
-        this.location = location;
-        this.imageUrl = imageUrl;
+    Property(ListingTable catalog, int row) {
+        this.catalog = catalog;
+        this.row = row;
     }
 
-    public String getId() {
-        return id;
+    // Stable 64-bit id; pass this between screens and resolve it with ListingTable.getById
+    public long getId() {
+        return catalog.id(row);
+    }
+
+    public ListingTable getCatalog() {
+        return catalog;
+    }
+
+    public int getRow() {
+        return row;
     }
 
     // Getters
     public String getTitle() {
-        return title;
+        return catalog.title(row);
     }
 
     public String getPrice() {
-        return price;
+        return catalog.priceText(row);
     }
 
     public String getLocation() {
-        return location;
+        return catalog.location(row);
     }
 
     public String getImageUrl() {
-        return imageUrl;
+        return catalog.imageUrl(row);
     }
 
-    // Setters
-    public void setTitle(String title) {
-        this.title = title;
+    public String getDescription() {
+        return catalog.description(row);
     }
 
-    public void setPrice(String price) {
-        this.price = price;
+    public Price getParsedPrice() {
+        return catalog.price(row);
     }
 
-    public void setLocation(String location) {
-        this.location = location;
+    public boolean hasCoordinates() {
+        return catalog.hasCoordinates(row);
     }
 
-    public void setImageUrl(String imageUrl) {
-        this.imageUrl = imageUrl;
+    // NaN when the listing has no coordinates
+    public double getLatitude() {
+        return catalog.latitude(row);
+    }
+
+    public double getLongitude() {
+        return catalog.longitude(row);
+    }
+
+    public String getType() {
+        return catalog.type(row);
+    }
+
+    public String getCity() {
+        return catalog.city(row);
+    }
+
+    public String getArea() {
+        return catalog.area(row);
+    }
+
+    // PropertyCatalog.UNKNOWN when not stated
+    public int getBedrooms() {
+        return catalog.bedrooms(row);
     }
-}
 
+    public int getBathrooms() {
+        return catalog.bathrooms(row);
+    }
+
+    // Covered area in square feet, whatever unit the listing quoted it in
+    public int getCoveredAreaSqFt() {
+        return catalog.coveredAreaSqFt(row);
+    }
+
+    public int getParkingSpaces() {
+        return catalog.parkingSpaces(row);
+    }
+
+    public long getListedAt() {
+        return catalog.listedAt(row);
+    }
+
+    public long getUpdatedAt() {
+        return catalog.updatedAt(row);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Property)) return false;
+        Property other = (Property) o;
+        return row == other.row && catalog == other.catalog;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * System.identityHashCode(catalog) + row;
+    }
+}
@@ -1,112 +1,312 @@
 package com.example.realestateapp;
 
+import android.content.Intent;
+import android.graphics.drawable.Drawable;
+import android.os.Handler;
+import android.os.Looper;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.ImageView;
 import android.widget.TextView;
-import android.content.Intent;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.cardview.widget.CardView;
+import androidx.core.text.PrecomputedTextCompat;
+import androidx.recyclerview.widget.AsyncDifferConfig;
+import androidx.recyclerview.widget.AsyncListDiffer;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
+import com.bumptech.glide.RequestBuilder;
 import com.bumptech.glide.load.resource.bitmap.CenterCrop;
 import com.bumptech.glide.load.resource.bitmap.RoundedCorners;
 import com.bumptech.glide.request.RequestOptions;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
+/**
+ * Property cards backed by an {@link AsyncListDiffer}. Submitted listings are
+ * snapshotted into {@link PropertyCard}s and diffed by listing id on a background
+ * thread, so a new result set only animates and rebinds the cards that
+ * actually changed. A card whose price or favorite state alone changed is
+ * rebound with a payload and keeps its image.
+ *
+ * <p>Binding allocates nothing of its own: image options are shared, click
+ * listeners and the Glide request builder are set up once per holder, and
+ * every string a card shows was captured with the snapshot. Titles are
+ * measured during the snapshot too, so binding one does no text layout.</p>
+ */
 public class PropertyAdapter extends RecyclerView.Adapter<PropertyAdapter.PropertyViewHolder> {
 
-    private List<Property> properties;
+    // The only view type; holders of this type move freely between lists through PropertyCardPool
+    static final int VIEW_TYPE_CARD = 0;
+
+    // One set of transformations and placeholders for every card load
+    private static final RequestOptions IMAGE_OPTIONS = new RequestOptions()
+            .transforms(new CenterCrop(), new RoundedCorners(16))
+            .placeholder(R.drawable.property_placeholder)
+            .error(R.drawable.property_placeholder);
+
+    // Card titles measured with item_property's title paint, by listing id
+    static final PrecomputedTexts TITLES = new PrecomputedTexts(512);
+
+    // Shared by every property list: snapshots cards and runs the diffs, in submission order
+    private static final Executor DIFF_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "property-diff");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AsyncListDiffer<PropertyCard> differ;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
     private OnPropertyClickListener listener;
+    // Main thread only: the last submitted listings, and a counter that drops stale snapshots
+    private List<Property> properties = new ArrayList<>();
+    private int generation;
+    // Sorted favorite ids; replaced, never mutated
+    private long[] favoriteIds = new long[0];
 
     public interface OnPropertyClickListener {
         void onPropertyClick(Property property, int position);
     }
 
+    // The parts of a card that binding writes to; the holder implements it over its views
+    interface CardViews {
+        void showTitle(@Nullable PrecomputedTextCompat measured, String title);
+
+        void showPrice(String price);
+
+        void showLocation(String location);
+
+        void showFavorite(int iconRes);
+
+        void showImage(ListingImage image);
+    }
+
     public PropertyAdapter(List<Property> properties) {
-        this.properties = properties;
+        this(properties, null);
     }
 
     public PropertyAdapter(List<Property> properties, OnPropertyClickListener listener) {
-        this.properties = properties;
         this.listener = listener;
+        differ = new AsyncListDiffer<>(this, new AsyncDifferConfig.Builder<>(PropertyCard.DIFF)
+                .setBackgroundThreadExecutor(DIFF_EXECUTOR)
+                .build());
+        setHasStableIds(true);
+        submitList(properties);
+    }
+
+    /**
+     * Shows items in place of the current listings. The list is copied, so the
+     * caller may reuse it; the cards update once the diff is ready.
+     */
+    public void submitList(List<Property> items) {
+        List<Property> submitted = new ArrayList<>(items);
+        properties = submitted;
+        long[] favorites = favoriteIds;
+        int submission = ++generation;
+        DIFF_EXECUTOR.execute(() -> {
+            List<PropertyCard> cards = new ArrayList<>(submitted.size());
+            for (Property property : submitted) {
+                cards.add(new PropertyCard(property, Arrays.binarySearch(favorites, property.getId()) >= 0, TITLES));
+            }
+            mainHandler.post(() -> {
+                // A newer submission is already on its way
+                if (submission == generation) {
+                    differ.submitList(cards);
+                }
+            });
+        });
+    }
+
+    // Marks the cards of these listings as favorites; only the heart icons are rebound
+    public void setFavoriteIds(long[] ids) {
+        long[] sorted = ids.clone();
+        Arrays.sort(sorted);
+        favoriteIds = sorted;
+        submitList(properties);
+    }
+
+    @Override
+    public void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onAttachedToRecyclerView(recyclerView);
+        SavedListings.favoriteIds(recyclerView.getContext(), this::setFavoriteIds);
     }
 
     @NonNull
     @Override
     public PropertyViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-        View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_property, parent, false);
-        return new PropertyViewHolder(view);
+        View view = PropertyCardPool.takeSpareCard(parent);
+        if (view == null) {
+            view = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_property, parent, false);
+        }
+        PropertyViewHolder holder = new PropertyViewHolder(view);
+        TITLES.learn(holder.titleText);
+        return holder;
     }
 
     @Override
     public void onBindViewHolder(@NonNull PropertyViewHolder holder, int position) {
-        Property property = properties.get(position);
-        holder.bind(property, position);
-
-        // Add click listener to the entire card
-        holder.cardView.setOnClickListener(v -> {
-            // Open PropertyDetailActivity when clicked
-            Intent intent = new Intent(holder.itemView.getContext(), PropertyDetailActivity.class);
-            intent.putExtra("PROPERTY_TITLE", property.getTitle());
-            intent.putExtra("PROPERTY_PRICE", property.getPrice());
-            intent.putExtra("PROPERTY_LOCATION", property.getLocation());
-            intent.putExtra("PROPERTY_IMAGE", property.getImageUrl());
-            holder.itemView.getContext().startActivity(intent);
-
-            // Add animation
-            ((AppCompatActivity)holder.itemView.getContext()).overridePendingTransition(
-                    R.anim.slide_in_right, R.anim.slide_out_left);
-        });
+        bind(cardAt(position), holder);
+    }
 
+    @Override
+    public void onBindViewHolder(@NonNull PropertyViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+        bindPartial(cardAt(position), PropertyCard.payloadFlags(payloads), holder);
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        return VIEW_TYPE_CARD;
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return cardAt(position).id;
     }
 
     @Override
     public int getItemCount() {
-        return properties.size();
+        return differ.getCurrentList().size();
     }
 
-    class PropertyViewHolder extends RecyclerView.ViewHolder {
+    private void toggleFavorite(PropertyCard card) {
+        long[] favorites = favoriteIds;
+        int index = Arrays.binarySearch(favorites, card.id);
+        long[] next;
+        if (index >= 0) {
+            next = new long[favorites.length - 1];
+            System.arraycopy(favorites, 0, next, 0, index);
+            System.arraycopy(favorites, index + 1, next, index, next.length - index);
+        } else {
+            int insertAt = -index - 1;
+            next = new long[favorites.length + 1];
+            System.arraycopy(favorites, 0, next, 0, insertAt);
+            next[insertAt] = card.id;
+            System.arraycopy(favorites, insertAt, next, insertAt + 1, favorites.length - insertAt);
+        }
+        favoriteIds = next;
+        submitList(properties);
+    }
+
+    // The card a holder shows, wherever it is bound now
+    PropertyCard cardAt(int position) {
+        return differ.getCurrentList().get(position);
+    }
+
+    static void bind(PropertyCard card, CardViews views) {
+        views.showTitle(card.measuredTitle, card.title);
+        views.showPrice(card.price);
+        views.showLocation(card.location);
+        bindFavorite(card, views);
+        views.showImage(card.image);
+    }
+
+    // Rebinds only the parts named by the payload flags; the image request is left alone
+    static void bindPartial(PropertyCard card, int flags, CardViews views) {
+        if ((flags & PropertyCard.PAYLOAD_PRICE) != 0) {
+            views.showPrice(card.price);
+        }
+        if ((flags & PropertyCard.PAYLOAD_FAVORITE) != 0) {
+            bindFavorite(card, views);
+        }
+    }
+
+    private static void bindFavorite(PropertyCard card, CardViews views) {
+        views.showFavorite(card.favorite ? R.drawable.ic_favorite_filled : R.drawable.ic_favorite_border);
+    }
+
+    // Static so a pooled holder can serve any PropertyAdapter in the same activity
+    static class PropertyViewHolder extends RecyclerView.ViewHolder implements CardViews {
         private CardView cardView;
-        private ImageView propertyImage;
+        private ImageView propertyImage, favoriteIcon;
         private TextView titleText, priceText, locationText;
+        // Pre-configured for this holder's context; each bind only swaps in the URL
+        private final RequestBuilder<Drawable> imageRequest;
 
         PropertyViewHolder(View itemView) {
             super(itemView);
             cardView = itemView.findViewById(R.id.propertyCard);
             propertyImage = itemView.findViewById(R.id.propertyImage);
+            favoriteIcon = itemView.findViewById(R.id.favoriteIcon);
             titleText = itemView.findViewById(R.id.propertyTitle);
             priceText = itemView.findViewById(R.id.propertyPrice);
             locationText = itemView.findViewById(R.id.propertyLocation);
+            imageRequest = Glide.with(itemView.getContext()).asDrawable().apply(IMAGE_OPTIONS);
+
+            // Listeners are set once and look up the card the holder currently shows
+            cardView.setOnClickListener(v -> {
+                PropertyAdapter adapter = boundAdapter();
+                int position = getBindingAdapterPosition();
+                if (adapter == null || position == RecyclerView.NO_POSITION) {
+                    return;
+                }
+                PropertyCard card = adapter.cardAt(position);
+                if (adapter.listener != null) {
+                    adapter.listener.onPropertyClick(card.property, position);
+                }
+                // Open PropertyDetailActivity when clicked
+                Intent intent = new Intent(itemView.getContext(), PropertyDetailActivity.class);
+                intent.putExtra(PropertyDetailActivity.EXTRA_PROPERTY_ID, card.id);
+                itemView.getContext().startActivity(intent);
+
+                // Add animation
+                ((AppCompatActivity) itemView.getContext()).overridePendingTransition(
+                        R.anim.slide_in_right, R.anim.slide_out_left);
+            });
+            favoriteIcon.setOnClickListener(v -> {
+                PropertyAdapter adapter = boundAdapter();
+                int position = getBindingAdapterPosition();
+                if (adapter == null || position == RecyclerView.NO_POSITION) {
+                    return;
+                }
+                PropertyCard card = adapter.cardAt(position);
+                SavedListings.setFavorite(itemView.getContext(), card.id, !card.favorite);
+                adapter.toggleFavorite(card);
+            });
         }
 
-        void bind(Property property, int position) {
-            titleText.setText(property.getTitle());
-            priceText.setText(property.getPrice());
-            locationText.setText(property.getLocation());
+        @Nullable
+        private PropertyAdapter boundAdapter() {
+            RecyclerView.Adapter<?> adapter = getBindingAdapter();
+            return adapter instanceof PropertyAdapter ? (PropertyAdapter) adapter : null;
+        }
 
-            // Load image with Glide for better image handling
-            RequestOptions requestOptions = new RequestOptions();
-            requestOptions = requestOptions.transforms(new CenterCrop(), new RoundedCorners(16));
+        @Override
+        public void showTitle(@Nullable PrecomputedTextCompat measured, String title) {
+            PrecomputedTexts.setText(titleText, measured, title);
+        }
+
+        @Override
+        public void showPrice(String price) {
+            priceText.setText(price);
+        }
 
-            Glide.with(itemView.getContext())
-                    .load(property.getImageUrl())
-                    .apply(requestOptions)
-                    .placeholder(R.drawable.property_placeholder)
-                    .error(R.drawable.property_placeholder)
-                    .into(propertyImage);
+        @Override
+        public void showLocation(String location) {
+            locationText.setText(location);
+        }
 
-            // Set click listener
-            cardView.setOnClickListener(v -> {
-                if (listener != null) {
-                    listener.onPropertyClick(property, position);
-                }
-            });
+        @Override
+        public void showFavorite(int iconRes) {
+            favoriteIcon.setImageResource(iconRes);
+        }
+
+        @Override
+        public void showImage(ListingImage image) {
+            // Load image with Glide for better image handling
+            imageRequest.load(image).into(propertyImage);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,98 @@
+package com.example.realestateapp;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.text.PrecomputedTextCompat;
+import androidx.recyclerview.widget.DiffUtil;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * What one property card shows, captured off the main thread. Property itself
+ * reads the live catalog row, so diffing needs this snapshot to tell an old
+ * card from a new one. Binding only copies these fields into views; nothing
+ * here is formatted or allocated per bind.
+ */
+final class PropertyCard {
+
+    // Payload flags for a card whose title, location and image are unchanged
+    static final int PAYLOAD_PRICE = 1;
+    static final int PAYLOAD_FAVORITE = 1 << 1;
+
+    final Property property;
+    final long id;
+    final String title;
+    final String price;
+    final String location;
+    final String imageUrl;
+    // The Glide model for imageUrl, built here so binding does not allocate one
+    final ListingImage image;
+    final boolean favorite;
+    // The title laid out for the card's title view, or null to let the view measure it
+    final PrecomputedTextCompat measuredTitle;
+
+    PropertyCard(Property property, boolean favorite) {
+        this(property, favorite, null);
+    }
+
+    PropertyCard(Property property, boolean favorite, @Nullable PrecomputedTexts titles) {
+        this.property = property;
+        this.id = property.getId();
+        this.title = property.getTitle();
+        this.price = property.getPrice();
+        this.location = property.getLocation();
+        this.imageUrl = property.getImageUrl();
+        this.image = ListingImage.of(imageUrl);
+        this.favorite = favorite;
+        this.measuredTitle = titles != null ? titles.measure(id, title) : null;
+    }
+
+    // ORs together the flags queued for one holder; indexed so the bind path makes no iterator
+    static int payloadFlags(List<Object> payloads) {
+        int flags = 0;
+        for (int i = 0; i < payloads.size(); i++) {
+            Object payload = payloads.get(i);
+            if (payload instanceof Integer) {
+                flags |= (Integer) payload;
+            }
+        }
+        return flags;
+    }
+
+    // Payloads are small Integers, which come from the boxing cache rather than the heap
+    static final DiffUtil.ItemCallback<PropertyCard> DIFF = new DiffUtil.ItemCallback<PropertyCard>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull PropertyCard oldCard, @NonNull PropertyCard newCard) {
+            return oldCard.id == newCard.id;
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull PropertyCard oldCard, @NonNull PropertyCard newCard) {
+            return changedParts(oldCard, newCard) == 0 && sameLayout(oldCard, newCard);
+        }
+
+        @Nullable
+        @Override
+        public Object getChangePayload(@NonNull PropertyCard oldCard, @NonNull PropertyCard newCard) {
+            // Anything beyond price and favorite needs a full rebind
+            return sameLayout(oldCard, newCard) ? changedParts(oldCard, newCard) : null;
+        }
+    };
+
+    private static boolean sameLayout(PropertyCard a, PropertyCard b) {
+        return Objects.equals(a.title, b.title) && Objects.equals(a.location, b.location)
+                && Objects.equals(a.imageUrl, b.imageUrl);
+    }
+
+    private static int changedParts(PropertyCard a, PropertyCard b) {
+        int flags = 0;
+        if (!Objects.equals(a.price, b.price)) {
+            flags |= PAYLOAD_PRICE;
+        }
+        if (a.favorite != b.favorite) {
+            flags |= PAYLOAD_FAVORITE;
+        }
+        return flags;
+    }
+}
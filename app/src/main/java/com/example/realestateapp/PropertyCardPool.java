@@ -0,0 +1,172 @@
+package com.example.realestateapp;
+
+import android.app.Activity;
+import android.app.Application;
+import android.content.Context;
+import android.content.ContextWrapper;
+import android.os.Bundle;
+import android.os.Looper;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.asynclayoutinflater.view.AsyncLayoutInflater;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Property card views shared by every list in one activity. Lists attached
+ * here use one RecycledViewPool, so the cards a fragment leaves behind serve
+ * the next tab instead of being inflated again. The pool can also be filled
+ * ahead of time: cards are inflated on AsyncLayoutInflater's thread and
+ * handed to {@link PropertyAdapter#onCreateViewHolder} on first use.
+ *
+ * <p>Pools are per activity, not per process: a card view keeps the context
+ * it was inflated with, and opening the detail screen from a card needs that
+ * to be the activity showing it. Each pool is dropped when its activity is
+ * destroyed. Main thread only.</p>
+ */
+final class PropertyCardPool {
+
+    // Cards a screen keeps around beyond those on screen, by list shape
+    static final int VERTICAL_LIST = 5;
+    static final int HORIZONTAL_STRIP = 3;
+
+    private static final Map<Activity, PropertyCardPool> pools = new HashMap<>();
+    private static boolean lifecycleRegistered;
+
+    private final RecyclerView.RecycledViewPool recycledViews = new RecyclerView.RecycledViewPool();
+    private final ArrayDeque<View> spareCards = new ArrayDeque<>();
+    private final AsyncLayoutInflater inflater;
+    private int capacity;
+    private int inflating;
+
+    private PropertyCardPool(Activity activity) {
+        inflater = new AsyncLayoutInflater(activity);
+    }
+
+    /**
+     * Puts list on its activity's shared pool and raises the pool to hold at
+     * least cards property cards. Call after setting the layout manager.
+     */
+    static void attach(RecyclerView list, int cards) {
+        PropertyCardPool pool = forContext(list.getContext());
+        if (pool == null) {
+            return;
+        }
+        if (cards > pool.capacity) {
+            pool.capacity = cards;
+            pool.recycledViews.setMaxRecycledViews(PropertyAdapter.VIEW_TYPE_CARD, cards);
+        }
+        list.setRecycledViewPool(pool.recycledViews);
+        // A list leaving the screen (a fragment being replaced) hands its cards to the pool
+        if (list.getLayoutManager() instanceof LinearLayoutManager) {
+            ((LinearLayoutManager) list.getLayoutManager()).setRecycleChildrenOnDetach(true);
+        }
+    }
+
+    /**
+     * Once the main thread next goes idle, inflates up to cards spare card
+     * views off the main thread, laid out for parent. Used right after the
+     * dashboard starts so its tabs open without inflating.
+     */
+    static void preinflateWhenIdle(ViewGroup parent, int cards) {
+        Looper.myQueue().addIdleHandler(() -> {
+            PropertyCardPool pool = forContext(parent.getContext());
+            if (pool != null) {
+                pool.preinflate(parent, cards);
+            }
+            return false;
+        });
+    }
+
+    // A card inflated ahead of time for this list's activity, or null to inflate one now
+    @Nullable
+    static View takeSpareCard(ViewGroup parent) {
+        PropertyCardPool pool = forContext(parent.getContext());
+        return pool != null ? pool.spareCards.poll() : null;
+    }
+
+    private void preinflate(ViewGroup parent, int cards) {
+        int missing = cards - spareCards.size() - inflating;
+        for (int i = 0; i < missing; i++) {
+            inflating++;
+            inflater.inflate(R.layout.item_property, parent, (view, resid, unused) -> {
+                inflating--;
+                spareCards.add(view);
+            });
+        }
+    }
+
+    @Nullable
+    private static PropertyCardPool forContext(Context context) {
+        Activity activity = activityOf(context);
+        if (activity == null || activity.isFinishing()) {
+            return null;
+        }
+        registerLifecycle(activity.getApplication());
+        PropertyCardPool pool = pools.get(activity);
+        if (pool == null) {
+            pool = new PropertyCardPool(activity);
+            pools.put(activity, pool);
+        }
+        return pool;
+    }
+
+    @Nullable
+    private static Activity activityOf(Context context) {
+        while (context instanceof ContextWrapper) {
+            if (context instanceof Activity) {
+                return (Activity) context;
+            }
+            context = ((ContextWrapper) context).getBaseContext();
+        }
+        return null;
+    }
+
+    private static void registerLifecycle(Application application) {
+        if (lifecycleRegistered) {
+            return;
+        }
+        lifecycleRegistered = true;
+        application.registerActivityLifecycleCallbacks(new Application.ActivityLifecycleCallbacks() {
+            @Override
+            public void onActivityDestroyed(@NonNull Activity activity) {
+                PropertyCardPool pool = pools.remove(activity);
+                if (pool != null) {
+                    pool.recycledViews.clear();
+                    pool.spareCards.clear();
+                }
+            }
+
+            @Override
+            public void onActivityCreated(@NonNull Activity activity, @Nullable Bundle savedInstanceState) {
+            }
+
+            @Override
+            public void onActivityStarted(@NonNull Activity activity) {
+            }
+
+            @Override
+            public void onActivityResumed(@NonNull Activity activity) {
+            }
+
+            @Override
+            public void onActivityPaused(@NonNull Activity activity) {
+            }
+
+            @Override
+            public void onActivityStopped(@NonNull Activity activity) {
+            }
+
+            @Override
+            public void onActivitySaveInstanceState(@NonNull Activity activity, @NonNull Bundle outState) {
+            }
+        });
+    }
+}
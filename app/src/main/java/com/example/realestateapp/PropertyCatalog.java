@@ -0,0 +1,574 @@
+package com.example.realestateapp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Every listing the app knows about, stored column by column instead of one
+ * object per listing. Prices, coordinates, bedroom counts and timestamps live
+ * in primitive arrays, as do bathrooms, covered area and parking parsed from
+ * the listing text; city, area and type are small int codes into a
+ * {@link StringDictionary}. Filters such as "apartments in City Center"
+ * compare ints in tight loops without touching any strings. Screens get
+ * {@link Property} row views from {@link #get(int)}.
+ *
+ * <p>Rows are appended and never move, so a row number stays valid for the
+ * catalog's lifetime. Every listing also has a stable 64-bit id, resolved to
+ * its row through a primitive hash index; ids are what screens pass around.
+ * A sync may rewrite a row in place or remove it; removed rows stay as holes
+ * that scans and id lookups skip.</p>
+ *
+ * <p>Only the summary of a listing is held here: descriptions are cut to a
+ * short snippet, and amenities and gallery images are left out. Those belong
+ * to the {@link ListingDetail}, loaded when a single listing is opened.</p>
+ */
+public class PropertyCatalog extends ListingTable {
+
+    // Coordinates are stored as integer microdegrees (about 0.1 m of precision)
+    static final double MICRODEGREES = 1e6;
+    static final int NO_COORDINATE = Integer.MIN_VALUE;
+
+    // Columns are package-private so CatalogSnapshot can write and restore them directly;
+    // everything else goes through the synchronized methods
+    int size;
+
+    long[] ids;
+    final LongIntHashMap rowsById = new LongIntHashMap();
+    boolean[] removed;
+    // Feed version the catalog was last synced to, 0 before the first sync
+    long feedVersion;
+
+    // Display text
+    String[] titles;
+    String[] priceTexts;
+    // Interned through locationPool, so rows in the same place share one String
+    String[] locations;
+    // Image URLs split into a shared prefix (scheme, host and path up to the last '/')
+    // and the listing's own remainder
+    int[] imagePrefixCodes;
+    String[] imageSuffixes;
+    // Snippets, see ListingDetail.summary
+    String[] descriptions;
+
+    // Parsed price: amount in minor units of the listing's own currency
+    long[] priceAmounts;
+    int[] currencyCodes;
+    int[] latitudes;
+    int[] longitudes;
+    // Attributes parsed once by ListingAttributes; UNKNOWN where the text did not say
+    byte[] bedrooms;
+    byte[] bathrooms;
+    int[] coveredAreas; // square feet
+    byte[] parkingSpaces;
+    long[] listedAt;
+    long[] updatedAt;
+
+    // Dictionary-encoded columns
+    int[] typeCodes;
+    int[] cityCodes;
+    int[] areaCodes;
+    final StringDictionary currencies = new StringDictionary();
+    final StringDictionary types = new StringDictionary();
+    final StringDictionary cities = new StringDictionary();
+    final StringDictionary areas = new StringDictionary();
+    final StringDictionary imagePrefixes = new StringDictionary();
+    // Used for interning only; location codes are not stored
+    private final StringDictionary locationPool = new StringDictionary();
+
+    public PropertyCatalog() {
+        this(16);
+    }
+
+    public PropertyCatalog(int capacity) {
+        allocate(Math.max(capacity, 1));
+    }
+
+    /**
+     * Appends a listing and returns its row. A listing whose id is already in
+     * the catalog is not added again; the existing row is returned instead.
+     */
+    public synchronized int add(Listing listing) {
+        long id = listing.id != NO_ID ? listing.id : stableId(listing);
+        int existing = rowsById.get(id);
+        if (existing != LongIntHashMap.MISSING) {
+            return existing;
+        }
+        if (size == titles.length) {
+            grow(size * 2);
+        }
+        int row = size;
+        ids[row] = id;
+        rowsById.put(id, row);
+        write(row, listing);
+        size++;
+        return row;
+    }
+
+    /**
+     * Applies one batch of feed changes: listings whose id is new are appended,
+     * known ids are rewritten in place and tombstoned ids are removed. Readers
+     * never see a half-applied batch.
+     */
+    public synchronized CatalogChangeSet apply(List<Listing> upserts, long[] tombstones, long toVersion) {
+        IntList inserted = new IntList();
+        IntList updated = new IntList();
+        IntList removedRows = new IntList();
+        for (Listing listing : upserts) {
+            long id = listing.id != NO_ID ? listing.id : stableId(listing);
+            int row = rowsById.get(id);
+            if (row == LongIntHashMap.MISSING) {
+                inserted.add(add(listing.id(id)));
+            } else {
+                write(row, listing);
+                updated.add(row);
+            }
+        }
+        for (long id : tombstones) {
+            int row = rowsById.remove(id);
+            if (row != LongIntHashMap.MISSING) {
+                removed[row] = true;
+                removedRows.add(row);
+            }
+        }
+        feedVersion = Math.max(feedVersion, toVersion);
+        return new CatalogChangeSet(inserted.toArray(), updated.toArray(), removedRows.toArray(), feedVersion);
+    }
+
+    public synchronized long feedVersion() {
+        return feedVersion;
+    }
+
+    @Override
+    public synchronized boolean isLive(int row) {
+        return !removed[row];
+    }
+
+    @Override
+    public synchronized int size() {
+        return size;
+    }
+
+    @Override
+    public synchronized int rowOf(long id) {
+        int row = rowsById.get(id);
+        return row == LongIntHashMap.MISSING ? UNKNOWN : row;
+    }
+
+    /**
+     * Id for a listing that arrives without one, hashed (64-bit FNV-1a) from its
+     * title and location so the same listing gets the same id on every launch.
+     * The price is left out: a price change edits the listing, it does not make
+     * a new one.
+     */
+    static long stableId(Listing listing) {
+        long hash = 0xcbf29ce484222325L;
+        for (String field : new String[]{listing.title, listing.location}) {
+            String text = field != null ? field : "";
+            for (int i = 0; i < text.length(); i++) {
+                hash = (hash ^ text.charAt(i)) * 0x100000001b3L;
+            }
+            hash = (hash ^ 0x1f) * 0x100000001b3L;
+        }
+        return hash != NO_ID ? hash : 1;
+    }
+
+    // Row views of every live listing, in row order
+    public synchronized List<Property> getAll() {
+        List<Property> result = new ArrayList<>(size);
+        for (int row = 0; row < size; row++) {
+            if (!removed[row]) {
+                result.add(new Property(this, row));
+            }
+        }
+        return result;
+    }
+
+    // Compares dictionary codes, so no strings are touched per row
+    @Override
+    public synchronized int[] rowsMatching(String type, String area, boolean locatedOnly) {
+        int typeCode = types.find(type);
+        int areaCode = areas.find(area);
+        if ((type != null && typeCode == StringDictionary.NO_CODE)
+                || (area != null && areaCode == StringDictionary.NO_CODE)) {
+            return new int[0];
+        }
+        int[] result = new int[size];
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            if (!removed[row] && (type == null || typeCodes[row] == typeCode)
+                    && (area == null || areaCodes[row] == areaCode)
+                    && (!locatedOnly || latitudes[row] != NO_COORDINATE)) {
+                result[count++] = row;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    // Compared as dictionary codes
+    @Override
+    public synchronized int[] rowsInCity(String city) {
+        int cityCode = cities.find(city);
+        if (cityCode == StringDictionary.NO_CODE) {
+            return new int[0];
+        }
+        int[] result = new int[size];
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            if (!removed[row] && cityCodes[row] == cityCode) {
+                result[count++] = row;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    @Override
+    public synchronized int[] newestRows(int limit) {
+        int count = Math.min(Math.max(limit, 0), size);
+        int[] newest = new int[count];
+        // Insertion into a short sorted prefix; limit is a screenful, not the whole catalog
+        int filled = 0;
+        for (int row = 0; row < size; row++) {
+            long time = listedAt[row];
+            if (removed[row] || (filled == count && (count == 0 || time <= listedAt[newest[count - 1]]))) {
+                continue;
+            }
+            int at = filled < count ? filled++ : count - 1;
+            while (at > 0 && listedAt[newest[at - 1]] < time) {
+                newest[at] = newest[at - 1];
+                at--;
+            }
+            newest[at] = row;
+        }
+        return filled == count ? newest : Arrays.copyOf(newest, filled);
+    }
+
+    @Override
+    synchronized long id(int row) {
+        return ids[row];
+    }
+
+    @Override
+    synchronized String title(int row) {
+        return titles[row];
+    }
+
+    @Override
+    synchronized String priceText(int row) {
+        return priceTexts[row];
+    }
+
+    @Override
+    synchronized String location(int row) {
+        return locations[row];
+    }
+
+    @Override
+    synchronized String imageUrl(int row) {
+        int prefix = imagePrefixCodes[row];
+        return prefix == StringDictionary.NO_CODE ? imageSuffixes[row] : imagePrefixes.decode(prefix) + imageSuffixes[row];
+    }
+
+    @Override
+    synchronized String description(int row) {
+        return descriptions[row];
+    }
+
+    @Override
+    synchronized Price price(int row) {
+        return priceAmounts[row] == UNKNOWN ? null
+                : new Price(currencies.decode(currencyCodes[row]), priceAmounts[row]);
+    }
+
+    @Override
+    synchronized boolean hasCoordinates(int row) {
+        return latitudes[row] != NO_COORDINATE;
+    }
+
+    @Override
+    synchronized double latitude(int row) {
+        return latitudes[row] == NO_COORDINATE ? Double.NaN : latitudes[row] / MICRODEGREES;
+    }
+
+    @Override
+    synchronized double longitude(int row) {
+        return longitudes[row] == NO_COORDINATE ? Double.NaN : longitudes[row] / MICRODEGREES;
+    }
+
+    @Override
+    synchronized int bedrooms(int row) {
+        return bedrooms[row];
+    }
+
+    @Override
+    synchronized int bathrooms(int row) {
+        return bathrooms[row];
+    }
+
+    @Override
+    synchronized int coveredAreaSqFt(int row) {
+        return coveredAreas[row];
+    }
+
+    @Override
+    synchronized int parkingSpaces(int row) {
+        return parkingSpaces[row];
+    }
+
+    @Override
+    synchronized long listedAt(int row) {
+        return listedAt[row];
+    }
+
+    @Override
+    synchronized long updatedAt(int row) {
+        return updatedAt[row];
+    }
+
+    @Override
+    synchronized String type(int row) {
+        return types.decode(typeCodes[row]);
+    }
+
+    @Override
+    synchronized String city(int row) {
+        return cities.decode(cityCodes[row]);
+    }
+
+    @Override
+    synchronized String area(int row) {
+        return areas.decode(areaCodes[row]);
+    }
+
+    // Makes rows [0, size) readable after CatalogSnapshot filled the columns
+    void restored(int size) {
+        this.size = size;
+        for (int row = 0; row < size; row++) {
+            if (!removed[row]) {
+                rowsById.put(ids[row], row);
+            }
+        }
+    }
+
+    // Fills every column of row except its id
+    private void write(int row, Listing listing) {
+        titles[row] = listing.title;
+        priceTexts[row] = listing.price;
+        locations[row] = locationPool.intern(listing.location);
+        setImageUrl(row, listing.imageUrl);
+        // Rows keep a snippet only; the full text lives in the listing's ListingDetail
+        descriptions[row] = ListingDetail.summary(listing.description);
+
+        Price price = Price.parse(listing.price);
+        priceAmounts[row] = price != null ? price.getAmountMinor() : UNKNOWN;
+        currencyCodes[row] = currencies.encode(price != null ? price.getCurrency() : null);
+        boolean located = !Double.isNaN(listing.latitude) && !Double.isNaN(listing.longitude);
+        latitudes[row] = located ? (int) Math.round(listing.latitude * MICRODEGREES) : NO_COORDINATE;
+        longitudes[row] = located ? (int) Math.round(listing.longitude * MICRODEGREES) : NO_COORDINATE;
+
+        // Attributes the caller left out are parsed from the full text, before it is cut to a snippet
+        ListingAttributes parsed = ListingAttributes.parse(listing.title, listing.description,
+                String.join("\n", listing.amenities));
+        bedrooms[row] = smallCount(listing.bedrooms != UNKNOWN ? listing.bedrooms : parsed.bedrooms);
+        bathrooms[row] = smallCount(listing.bathrooms != UNKNOWN ? listing.bathrooms : parsed.bathrooms);
+        coveredAreas[row] = listing.coveredAreaSqFt != UNKNOWN ? listing.coveredAreaSqFt : parsed.coveredAreaSqFt;
+        parkingSpaces[row] = smallCount(listing.parkingSpaces != UNKNOWN ? listing.parkingSpaces : parsed.parkingSpaces);
+        listedAt[row] = listing.listedAt;
+        updatedAt[row] = listing.updatedAt != 0 ? listing.updatedAt : listing.listedAt;
+        typeCodes[row] = types.encode(listing.type != null ? listing.type : ListingClassifier.type(listing.title));
+        cityCodes[row] = cities.encode(listing.city != null ? listing.city : ListingClassifier.city(listing.location));
+        areaCodes[row] = areas.encode(listing.area != null ? listing.area : ListingClassifier.area(listing.location));
+    }
+
+    // Also used by CatalogSnapshot for snapshots that stored whole URLs
+    void setImageUrl(int row, String url) {
+        int split = url != null ? imagePrefixLength(url) : 0;
+        imagePrefixCodes[row] = split > 0 ? imagePrefixes.encode(url.substring(0, split)) : StringDictionary.NO_CODE;
+        imageSuffixes[row] = split > 0 ? url.substring(split) : url;
+    }
+
+    // Length of "https://host/path/" before the file name and query, or 0 for a URL without a host
+    static int imagePrefixLength(String url) {
+        int scheme = url.indexOf("://");
+        if (scheme < 0) {
+            return 0;
+        }
+        int end = url.length();
+        int query = url.indexOf('?');
+        int fragment = url.indexOf('#');
+        if (query >= 0) {
+            end = query;
+        }
+        if (fragment >= 0 && fragment < end) {
+            end = fragment;
+        }
+        int slash = url.lastIndexOf('/', end - 1);
+        return slash > scheme + 2 ? slash + 1 : 0;
+    }
+
+    private static byte smallCount(int count) {
+        return (byte) Math.min(count, Byte.MAX_VALUE);
+    }
+
+    private void allocate(int capacity) {
+        ids = new long[capacity];
+        removed = new boolean[capacity];
+        titles = new String[capacity];
+        priceTexts = new String[capacity];
+        locations = new String[capacity];
+        imagePrefixCodes = new int[capacity];
+        imageSuffixes = new String[capacity];
+        descriptions = new String[capacity];
+        priceAmounts = new long[capacity];
+        currencyCodes = new int[capacity];
+        latitudes = new int[capacity];
+        longitudes = new int[capacity];
+        bedrooms = new byte[capacity];
+        bathrooms = new byte[capacity];
+        coveredAreas = new int[capacity];
+        parkingSpaces = new byte[capacity];
+        listedAt = new long[capacity];
+        updatedAt = new long[capacity];
+        typeCodes = new int[capacity];
+        cityCodes = new int[capacity];
+        areaCodes = new int[capacity];
+    }
+
+    private void grow(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        removed = Arrays.copyOf(removed, capacity);
+        titles = Arrays.copyOf(titles, capacity);
+        priceTexts = Arrays.copyOf(priceTexts, capacity);
+        locations = Arrays.copyOf(locations, capacity);
+        imagePrefixCodes = Arrays.copyOf(imagePrefixCodes, capacity);
+        imageSuffixes = Arrays.copyOf(imageSuffixes, capacity);
+        descriptions = Arrays.copyOf(descriptions, capacity);
+        priceAmounts = Arrays.copyOf(priceAmounts, capacity);
+        currencyCodes = Arrays.copyOf(currencyCodes, capacity);
+        latitudes = Arrays.copyOf(latitudes, capacity);
+        longitudes = Arrays.copyOf(longitudes, capacity);
+        bedrooms = Arrays.copyOf(bedrooms, capacity);
+        bathrooms = Arrays.copyOf(bathrooms, capacity);
+        coveredAreas = Arrays.copyOf(coveredAreas, capacity);
+        parkingSpaces = Arrays.copyOf(parkingSpaces, capacity);
+        listedAt = Arrays.copyOf(listedAt, capacity);
+        updatedAt = Arrays.copyOf(updatedAt, capacity);
+        typeCodes = Arrays.copyOf(typeCodes, capacity);
+        cityCodes = Arrays.copyOf(cityCodes, capacity);
+        areaCodes = Arrays.copyOf(areaCodes, capacity);
+    }
+
+    /**
+     * Fields of a listing to be added. Only title, price, location and image
+     * are required; id, type, city, area, bedrooms, bathrooms, covered area
+     * and parking are derived from the text when not given. Amenities and gallery images are not kept in the
+     * catalog; see {@link #detail()}.
+     */
+    public static class Listing {
+        long id = NO_ID;
+        final String title;
+        final String price;
+        final String location;
+        final String imageUrl;
+        String description;
+        double latitude = Double.NaN;
+        double longitude = Double.NaN;
+        String type;
+        String city;
+        String area;
+        int bedrooms = UNKNOWN;
+        int bathrooms = UNKNOWN;
+        int coveredAreaSqFt = UNKNOWN;
+        int parkingSpaces = UNKNOWN;
+        long listedAt;
+        long updatedAt;
+        List<String> amenities = Collections.emptyList();
+        List<String> imageUrls = Collections.emptyList();
+
+        public Listing(String title, String price, String location, String imageUrl) {
+            this.title = title;
+            this.price = price;
+            this.location = location;
+            this.imageUrl = imageUrl;
+        }
+
+        // Server-assigned id; must not be NO_ID
+        public Listing id(long id) {
+            this.id = id;
+            return this;
+        }
+
+        public Listing description(String description) {
+            this.description = description;
+            return this;
+        }
+
+        public Listing coordinates(double latitude, double longitude) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            return this;
+        }
+
+        public Listing type(String type) {
+            this.type = type;
+            return this;
+        }
+
+        public Listing city(String city) {
+            this.city = city;
+            return this;
+        }
+
+        public Listing area(String area) {
+            this.area = area;
+            return this;
+        }
+
+        public Listing bedrooms(int bedrooms) {
+            this.bedrooms = bedrooms;
+            return this;
+        }
+
+        public Listing bathrooms(int bathrooms) {
+            this.bathrooms = bathrooms;
+            return this;
+        }
+
+        public Listing coveredArea(int squareFeet) {
+            this.coveredAreaSqFt = squareFeet;
+            return this;
+        }
+
+        public Listing parkingSpaces(int parkingSpaces) {
+            this.parkingSpaces = parkingSpaces;
+            return this;
+        }
+
+        public Listing listedAt(long listedAt) {
+            this.listedAt = listedAt;
+            return this;
+        }
+
+        public Listing updatedAt(long updatedAt) {
+            this.updatedAt = updatedAt;
+            return this;
+        }
+
+        public Listing amenities(List<String> amenities) {
+            this.amenities = amenities;
+            return this;
+        }
+
+        // Gallery images; the cover image is the one given to the constructor
+        public Listing imageUrls(List<String> imageUrls) {
+            this.imageUrls = imageUrls;
+            return this;
+        }
+
+        // The on-demand part of this listing; id must already be set
+        ListingDetail detail() {
+            return new ListingDetail(id, description, amenities, imageUrls);
+        }
+    }
+}
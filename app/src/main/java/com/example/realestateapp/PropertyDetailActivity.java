@@ -17,11 +17,17 @@ import com.google.android.material.floatingactionbutton.FloatingActionButton;
 
 public class PropertyDetailActivity extends AppCompatActivity {
 
+    // Id of the listing to show; the listing itself is looked up in the catalog
+    public static final String EXTRA_PROPERTY_ID = "PROPERTY_ID";
+
     private ImageView propertyImage;
     private TextView titleText, priceText, locationText, descriptionText;
     private FloatingActionButton favoriteButton;
     private Button contactButton, scheduleButton;
     private boolean isFavorite = false;
+    private CatalogRepository.Subscription subscription;
+    // Set once the listing has been found; later deliveries only refresh its fields
+    private boolean shown;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -44,44 +50,25 @@ public class PropertyDetailActivity extends AppCompatActivity {
         contactButton = findViewById(R.id.contactButton);
         scheduleButton = findViewById(R.id.scheduleButton);
 
-        // Set up data from intent
-        String title = getIntent().getStringExtra("PROPERTY_TITLE");
-        String price = getIntent().getStringExtra("PROPERTY_PRICE");
-        String location = getIntent().getStringExtra("PROPERTY_LOCATION");
-        String imageUrl = getIntent().getStringExtra("PROPERTY_IMAGE");
-
-        titleText.setText(title);
-        priceText.setText(price);
-        locationText.setText(location);
-
-        // Set property description (sample text)
-        String description = "This beautiful property features modern amenities including " +
-                "a spacious living area, well-equipped kitchen, and stunning views. " +
-                "Located in a prime area with easy access to shopping centers, schools, " +
-                "and public transportation.\n\n" +
-                "• 3 Bedrooms\n" +
-                "• 2 Bathrooms\n" +
-                "• 1 Kitchen\n" +
-                "• 1 Living Room\n" +
-                "• Parking Available\n" +
-                "• 24/7 Security";
-
-        descriptionText.setText(description);
-
-        // Load image with Glide
-        RequestOptions requestOptions = new RequestOptions();
-        requestOptions = requestOptions.transforms(new CenterCrop(), new RoundedCorners(16));
-
-        Glide.with(this)
-                .load(imageUrl)
-                .apply(requestOptions)
-                .placeholder(R.drawable.property_placeholder)
-                .error(R.drawable.property_placeholder)
-                .into(propertyImage);
+        // Resolve the listing from its id on the repository thread, which reads the mapped
+        // snapshot; a sync that reprices the listing updates the open screen too
+        long propertyId = getIntent().getLongExtra(EXTRA_PROPERTY_ID, PropertyCatalog.NO_ID);
+        // The favorite state is read on the database thread; keep the button off until it arrives
+        favoriteButton.setEnabled(false);
+        subscription = CatalogRepository.get(this).observe(CatalogRepository.byIds(new long[]{propertyId}),
+                (items, change) -> {
+                    if (!items.isEmpty()) {
+                        showProperty(items.get(0));
+                    } else if (!shown) {
+                        Toast.makeText(this, "Property not found", Toast.LENGTH_SHORT).show();
+                        finish();
+                    }
+                });
 
         // Set up button click listeners
         favoriteButton.setOnClickListener(v -> {
             isFavorite = !isFavorite;
+            SavedListings.setFavorite(this, propertyId, isFavorite);
             favoriteButton.setImageResource(isFavorite ?
                     R.drawable.ic_favorite_filled : R.drawable.ic_favorite_filled);
 
@@ -101,6 +88,79 @@ public class PropertyDetailActivity extends AppCompatActivity {
         });
     }
 
+    private void showProperty(Property property) {
+        titleText.setText(property.getTitle());
+        priceText.setText(property.getPrice());
+        locationText.setText(property.getLocation());
+        if (shown) {
+            return;
+        }
+        shown = true;
+        long propertyId = property.getId();
+        SavedListings.recordViewed(this, propertyId);
+        SavedListings.isFavorite(this, propertyId, favorite -> {
+            isFavorite = favorite;
+            favoriteButton.setEnabled(true);
+        });
+
+        // Show the catalog snippet right away; the full description, amenities and
+        // gallery arrive with the detail record
+        String summary = property.getDescription();
+        descriptionText.setText(summary != null ? summary : "");
+        String coverUrl = property.getImageUrl();
+        loadImage(coverUrl);
+        ListingDetails.load(this, propertyId, detail -> {
+            if (detail == null || isFinishing() || isDestroyed()) {
+                if (summary == null) {
+                    descriptionText.setText("No description available yet.");
+                }
+                return;
+            }
+            showDetail(detail, summary);
+            if (coverUrl == null && !detail.getImageUrls().isEmpty()) {
+                loadImage(detail.getImageUrls().get(0));
+            }
+        });
+    }
+
+    private void showDetail(ListingDetail detail, String summary) {
+        StringBuilder text = new StringBuilder();
+        String description = detail.getDescription() != null ? detail.getDescription() : summary;
+        if (description != null) {
+            text.append(description);
+        }
+        if (!detail.getAmenities().isEmpty() && text.length() > 0) {
+            text.append("\n");
+        }
+        for (String amenity : detail.getAmenities()) {
+            if (text.length() > 0) {
+                text.append('\n');
+            }
+            text.append("• ").append(amenity);
+        }
+        descriptionText.setText(text.length() > 0 ? text : "No description available yet.");
+    }
+
+    private void loadImage(String imageUrl) {
+        RequestOptions requestOptions = new RequestOptions();
+        requestOptions = requestOptions.transforms(new CenterCrop(), new RoundedCorners(16));
+
+        Glide.with(this)
+                .load(ListingImage.of(imageUrl))
+                .apply(requestOptions)
+                .placeholder(R.drawable.property_placeholder)
+                .error(R.drawable.property_placeholder)
+                .into(propertyImage);
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (subscription != null) {
+            subscription.close();
+        }
+    }
+
     @Override
     public boolean onSupportNavigateUp() {
         onBackPressed();
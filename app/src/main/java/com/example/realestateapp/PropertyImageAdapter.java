@@ -31,7 +31,7 @@ public class PropertyImageAdapter extends RecyclerView.Adapter<PropertyImageAdap
     public void onBindViewHolder(@NonNull ImageViewHolder holder, int position) {
         String imageUrl = imageUrls.get(position);
         Glide.with(holder.itemView.getContext())
-                .load(imageUrl)
+                .load(ListingImage.of(imageUrl))
                 .centerCrop()
                 .into(holder.imageView);
     }
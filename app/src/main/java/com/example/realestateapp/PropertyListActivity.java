@@ -1,19 +1,20 @@
 package com.example.realestateapp;
 
 import android.os.Bundle;
+import android.view.View;
 import android.widget.TextView;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.Toolbar;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import java.util.ArrayList;
-import java.util.List;
 
 public class PropertyListActivity extends AppCompatActivity {
 
     private RecyclerView propertyRecyclerView;
     private PropertyAdapter propertyAdapter;
-    private List<Property> propertyList = new ArrayList<>();
+    private TextView emptyView;
+    private CatalogRepository.Subscription subscription;
     private String mode;
 
     @Override
@@ -35,11 +36,12 @@ public class PropertyListActivity extends AppCompatActivity {
 
         // Initialize views
         propertyRecyclerView = findViewById(R.id.propertyListRecyclerView);
-        TextView emptyView = findViewById(R.id.emptyView);
+        emptyView = findViewById(R.id.emptyView);
 
         // Set up RecyclerView
         propertyRecyclerView.setLayoutManager(new LinearLayoutManager(this));
-        propertyAdapter = new PropertyAdapter(propertyList, (property, position) -> {
+        PropertyCardPool.attach(propertyRecyclerView, PropertyCardPool.VERTICAL_LIST);
+        propertyAdapter = new PropertyAdapter(new ArrayList<>(), (property, position) -> {
             // Handle property click - open detail view
             // Intent intent = new Intent(PropertyListActivity.this, PropertyDetailActivity.class);
             // intent.putExtra("PROPERTY_ID", property.getId());
@@ -51,56 +53,22 @@ public class PropertyListActivity extends AppCompatActivity {
         loadProperties();
     }
 
-    private void loadProperties() {
-        // In a real app, you would fetch properties from a database or API
-        // For now, we'll add dummy data based on the mode
-        propertyList.clear();
-
-        if (mode.equals("BUY")) {
-            propertyList.add(new Property(
-                    "Modern Downtown Apartment",
-                    "PKR 9,500,000",
-                    "Islamabad, F-7 Markaz",
-                    "https://images.unsplash.com/photo-1540518614846-7eded433c457?ixlib=rb-1.2.1&auto=format&fit=crop&w=500&q=60"
-            ));
-
-            propertyList.add(new Property(
-                    "Luxury Villa with Pool",
-                    "PKR 25,000,000",
-                    "DHA Phase 5, Lahore",
-                    "https://images.unsplash.com/photo-1564013799919-ab600027ffc6?ixlib=rb-1.2.1&auto=format&fit=crop&w=500&q=60"
-            ));
-
-            propertyList.add(new Property(
-                    "Cozy Family Home",
-                    "PKR 7,000,000",
-                    "Gulberg, Lahore",
-                    "https://images.unsplash.com/photo-1576941089067-2de3c901e126?ixlib=rb-1.2.1&auto=format&fit=crop&w=500&q=60"
-            ));
-        } else {
-            propertyList.add(new Property(
-                    "Furnished Apartment",
-                    "PKR 45,000/month",
-                    "DHA Phase 2, Karachi",
-                    "https://images.unsplash.com/photo-1522708323590-d24dbb6b0267?ixlib=rb-1.2.1&auto=format&fit=crop&w=500&q=60"
-            ));
-
-            propertyList.add(new Property(
-                    "2 Bedroom Flat",
-                    "PKR 35,000/month",
-                    "Bahria Town, Rawalpindi",
-                    "https://images.unsplash.com/photo-1560448204-603b3fc33ddc?ixlib=rb-1.2.1&auto=format&fit=crop&w=500&q=60"
-            ));
-
-            propertyList.add(new Property(
-                    "Modern Studio Apartment",
-                    "PKR 25,000/month",
-                    "Johar Town, Lahore",
-                    "https://images.unsplash.com/photo-1502672260266-1c1ef2d93688?ixlib=rb-1.2.1&auto=format&fit=crop&w=500&q=60"
-            ));
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (subscription != null) {
+            subscription.close();
         }
+    }
 
-        propertyAdapter.notifyDataSetChanged();
+    private void loadProperties() {
+        // Sale or rent is read off the catalog's price text, so synced listings show up here too
+        String purpose = mode.equals("BUY") ? ListingClassifier.PURPOSE_SALE : ListingClassifier.PURPOSE_RENT;
+        subscription = CatalogRepository.get(this).observe(CatalogRepository.forPurpose(purpose),
+                (items, change) -> {
+                    propertyAdapter.submitList(items);
+                    emptyView.setVisibility(items.isEmpty() ? View.VISIBLE : View.GONE);
+                });
     }
 
     @Override
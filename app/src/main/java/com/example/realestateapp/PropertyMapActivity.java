@@ -22,7 +22,7 @@ import org.osmdroid.util.GeoPoint;
 import org.osmdroid.views.MapView;
 import org.osmdroid.views.overlay.Marker;
 
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 
@@ -30,8 +30,9 @@ public class PropertyMapActivity extends AppCompatActivity {
 
     private MapView map;
     private HashMap<String, String> userPreferences;
-    private List<Property> properties = new ArrayList<>();
-    private List<Property> matchedProperties = new ArrayList<>();
+    private CatalogRepository.Subscription subscription;
+    private List<Property> matchedProperties = Collections.emptyList();
+    private boolean announced;
     private BottomSheetBehavior<View> bottomSheetBehavior;
     private CardView propertyDetailCard;
     private TextView propertyTitle, propertyLocation, propertyPrice;
@@ -54,7 +55,6 @@ public class PropertyMapActivity extends AppCompatActivity {
         initializeViews();
         initializeMap();
         setupBottomSheet();
-        generateSampleProperties();
     }
 
     private void initializeViews() {
@@ -79,7 +79,6 @@ public class PropertyMapActivity extends AppCompatActivity {
 
         // After setting up the map, filter and display properties
         filterPropertiesByPreferences();
-        displayPropertiesOnMap();
     }
 
     private void setupBottomSheet() {
@@ -102,37 +101,17 @@ public class PropertyMapActivity extends AppCompatActivity {
         });
     }
 
-    private void generateSampleProperties() {
-        // Generate sample properties for demonstration
-        properties.add(new Property("Luxury Apartment", "123 Main St", "$500,000",
-                40.7128, -74.0060, "Apartment", "City Center", "3 bed, 2 bath"));
-        properties.add(new Property("Family House", "456 Oak Ave", "$750,000",
-                40.7228, -74.0160, "House", "Suburbs", "4 bed, 3 bath"));
-        properties.add(new Property("Modern Villa", "789 Beach Rd", "$1,200,000",
-                40.7328, -74.0260, "Villa", "Coastal Area", "5 bed, 4 bath"));
-        properties.add(new Property("Studio Apartment", "321 Downtown Ave", "$250,000",
-                40.7028, -74.0360, "Apartment", "City Center", "1 bed, 1 bath"));
-        properties.add(new Property("Countryside House", "159 Rural Lane", "$450,000",
-                40.7428, -73.9960, "House", "Countryside", "3 bed, 2 bath"));
-    }
-
     private void filterPropertiesByPreferences() {
-        matchedProperties.clear();
-
-        for (Property property : properties) {
-            if (matchesPreferences(property)) {
-                matchedProperties.add(property);
-            }
-        }
-    }
-
-    private boolean matchesPreferences(Property property) {
-        // Implement filtering logic based on user preferences
-        String propertyType = userPreferences.get("What type of property are you looking for?");
-        String area = userPreferences.get("Which area do you prefer?");
-
-        return (propertyType == null || property.getType().equals(propertyType)) &&
-                (area == null || property.getArea().equals(area));
+        // Type and area are dictionary columns, so matching compares int codes, not strings;
+        // the markers are redrawn whenever a sync changes the matching listings
+        String propertyType = userPreferences != null
+                ? userPreferences.get("What type of property are you looking for?") : null;
+        String area = userPreferences != null ? userPreferences.get("Which area do you prefer?") : null;
+        subscription = CatalogRepository.get(this).observe(CatalogRepository.matching(propertyType, area, true),
+                (items, change) -> {
+                    matchedProperties = items;
+                    displayPropertiesOnMap();
+                });
     }
 
     private void displayPropertiesOnMap() {
@@ -144,6 +123,7 @@ public class PropertyMapActivity extends AppCompatActivity {
             marker.setTitle(property.getTitle());
             marker.setSnippet(property.getPrice());
             marker.setAnchor(Marker.ANCHOR_CENTER, Marker.ANCHOR_BOTTOM);
+            marker.setRelatedObject(property);
 
             marker.setOnMarkerClickListener((marker1, mapView) -> {
                 selectedMarker = marker1;
@@ -159,25 +139,23 @@ public class PropertyMapActivity extends AppCompatActivity {
 
         map.invalidate();
 
-        // Show success message if properties found
-        if (!matchedProperties.isEmpty()) {
+        // Show success message if properties found, once rather than after every sync
+        if (!announced && !matchedProperties.isEmpty()) {
+            announced = true;
             Toast.makeText(this, "Found " + matchedProperties.size() + " matching properties!",
                     Toast.LENGTH_SHORT).show();
         }
     }
 
     private Property findPropertyByMarker(Marker marker) {
-        for (Property property : matchedProperties) {
-            if (property.getTitle().equals(marker.getTitle())) {
-                return property;
-            }
-        }
-        return null;
+        // Markers carry the listing they were drawn for
+        Object property = marker.getRelatedObject();
+        return property instanceof Property ? (Property) property : null;
     }
 
     private void showPropertyDetails(Property property) {
         propertyTitle.setText(property.getTitle());
-        propertyLocation.setText(property.getAddress());
+        propertyLocation.setText(property.getLocation());
         propertyPrice.setText(property.getPrice());
 
         bottomSheetBehavior.setState(BottomSheetBehavior.STATE_EXPANDED);
@@ -214,37 +192,11 @@ public class PropertyMapActivity extends AppCompatActivity {
         map.onPause();
     }
 
-    // Property model class
-    public static class Property {
-        private String title;
-        private String address;
-        private String price;
-        private double latitude;
-        private double longitude;
-        private String type;
-        private String area;
-        private String details;
-
-        public Property(String title, String address, String price, double latitude,
-                        double longitude, String type, String area, String details) {
-            this.title = title;
-            this.address = address;
-            this.price = price;
-            this.latitude = latitude;
-            this.longitude = longitude;
-            this.type = type;
-            this.area = area;
-            this.details = details;
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (subscription != null) {
+            subscription.close();
         }
-
-        // Getters
-        public String getTitle() { return title; }
-        public String getAddress() { return address; }
-        public String getPrice() { return price; }
-        public double getLatitude() { return latitude; }
-        public double getLongitude() { return longitude; }
-        public String getType() { return type; }
-        public String getArea() { return area; }
-        public String getDetails() { return details; }
     }
 }
\ No newline at end of file
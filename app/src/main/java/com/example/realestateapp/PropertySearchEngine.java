@@ -0,0 +1,296 @@
+package com.example.realestateapp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Single entry point for property search. Owns the text index and the facet
+ * index over the same row ids and combines them for each query.
+ *
+ * <p>Queries are compiled by {@link QueryCompiler} first, so "3 bed under 10M
+ * in DHA" runs as a bedroom facet lookup, a price range and a text lookup for
+ * "dha". The lookups run in order of their estimated result size, and later
+ * ones only narrow what the earlier ones left.</p>
+ */
+public class PropertySearchEngine {
+
+    private final PropertySearchIndex textIndex = new PropertySearchIndex();
+    private final IncrementalSearch incrementalSearch = new IncrementalSearch(textIndex);
+    private final FacetIndex facetIndex = new FacetIndex();
+    private final ExchangeRates rates;
+    private final PriceIndex priceIndex;
+    private final Bm25Ranker ranker = new Bm25Ranker();
+    private final QueryCompiler compiler = new QueryCompiler();
+    private final SearchResultCache resultCache = new SearchResultCache();
+    // Engine row of each listing of the view fed to apply(), in view order
+    private int[] viewRows = new int[16];
+    private int viewSize;
+
+    public PropertySearchEngine() {
+        this(ExchangeRates.defaults());
+    }
+
+    public PropertySearchEngine(List<Property> properties) {
+        this();
+        for (Property property : properties) {
+            add(property);
+        }
+    }
+
+    public PropertySearchEngine(ExchangeRates rates) {
+        this.rates = rates;
+        priceIndex = new PriceIndex(rates);
+    }
+
+    public synchronized int add(Property property) {
+        int row = textIndex.add(property);
+        facetIndex.add(row, property);
+        priceIndex.add(row, property);
+        return row;
+    }
+
+    public synchronized boolean remove(int row) {
+        facetIndex.remove(row);
+        priceIndex.remove(row);
+        return textIndex.remove(row);
+    }
+
+    // Re-indexes a changed listing under the row it already has
+    public synchronized boolean update(int row, Property property) {
+        if (!textIndex.update(row, property)) {
+            return false;
+        }
+        facetIndex.remove(row);
+        facetIndex.add(row, property);
+        priceIndex.remove(row);
+        priceIndex.add(row, property);
+        return true;
+    }
+
+    /**
+     * Keeps the indexes in step with a live view from {@link CatalogRepository}:
+     * listings the change removes are dropped, inserted ones are indexed into
+     * the rows removed ones left free, changed ones are re-indexed under their
+     * own row, and every other listing is left alone. items is the view after
+     * the change; the first call indexes the whole view.
+     */
+    public synchronized void apply(List<Property> items, ListChange change) {
+        change.dispatchTo(new ListChange.Receiver() {
+            @Override
+            public void onRemoved(int position, int count) {
+                for (int i = position; i < position + count; i++) {
+                    remove(viewRows[i]);
+                }
+                System.arraycopy(viewRows, position + count, viewRows, position, viewSize - position - count);
+                viewSize -= count;
+            }
+
+            @Override
+            public void onInserted(int position, int count) {
+                if (viewSize + count > viewRows.length) {
+                    viewRows = Arrays.copyOf(viewRows, Math.max(viewSize + count, viewRows.length * 2));
+                }
+                System.arraycopy(viewRows, position, viewRows, position + count, viewSize - position);
+                for (int i = position; i < position + count; i++) {
+                    viewRows[i] = add(items.get(i));
+                }
+                viewSize += count;
+            }
+
+            @Override
+            public void onChanged(int position, int count) {
+                for (int i = position; i < position + count; i++) {
+                    update(viewRows[i], items.get(i));
+                }
+            }
+        });
+    }
+
+    /**
+     * Matches the query and filters and returns at most limit listings. When
+     * the query has words left after compiling it, or names a property type,
+     * the listings are ordered by relevance to those words; otherwise they keep
+     * index order, which is catalog order except where a listing took over the
+     * row of a removed one. A sort chosen in the filters replaces either order.
+     */
+    public synchronized SearchResults search(String query, SearchFilters filters, int limit,
+                                             String... countFacets) {
+        SearchResultCache.Key key = new SearchResultCache.Key(
+                String.join(" ", QueryCompiler.lex(query)), filters, limit, countFacets);
+        SearchResultCache.Entry cached = resultCache.get(key, textIndex.version());
+        if (cached != null) {
+            return new SearchResults(textIndex.getAll(cached.rows), cached.totalMatches, cached.facetCounts);
+        }
+
+        QueryPlan plan = compiler.compile(query);
+        String rankQuery = plan.getRankQuery();
+
+        // Everything but the facet chips narrows the base rows; null stands for "every row",
+        // which saves materializing the whole catalog
+        RowBitmap baseRows = null;
+        for (Step step : steps(plan, filters)) {
+            baseRows = step.apply(baseRows);
+            if (baseRows.isEmpty()) {
+                break;
+            }
+        }
+        RowBitmap facetRows = facetIndex.select(filters);
+
+        int[] rows;
+        if (baseRows == null && facetRows == null) {
+            rows = textIndex.allRows();
+        } else if (baseRows == null) {
+            rows = facetRows.toArray();
+        } else if (facetRows == null) {
+            rows = baseRows.toArray();
+        } else {
+            rows = baseRows.and(facetRows).toArray();
+        }
+
+        // Counts are scoped by the compiled query and price, plus the other facets
+        Map<String, Map<String, Integer>> counts = new HashMap<>();
+        for (String facet : countFacets) {
+            counts.put(facet, Collections.unmodifiableMap(facetIndex.counts(facet, baseRows, filters)));
+        }
+        counts = Collections.unmodifiableMap(counts);
+        int totalMatches = rows.length;
+        if (filters.getSort() == SearchFilters.SORT_LARGEST_AREA) {
+            sortByCoveredArea(rows);
+            if (rows.length > limit) {
+                rows = Arrays.copyOf(rows, limit);
+            }
+        } else if (!rankQuery.isEmpty()) {
+            rows = ranker.topK(textIndex, rows, rankQuery, limit);
+        } else if (rows.length > limit) {
+            rows = Arrays.copyOf(rows, limit);
+        }
+        resultCache.put(key, new SearchResultCache.Entry(rows, totalMatches, counts), textIndex.version());
+        return new SearchResults(textIndex.getAll(rows), totalMatches, counts);
+    }
+
+    // Hit rate and memory figures of the result cache
+    public SearchResultCache getResultCache() {
+        return resultCache;
+    }
+
+    // Lookups for the plan plus the filter sheet's price range, cheapest first
+    private List<Step> steps(QueryPlan plan, SearchFilters filters) {
+        List<Step> steps = new ArrayList<>();
+        String[] terms = PropertySearchIndex.tokenize(plan.getTextQuery());
+        if (terms.length > 0) {
+            steps.add(textStep(terms, plan.getTextQuery()));
+        }
+
+        for (Map.Entry<String, Set<String>> entry : plan.getFacets().entrySet()) {
+            String facet = entry.getKey();
+            Set<String> values = new TreeSet<>();
+            for (String value : entry.getValue()) {
+                // Typed city names are lowercase; a city we have no listings for matches nothing
+                String stored = facetIndex.findValue(facet, value);
+                values.add(stored != null ? stored : value);
+            }
+            steps.add(facetStep(facet, values));
+        }
+        // Bedrooms typed in the query and the filter sheet's minimum narrow the same facet
+        if (plan.hasBedrooms() || filters.getMinBedrooms() != SearchFilters.NO_MIN_BEDROOMS) {
+            int min = Math.max(filters.getMinBedrooms(),
+                    plan.getMinBedrooms() != QueryPlan.NO_BEDROOM_LIMIT ? plan.getMinBedrooms() : 0);
+            int max = plan.getMaxBedrooms() != QueryPlan.NO_BEDROOM_LIMIT ? plan.getMaxBedrooms() : Integer.MAX_VALUE;
+            steps.add(facetStep(FacetIndex.BEDROOMS, facetIndex.valuesBetween(FacetIndex.BEDROOMS, min, max)));
+        }
+
+        // Bounds typed in the query tighten the slider range; unknown currencies are ignored
+        long minPrice = filters.getMinPrice();
+        long maxPrice = filters.getMaxPrice();
+        if (plan.getMinPrice() != null && rates.toBaseMinor(plan.getMinPrice()) >= 0) {
+            minPrice = Math.max(minPrice, rates.toBaseMinor(plan.getMinPrice()));
+        }
+        if (plan.getMaxPrice() != null && rates.toBaseMinor(plan.getMaxPrice()) >= 0) {
+            maxPrice = Math.min(maxPrice, rates.toBaseMinor(plan.getMaxPrice()));
+        }
+        if (minPrice != SearchFilters.NO_MIN_PRICE || maxPrice != SearchFilters.NO_MAX_PRICE) {
+            steps.add(priceStep(minPrice, maxPrice));
+        }
+
+        Collections.sort(steps);
+        return steps;
+    }
+
+    private Step textStep(String[] terms, String textQuery) {
+        return new Step(textIndex.estimateMatches(terms)) {
+            @Override
+            RowBitmap apply(RowBitmap candidates) {
+                // With few candidates left, checking each one beats resolving the postings
+                if (candidates != null && candidates.cardinality() <= textIndex.size() / 4
+                        && !textIndex.needsFuzzyMatch(terms)) {
+                    RowBitmap result = new RowBitmap();
+                    for (int row : candidates.toArray()) {
+                        if (textIndex.matches(row, terms)) {
+                            result.add(row);
+                        }
+                    }
+                    return result;
+                }
+                return narrow(candidates, RowBitmap.of(incrementalSearch.search(textQuery)));
+            }
+        };
+    }
+
+    private Step facetStep(String facet, Set<String> values) {
+        return new Step(facetIndex.count(facet, values)) {
+            @Override
+            RowBitmap apply(RowBitmap candidates) {
+                return narrow(candidates, facetIndex.union(facet, values));
+            }
+        };
+    }
+
+    private Step priceStep(long minPrice, long maxPrice) {
+        return new Step(priceIndex.count(minPrice, maxPrice)) {
+            @Override
+            RowBitmap apply(RowBitmap candidates) {
+                return narrow(candidates, RowBitmap.of(priceIndex.range(minPrice, maxPrice)));
+            }
+        };
+    }
+
+    // Sorts rows in place by covered area, largest first; rows of unknown area go last
+    private void sortByCoveredArea(int[] rows) {
+        // Area and row packed into one long, so the sort runs over primitives only
+        long[] keys = new long[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            keys[i] = ((long) -textIndex.get(rows[i]).getCoveredAreaSqFt() << 32) | rows[i];
+        }
+        Arrays.sort(keys);
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = (int) keys[i];
+        }
+    }
+
+    private static RowBitmap narrow(RowBitmap candidates, RowBitmap rows) {
+        return candidates == null ? rows : candidates.and(rows);
+    }
+
+    // One lookup of a compiled query, ordered by how many rows it is expected to return
+    private abstract static class Step implements Comparable<Step> {
+        final int estimate;
+
+        Step(int estimate) {
+            this.estimate = estimate;
+        }
+
+        // Narrows candidates (null for every row) to the rows this lookup accepts
+        abstract RowBitmap apply(RowBitmap candidates);
+
+        @Override
+        public int compareTo(Step other) {
+            return Integer.compare(estimate, other.estimate);
+        }
+    }
+}
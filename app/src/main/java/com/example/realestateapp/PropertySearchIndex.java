@@ -0,0 +1,394 @@
+package com.example.realestateapp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Inverted index over property titles and locations. Text is tokenized and
+ * case-folded once when a listing is added, so a query only has to look up
+ * posting lists instead of scanning every listing. Access is synchronized so
+ * searches can run on a worker thread.
+ *
+ * <p>Alongside the match postings it keeps per-field term frequencies and
+ * field lengths for title, location and description, which
+ * {@link Bm25Ranker} uses to score matches.</p>
+ */
+public class PropertySearchIndex {
+
+    private static final String[] NO_TOKENS = new String[0];
+
+    // Row id -> listing (null once removed)
+    private final List<Property> rows = new ArrayList<>();
+    // Row id -> distinct tokens, kept so a listing can be removed from its postings
+    private final List<String[]> rowTokens = new ArrayList<>();
+    // Token -> sorted row ids; sorted map so prefixes resolve to a contiguous range
+    private final TreeMap<String, IntList> postings = new TreeMap<>();
+    // Fuzzy lookup over the same vocabulary, used when a term has no prefix match
+    private final TrigramIndex trigrams = new TrigramIndex();
+    // Term -> rows with per-field frequencies, including description-only terms
+    private final TreeMap<String, FieldPostings> fieldPostings = new TreeMap<>();
+    // Row id -> distinct scored terms, for removal from fieldPostings
+    private final List<String[]> rowScoredTerms = new ArrayList<>();
+    // Row id * FIELD_COUNT + field -> token count of that field
+    private int[] fieldLengths = new int[16 * FieldPostings.FIELD_COUNT];
+    private final long[] totalFieldLengths = new long[FieldPostings.FIELD_COUNT];
+    // Rows of removed listings, handed out again by add() lowest first
+    private final BitSet freeRows = new BitSet();
+    private int liveCount;
+    // Bumped on every add/remove so callers can tell when cached row ids went stale
+    private long version;
+
+    public PropertySearchIndex() {
+    }
+
+    public PropertySearchIndex(List<Property> properties) {
+        for (Property property : properties) {
+            add(property);
+        }
+    }
+
+    // Indexes a listing and returns its row id, reusing the row of a removed listing if there is one
+    public synchronized int add(Property property) {
+        int row = freeRows.nextSetBit(0);
+        if (row >= 0) {
+            freeRows.clear(row);
+        } else {
+            row = rows.size();
+            rows.add(null);
+            rowTokens.add(NO_TOKENS);
+            rowScoredTerms.add(NO_TOKENS);
+        }
+        index(row, property);
+        return row;
+    }
+
+    // Re-indexes the listing at row, e.g. after a sync changed it; the row id stays the same
+    public synchronized boolean update(int row, Property property) {
+        if (!remove(row)) {
+            return false;
+        }
+        freeRows.clear(row);
+        index(row, property);
+        return true;
+    }
+
+    private void index(int row, Property property) {
+        String[] tokens = distinctTokens(property);
+        rows.set(row, property);
+        rowTokens.set(row, tokens);
+        for (String token : tokens) {
+            IntList list = postings.get(token);
+            if (list == null) {
+                list = new IntList();
+                postings.put(token, list);
+                trigrams.add(token);
+            }
+            list.add(row);
+        }
+        indexFields(row, property);
+        liveCount++;
+        version++;
+    }
+
+    public synchronized boolean remove(int row) {
+        if (row < 0 || row >= rows.size() || rows.get(row) == null) {
+            return false;
+        }
+        for (String token : rowTokens.get(row)) {
+            IntList list = postings.get(token);
+            if (list != null) {
+                list.remove(row);
+                if (list.isEmpty()) {
+                    postings.remove(token);
+                }
+            }
+        }
+        for (String term : rowScoredTerms.get(row)) {
+            FieldPostings list = fieldPostings.get(term);
+            if (list != null) {
+                list.remove(row);
+                if (list.size() == 0) {
+                    fieldPostings.remove(term);
+                }
+            }
+        }
+        for (int field = 0; field < FieldPostings.FIELD_COUNT; field++) {
+            totalFieldLengths[field] -= fieldLengths[row * FieldPostings.FIELD_COUNT + field];
+            fieldLengths[row * FieldPostings.FIELD_COUNT + field] = 0;
+        }
+        rows.set(row, null);
+        rowTokens.set(row, NO_TOKENS);
+        rowScoredTerms.set(row, NO_TOKENS);
+        freeRows.set(row);
+        liveCount--;
+        version++;
+        return true;
+    }
+
+    public synchronized boolean remove(Property property) {
+        int row = rows.indexOf(property);
+        return row >= 0 && remove(row);
+    }
+
+    public synchronized Property get(int row) {
+        return rows.get(row);
+    }
+
+    public synchronized int size() {
+        return liveCount;
+    }
+
+    public synchronized long version() {
+        return version;
+    }
+
+    // Returns matching row ids in ascending order. Every query term is treated
+    // as a prefix, and a listing must match all of them. A term that prefixes
+    // nothing is matched approximately instead, so "Islamabd" still finds Islamabad.
+    public synchronized int[] search(String query) {
+        String[] terms = tokenize(query);
+        if (terms.length == 0) {
+            return allRows();
+        }
+
+        int[][] matches = new int[terms.length][];
+        for (int i = 0; i < terms.length; i++) {
+            matches[i] = prefixMatches(terms[i]);
+            if (matches[i].length == 0) {
+                matches[i] = fuzzyMatches(terms[i]);
+            }
+            if (matches[i].length == 0) {
+                return new int[0];
+            }
+        }
+
+        // Intersect smallest lists first so the working set shrinks quickly
+        Arrays.sort(matches, (a, b) -> Integer.compare(a.length, b.length));
+        int[] result = matches[0];
+        for (int i = 1; i < matches.length && result.length > 0; i++) {
+            result = intersect(result, matches[i]);
+        }
+        return result;
+    }
+
+    public synchronized List<Property> searchProperties(String query) {
+        return getAll(search(query));
+    }
+
+    public synchronized List<Property> getAll(int[] matches) {
+        List<Property> result = new ArrayList<>(matches.length);
+        for (int row : matches) {
+            Property property = rows.get(row);
+            if (property != null) {
+                result.add(property);
+            }
+        }
+        return result;
+    }
+
+    // Checks a single listing against already tokenized query terms without touching the postings
+    synchronized boolean matches(int row, String[] terms) {
+        if (rows.get(row) == null) {
+            return false;
+        }
+        String[] tokens = rowTokens.get(row);
+        for (String term : terms) {
+            boolean found = false;
+            for (String token : tokens) {
+                if (token.startsWith(term)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    synchronized int[] allRows() {
+        int[] result = new int[liveCount];
+        int count = 0;
+        for (int row = 0; row < rows.size(); row++) {
+            if (rows.get(row) != null) {
+                result[count++] = row;
+            }
+        }
+        return result;
+    }
+
+    private int[] prefixMatches(String prefix) {
+        NavigableMap<String, IntList> range =
+                postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        if (range.isEmpty()) {
+            return new int[0];
+        }
+        if (range.size() == 1) {
+            return range.firstEntry().getValue().toArray();
+        }
+
+        BitSet union = new BitSet(rows.size());
+        for (Map.Entry<String, IntList> entry : range.entrySet()) {
+            IntList list = entry.getValue();
+            for (int i = 0; i < list.size(); i++) {
+                union.set(list.get(i));
+            }
+        }
+        return union.stream().toArray();
+    }
+
+    // Upper bound on search(terms).length, from posting sizes alone; used to order query plans
+    synchronized int estimateMatches(String[] terms) {
+        int estimate = liveCount;
+        for (String term : terms) {
+            int termEstimate = 0;
+            for (IntList list : postings.subMap(term, true, term + Character.MAX_VALUE, false).values()) {
+                termEstimate += list.size();
+                if (termEstimate >= estimate) {
+                    break;
+                }
+            }
+            // Fuzzy matches are not worth estimating; assume the worst
+            if (termEstimate > 0) {
+                estimate = Math.min(estimate, termEstimate);
+            }
+        }
+        return estimate;
+    }
+
+    // True when some term would be matched approximately rather than by prefix
+    synchronized boolean needsFuzzyMatch(String[] terms) {
+        for (String term : terms) {
+            if (postings.subMap(term, true, term + Character.MAX_VALUE, false).isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int[] fuzzyMatches(String term) {
+        BitSet union = new BitSet(rows.size());
+        for (String similar : trigrams.similarTerms(term)) {
+            // Terms whose listings were all removed stay in the trigram index; skip them
+            IntList list = postings.get(similar);
+            if (list == null) {
+                continue;
+            }
+            for (int i = 0; i < list.size(); i++) {
+                union.set(list.get(i));
+            }
+        }
+        return union.stream().toArray();
+    }
+
+    static int[] intersect(int[] a, int[] b) {
+        int[] result = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, count = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                result[count++] = a[i];
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return count == result.length ? result : Arrays.copyOf(result, count);
+    }
+
+    private void indexFields(int row, Property property) {
+        String[][] fields = new String[FieldPostings.FIELD_COUNT][];
+        fields[FieldPostings.FIELD_TITLE] = tokenize(property.getTitle());
+        fields[FieldPostings.FIELD_LOCATION] = tokenize(property.getLocation());
+        fields[FieldPostings.FIELD_DESCRIPTION] = tokenize(property.getDescription());
+
+        // Term -> frequency per field, in first-seen order
+        Map<String, int[]> frequencies = new LinkedHashMap<>();
+        for (int field = 0; field < fields.length; field++) {
+            for (String token : fields[field]) {
+                int[] counts = frequencies.get(token);
+                if (counts == null) {
+                    counts = new int[FieldPostings.FIELD_COUNT];
+                    frequencies.put(token, counts);
+                }
+                counts[field]++;
+            }
+        }
+        for (Map.Entry<String, int[]> entry : frequencies.entrySet()) {
+            FieldPostings list = fieldPostings.get(entry.getKey());
+            if (list == null) {
+                list = new FieldPostings();
+                fieldPostings.put(entry.getKey(), list);
+            }
+            list.add(row, entry.getValue());
+        }
+        rowScoredTerms.set(row, frequencies.keySet().toArray(NO_TOKENS));
+
+        int needed = (row + 1) * FieldPostings.FIELD_COUNT;
+        if (needed > fieldLengths.length) {
+            fieldLengths = Arrays.copyOf(fieldLengths, Math.max(needed, fieldLengths.length * 2));
+        }
+        for (int field = 0; field < fields.length; field++) {
+            fieldLengths[row * FieldPostings.FIELD_COUNT + field] = fields[field].length;
+            totalFieldLengths[field] += fields[field].length;
+        }
+    }
+
+    // Statistics for Bm25Ranker; callers must hold this index's lock
+
+    NavigableMap<String, FieldPostings> scoredTerms(String prefix) {
+        return fieldPostings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    int fieldLength(int row, int field) {
+        return fieldLengths[row * FieldPostings.FIELD_COUNT + field];
+    }
+
+    float averageFieldLength(int field) {
+        return liveCount == 0 ? 0f : totalFieldLengths[field] / (float) liveCount;
+    }
+
+    private static String[] distinctTokens(Property property) {
+        String[] title = tokenize(property.getTitle());
+        String[] location = tokenize(property.getLocation());
+        List<String> tokens = new ArrayList<>(title.length + location.length);
+        for (String token : title) {
+            if (!tokens.contains(token)) tokens.add(token);
+        }
+        for (String token : location) {
+            if (!tokens.contains(token)) tokens.add(token);
+        }
+        return tokens.toArray(NO_TOKENS);
+    }
+
+    // Splits on anything that is not a letter or digit and lowercases each token
+    static String[] tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return NO_TOKENS;
+        }
+        List<String> tokens = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                current.append(Character.toLowerCase(c));
+            } else if (current.length() > 0) {
+                tokens.add(current.toString());
+                current.setLength(0);
+            }
+        }
+        if (current.length() > 0) {
+            tokens.add(current.toString());
+        }
+        return tokens.toArray(NO_TOKENS);
+    }
+}
@@ -0,0 +1,381 @@
+package com.example.realestateapp;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Turns a typed phrase into a {@link QueryPlan}. "3 bed under 10M in DHA"
+ * becomes bedrooms = 3, price at most PKR 10,000,000 and the text term "dha",
+ * and "2-3 beds" becomes bedrooms 2 to 3;
+ * "apartments for rent in Lahore" becomes type, purpose and city facets with
+ * no text left over. Price amounts understand K, M, lakh and crore suffixes and
+ * an optional currency. Compiled plans are cached by normalized query text.
+ */
+public class QueryCompiler {
+
+    private static final int MAX_CACHED_PLANS = 64;
+
+    // Number, optional "+" (at least) and an optional suffix glued on, e.g. "10m", "1.5cr", "3+", "2br"
+    private static final Pattern NUMBER = Pattern.compile("(\\d+(?:\\.\\d+)?)(\\+?)([a-z]*)");
+
+    // Shared with Price.parse, so typed bounds and listing prices use the same scale
+    private static final Map<String, Long> MULTIPLIERS = Price.MULTIPLIERS;
+    private static final Map<String, String> CURRENCIES = new HashMap<>();
+    private static final Map<String, String> TYPES = new HashMap<>();
+    private static final Map<String, String> PURPOSES = new HashMap<>();
+    private static final Set<String> BEDROOM_WORDS = words("bed", "beds", "bedroom", "bedrooms", "br", "bhk");
+    private static final Set<String> AT_MOST_WORDS = words("under", "below", "upto", "up", "max", "maximum",
+            "within", "less", "cheaper", "budget");
+    private static final Set<String> AT_LEAST_WORDS = words("over", "above", "min", "minimum", "more", "least",
+            "atleast", "from", "between");
+    private static final Set<String> RANGE_WORDS = words("to", "and");
+    // Connecting words that carry no meaning once the rest of the phrase is understood
+    private static final Set<String> FILLER_WORDS = words("in", "at", "near", "with", "a", "an", "the", "for",
+            "of", "and", "to", "or", "on", "than", "per", "property", "properties");
+
+    static {
+        CURRENCIES.put("pkr", "PKR");
+        CURRENCIES.put("rs", "PKR");
+        CURRENCIES.put("rupees", "PKR");
+        CURRENCIES.put("$", "USD");
+        CURRENCIES.put("usd", "USD");
+        CURRENCIES.put("dollars", "USD");
+        CURRENCIES.put("aed", "AED");
+        CURRENCIES.put("dirham", "AED");
+        CURRENCIES.put("dirhams", "AED");
+        CURRENCIES.put("eur", "EUR");
+        CURRENCIES.put("euro", "EUR");
+        CURRENCIES.put("euros", "EUR");
+        CURRENCIES.put("gbp", "GBP");
+        CURRENCIES.put("pounds", "GBP");
+        CURRENCIES.put("sar", "SAR");
+        CURRENCIES.put("riyal", "SAR");
+
+        for (String word : new String[]{"house", "houses", "home", "homes", "villa", "villas", "bungalow",
+                "bungalows", "townhouse", "townhouses"}) {
+            TYPES.put(word, ListingClassifier.TYPE_HOUSE);
+        }
+        for (String word : new String[]{"apartment", "apartments", "flat", "flats", "penthouse", "penthouses",
+                "studio", "studios"}) {
+            TYPES.put(word, ListingClassifier.TYPE_APARTMENT);
+        }
+        for (String word : new String[]{"commercial", "plaza", "plazas", "shop", "shops", "office", "offices",
+                "warehouse", "warehouses"}) {
+            TYPES.put(word, ListingClassifier.TYPE_COMMERCIAL);
+        }
+        // Rents are quoted per period, so "45k/month" implies renting
+        for (String word : new String[]{"rent", "rental", "rentals", "lease", "month", "monthly", "year", "yearly"}) {
+            PURPOSES.put(word, ListingClassifier.PURPOSE_RENT);
+        }
+        for (String word : new String[]{"sale", "buy", "purchase"}) {
+            PURPOSES.put(word, ListingClassifier.PURPOSE_SALE);
+        }
+    }
+
+    private final Map<String, QueryPlan> cache =
+            new LinkedHashMap<String, QueryPlan>(MAX_CACHED_PLANS, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, QueryPlan> eldest) {
+                    return size() > MAX_CACHED_PLANS;
+                }
+            };
+
+    public synchronized QueryPlan compile(String query) {
+        List<String> tokens = lex(query);
+        String key = String.join(" ", tokens);
+        QueryPlan plan = cache.get(key);
+        if (plan == null) {
+            plan = new Parser(tokens).parse();
+            cache.put(key, plan);
+        }
+        return plan;
+    }
+
+    // Lowercase words and numbers; commas inside numbers are dropped, "$" stands alone and
+    // a hyphen between numbers reads as "to"
+    static List<String> lex(String query) {
+        List<String> tokens = new ArrayList<>();
+        if (query == null) {
+            return tokens;
+        }
+        String text = query.toLowerCase(Locale.ROOT);
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            boolean digitsAround = i > 0 && i + 1 < text.length()
+                    && Character.isDigit(text.charAt(i - 1)) && Character.isDigit(text.charAt(i + 1));
+            if (c == ',' && digitsAround) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c) || (c == '.' && digitsAround) || (c == '+' && token.length() > 0)) {
+                token.append(c);
+                continue;
+            }
+            addToken(tokens, token);
+            if (c == '$') {
+                tokens.add("$");
+            } else if (c == '-' && digitsAround) {
+                tokens.add("to");
+            }
+        }
+        addToken(tokens, token);
+        return tokens;
+    }
+
+    private static void addToken(List<String> tokens, StringBuilder token) {
+        if (token.length() > 0) {
+            tokens.add(token.toString());
+            token.setLength(0);
+        }
+    }
+
+    private static Set<String> words(String... words) {
+        Set<String> set = new TreeSet<>();
+        for (String word : words) {
+            set.add(word);
+        }
+        return set;
+    }
+
+    // A number with whatever multiplier, currency or bedroom word came attached to it
+    private static final class Amount {
+        double value;
+        boolean atLeast;
+        long multiplier = 1;
+        boolean hasMultiplier;
+        String currency;
+        boolean bedrooms;
+        // Index of the first token after the amount
+        int end;
+
+        boolean looksLikePrice() {
+            return hasMultiplier || currency != null;
+        }
+
+        Price toPrice() {
+            long minor = Math.round(value * multiplier * Price.MINOR_UNITS);
+            return new Price(currency != null ? currency : ExchangeRates.BASE_CURRENCY, minor);
+        }
+    }
+
+    private static final class Parser {
+
+        private static final int NO_BOUND = 0;
+        private static final int AT_MOST = 1;
+        private static final int AT_LEAST = 2;
+
+        private final List<String> tokens;
+        private final List<String> textTerms = new ArrayList<>();
+        private final List<String> rankTerms = new ArrayList<>();
+        private final Map<String, Set<String>> facets = new TreeMap<>();
+        private int minBedrooms = QueryPlan.NO_BEDROOM_LIMIT;
+        private int maxBedrooms = QueryPlan.NO_BEDROOM_LIMIT;
+        private Price minPrice;
+        private Price maxPrice;
+
+        Parser(List<String> tokens) {
+            this.tokens = tokens;
+        }
+
+        QueryPlan parse() {
+            int bound = NO_BOUND;
+            int i = 0;
+            while (i < tokens.size()) {
+                String token = tokens.get(i);
+
+                // Two-word cities first ("abu dhabi")
+                if (i + 1 < tokens.size() && ListingClassifier.isKnownCity(token + " " + tokens.get(i + 1))) {
+                    addFacet(FacetIndex.CITY, token + " " + tokens.get(i + 1));
+                    i += 2;
+                    continue;
+                }
+                if (ListingClassifier.isKnownCity(token)) {
+                    addFacet(FacetIndex.CITY, token);
+                    bound = NO_BOUND;
+                    i++;
+                    continue;
+                }
+
+                Amount amount = readAmount(i);
+                if (amount != null) {
+                    int bedroomRangeEnd = readBedroomRange(amount);
+                    if (bedroomRangeEnd >= 0) {
+                        bound = NO_BOUND;
+                        i = bedroomRangeEnd;
+                        continue;
+                    }
+                    if (amount.bedrooms) {
+                        int count = (int) amount.value;
+                        minBedrooms = bound == AT_MOST ? QueryPlan.NO_BEDROOM_LIMIT : count;
+                        maxBedrooms = amount.atLeast || bound == AT_LEAST ? QueryPlan.NO_BEDROOM_LIMIT : count;
+                        bound = NO_BOUND;
+                        i = amount.end;
+                        continue;
+                    }
+                    int rangeEnd = readRange(amount, bound);
+                    if (rangeEnd >= 0) {
+                        bound = NO_BOUND;
+                        i = rangeEnd;
+                        continue;
+                    }
+                    if (amount.looksLikePrice() || bound != NO_BOUND) {
+                        // A bare amount such as "10M" reads as a budget
+                        if (bound == AT_LEAST || amount.atLeast) {
+                            minPrice = amount.toPrice();
+                        } else {
+                            maxPrice = amount.toPrice();
+                        }
+                        bound = NO_BOUND;
+                        i = amount.end;
+                        continue;
+                    }
+                }
+
+                if (AT_MOST_WORDS.contains(token)) {
+                    bound = AT_MOST;
+                } else if (AT_LEAST_WORDS.contains(token)) {
+                    bound = AT_LEAST;
+                } else if (TYPES.containsKey(token)) {
+                    addFacet(FacetIndex.TYPE, TYPES.get(token));
+                    addTerms(rankTerms, token);
+                    bound = NO_BOUND;
+                } else if (PURPOSES.containsKey(token)) {
+                    addFacet(FacetIndex.PURPOSE, PURPOSES.get(token));
+                    bound = NO_BOUND;
+                } else if (!FILLER_WORDS.contains(token) && !BEDROOM_WORDS.contains(token)
+                        && !CURRENCIES.containsKey(token)) {
+                    addTerms(textTerms, token);
+                    addTerms(rankTerms, token);
+                    // "under" only binds to a following amount, not to "under DHA 6"
+                    bound = NO_BOUND;
+                }
+                i++;
+            }
+            return new QueryPlan(String.join(" ", textTerms), String.join(" ", rankTerms), facets,
+                    minBedrooms, maxBedrooms, minPrice, maxPrice);
+        }
+
+        private static void addTerms(List<String> terms, String token) {
+            for (String term : PropertySearchIndex.tokenize(token)) {
+                terms.add(term);
+            }
+        }
+
+        // "2-3 beds", "between 2 and 4 bedrooms": sets both bedroom bounds and returns
+        // the index after the bedroom word, or -1 when low does not start such a range
+        private int readBedroomRange(Amount low) {
+            if (low.bedrooms || low.atLeast || low.looksLikePrice()) {
+                return -1;
+            }
+            int next = low.end;
+            if (next >= tokens.size() || !RANGE_WORDS.contains(tokens.get(next))) {
+                return -1;
+            }
+            Amount high = readAmount(next + 1);
+            if (high == null || !high.bedrooms || high.atLeast) {
+                return -1;
+            }
+            minBedrooms = (int) Math.min(low.value, high.value);
+            maxBedrooms = (int) Math.max(low.value, high.value);
+            return high.end;
+        }
+
+        // "10 to 20 lakh", "between 5M and 8M", "10m-20m": sets both bounds and
+        // returns the index after the range, or -1 when low does not start one
+        private int readRange(Amount low, int bound) {
+            if (bound == AT_MOST) {
+                return -1;
+            }
+            int next = low.end;
+            boolean connector = next < tokens.size() && RANGE_WORDS.contains(tokens.get(next));
+            Amount high = readAmount(connector ? next + 1 : next);
+            if (high == null || high.bedrooms || (!connector && !(low.hasMultiplier && high.hasMultiplier))) {
+                return -1;
+            }
+            if (!low.looksLikePrice() && !high.looksLikePrice() && bound == NO_BOUND) {
+                return -1;
+            }
+            // "10 to 20 lakh": the unit written once applies to both ends, unless the
+            // low end is already written out in full, as in "800,000 to 1.2m"
+            if (!low.hasMultiplier && high.hasMultiplier && low.value <= high.value) {
+                low.multiplier = high.multiplier;
+                low.hasMultiplier = true;
+            }
+            if (low.currency == null) {
+                low.currency = high.currency;
+            }
+            if (high.currency == null) {
+                high.currency = low.currency;
+            }
+            minPrice = low.toPrice();
+            maxPrice = high.toPrice();
+            return high.end;
+        }
+
+        // Reads "[currency] number[suffix] [multiplier] [currency|bedroom word]" starting at index, or null
+        private Amount readAmount(int index) {
+            Amount amount = new Amount();
+            int i = index;
+            if (i < tokens.size() && CURRENCIES.containsKey(tokens.get(i))) {
+                amount.currency = CURRENCIES.get(tokens.get(i));
+                i++;
+            }
+            if (i >= tokens.size()) {
+                return null;
+            }
+            Matcher matcher = NUMBER.matcher(tokens.get(i));
+            if (!matcher.matches()) {
+                return null;
+            }
+            amount.value = Double.parseDouble(matcher.group(1));
+            amount.atLeast = !matcher.group(2).isEmpty();
+            String suffix = matcher.group(3);
+            i++;
+
+            if (suffix.isEmpty() && i < tokens.size()) {
+                suffix = tokens.get(i);
+                if (MULTIPLIERS.containsKey(suffix) || BEDROOM_WORDS.contains(suffix)) {
+                    i++;
+                } else {
+                    suffix = "";
+                }
+            }
+            if (BEDROOM_WORDS.contains(suffix)) {
+                amount.bedrooms = amount.currency == null;
+                amount.end = i;
+                return amount.bedrooms ? amount : null;
+            }
+            if (MULTIPLIERS.containsKey(suffix)) {
+                amount.multiplier = MULTIPLIERS.get(suffix);
+                amount.hasMultiplier = true;
+            } else if (!suffix.isEmpty()) {
+                // Something like "7th" or "10marla"; not an amount
+                return null;
+            }
+            if (amount.currency == null && i < tokens.size() && CURRENCIES.containsKey(tokens.get(i))) {
+                amount.currency = CURRENCIES.get(tokens.get(i));
+                i++;
+            }
+            amount.end = i;
+            return amount;
+        }
+
+        private void addFacet(String facet, String value) {
+            Set<String> values = facets.get(facet);
+            if (values == null) {
+                values = new TreeSet<>();
+                facets.put(facet, values);
+            }
+            values.add(value);
+        }
+    }
+}
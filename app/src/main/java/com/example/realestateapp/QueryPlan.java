@@ -0,0 +1,82 @@
+package com.example.realestateapp;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * What {@link QueryCompiler} understood from a typed query such as
+ * "3 bed under 10M in DHA": the facet values, bedroom and price bounds it
+ * recognized, plus the leftover words that still go to the text index and
+ * the words results are ranked by.
+ * Immutable, so compiled plans can be cached and shared between threads.
+ */
+public final class QueryPlan {
+
+    public static final int NO_BEDROOM_LIMIT = -1;
+
+    private final String textQuery;
+    private final String rankQuery;
+    private final Map<String, Set<String>> facets;
+    private final int minBedrooms;
+    private final int maxBedrooms;
+    // Bounds are kept in the currency the user typed and converted when the plan runs
+    private final Price minPrice;
+    private final Price maxPrice;
+
+    QueryPlan(String textQuery, String rankQuery, Map<String, Set<String>> facets, int minBedrooms,
+              int maxBedrooms, Price minPrice, Price maxPrice) {
+        this.textQuery = textQuery;
+        this.rankQuery = rankQuery;
+        this.facets = Collections.unmodifiableMap(facets);
+        this.minBedrooms = minBedrooms;
+        this.maxBedrooms = maxBedrooms;
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+    }
+
+    // Words that were not recognized as a filter, space separated; empty when none are left
+    public String getTextQuery() {
+        return textQuery;
+    }
+
+    // The text query plus the type words, so "house" still ranks listings that say "house"
+    // first while the type facet does the narrowing; empty when there is nothing to rank by
+    public String getRankQuery() {
+        return rankQuery;
+    }
+
+    // Facet -> accepted values; city values are lowercase and matched case-insensitively
+    public Map<String, Set<String>> getFacets() {
+        return facets;
+    }
+
+    public int getMinBedrooms() {
+        return minBedrooms;
+    }
+
+    public int getMaxBedrooms() {
+        return maxBedrooms;
+    }
+
+    public boolean hasBedrooms() {
+        return minBedrooms != NO_BEDROOM_LIMIT || maxBedrooms != NO_BEDROOM_LIMIT;
+    }
+
+    // Null when the query sets no lower bound
+    public Price getMinPrice() {
+        return minPrice;
+    }
+
+    // Null when the query sets no upper bound
+    public Price getMaxPrice() {
+        return maxPrice;
+    }
+
+    @Override
+    public String toString() {
+        return "text=\"" + textQuery + "\" rank=\"" + rankQuery + "\" facets=" + facets
+                + " bedrooms=[" + minBedrooms + ", " + maxBedrooms + "]"
+                + " price=[" + minPrice + ", " + maxPrice + "]";
+    }
+}
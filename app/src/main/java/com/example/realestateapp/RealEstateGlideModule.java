@@ -0,0 +1,29 @@
+package com.example.realestateapp;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.Registry;
+import com.bumptech.glide.annotation.GlideModule;
+import com.bumptech.glide.module.AppGlideModule;
+
+import java.io.InputStream;
+
+// The app's Glide setup; the annotation processor picks this up at build time
+@GlideModule
+public final class RealEstateGlideModule extends AppGlideModule {
+
+    @Override
+    public void registerComponents(@NonNull Context context, @NonNull Glide glide, @NonNull Registry registry) {
+        // Listing photos are fetched at the size of the view that shows them
+        registry.prepend(ListingImage.class, InputStream.class, new ListingImageLoader.Factory());
+    }
+
+    // Nothing is declared in the manifest; skip parsing it on startup
+    @Override
+    public boolean isManifestParsingEnabled() {
+        return false;
+    }
+}
@@ -0,0 +1,387 @@
+package com.example.realestateapp;
+
+import java.util.Arrays;
+
+/**
+ * Compressed bitmap of catalog row ids. Row ids are split into 64K chunks by
+ * their high 16 bits; a sparse chunk is stored as a sorted char array and a
+ * dense one as a fixed 8 KB bit array, so rare facet values stay small while
+ * common ones still AND/OR a word at a time.
+ */
+final class RowBitmap {
+
+    // A chunk switches from array to bits once it holds more than this many rows
+    private static final int ARRAY_LIMIT = 4096;
+    private static final int WORDS_PER_CHUNK = 1024;
+
+    private char[] keys = new char[0];
+    private Object[] chunks = new Object[0];
+    private int[] cardinalities = new int[0];
+    private int chunkCount;
+
+    int cardinality() {
+        int total = 0;
+        for (int i = 0; i < chunkCount; i++) {
+            total += cardinalities[i];
+        }
+        return total;
+    }
+
+    boolean isEmpty() {
+        return chunkCount == 0;
+    }
+
+    boolean contains(int row) {
+        int index = indexOf((char) (row >>> 16));
+        if (index < 0) {
+            return false;
+        }
+        char low = (char) row;
+        Object chunk = chunks[index];
+        if (chunk instanceof long[]) {
+            return (((long[]) chunk)[low >>> 6] & (1L << low)) != 0;
+        }
+        return Arrays.binarySearch((char[]) chunk, 0, cardinalities[index], low) >= 0;
+    }
+
+    void add(int row) {
+        char key = (char) (row >>> 16);
+        char low = (char) row;
+        int index = indexOf(key);
+        if (index < 0) {
+            index = -index - 1;
+            insertChunk(index, key, new char[4], 0);
+        }
+
+        Object chunk = chunks[index];
+        int count = cardinalities[index];
+        if (chunk instanceof long[]) {
+            long[] words = (long[]) chunk;
+            long bit = 1L << low;
+            if ((words[low >>> 6] & bit) == 0) {
+                words[low >>> 6] |= bit;
+                cardinalities[index] = count + 1;
+            }
+            return;
+        }
+
+        char[] values = (char[]) chunk;
+        int position = Arrays.binarySearch(values, 0, count, low);
+        if (position >= 0) {
+            return;
+        }
+        position = -position - 1;
+        if (count == ARRAY_LIMIT) {
+            long[] words = toWords(values, count);
+            words[low >>> 6] |= 1L << low;
+            chunks[index] = words;
+            cardinalities[index] = count + 1;
+            return;
+        }
+        if (count == values.length) {
+            values = Arrays.copyOf(values, Math.min(values.length * 2, ARRAY_LIMIT));
+            chunks[index] = values;
+        }
+        System.arraycopy(values, position, values, position + 1, count - position);
+        values[position] = low;
+        cardinalities[index] = count + 1;
+    }
+
+    void remove(int row) {
+        int index = indexOf((char) (row >>> 16));
+        if (index < 0) {
+            return;
+        }
+        char low = (char) row;
+        Object chunk = chunks[index];
+        int count = cardinalities[index];
+        if (chunk instanceof long[]) {
+            long[] words = (long[]) chunk;
+            long bit = 1L << low;
+            if ((words[low >>> 6] & bit) == 0) {
+                return;
+            }
+            words[low >>> 6] &= ~bit;
+            count--;
+            if (count <= ARRAY_LIMIT) {
+                chunks[index] = toValues(words, count);
+            }
+        } else {
+            char[] values = (char[]) chunk;
+            int position = Arrays.binarySearch(values, 0, count, low);
+            if (position < 0) {
+                return;
+            }
+            System.arraycopy(values, position + 1, values, position, count - position - 1);
+            count--;
+        }
+
+        if (count == 0) {
+            removeChunk(index);
+        } else {
+            cardinalities[index] = count;
+        }
+    }
+
+    RowBitmap and(RowBitmap other) {
+        RowBitmap result = new RowBitmap();
+        int i = 0, j = 0;
+        while (i < chunkCount && j < other.chunkCount) {
+            if (keys[i] == other.keys[j]) {
+                result.appendChunk(keys[i], andChunks(chunks[i], cardinalities[i],
+                        other.chunks[j], other.cardinalities[j]));
+                i++;
+                j++;
+            } else if (keys[i] < other.keys[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return result;
+    }
+
+    RowBitmap or(RowBitmap other) {
+        RowBitmap result = new RowBitmap();
+        int i = 0, j = 0;
+        while (i < chunkCount || j < other.chunkCount) {
+            if (j >= other.chunkCount || (i < chunkCount && keys[i] < other.keys[j])) {
+                result.appendChunk(keys[i], copyChunk(chunks[i], cardinalities[i]));
+                i++;
+            } else if (i >= chunkCount || other.keys[j] < keys[i]) {
+                result.appendChunk(other.keys[j], copyChunk(other.chunks[j], other.cardinalities[j]));
+                j++;
+            } else {
+                result.appendChunk(keys[i], orChunks(chunks[i], cardinalities[i],
+                        other.chunks[j], other.cardinalities[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    // Cardinality of the intersection without materializing it
+    int andCardinality(RowBitmap other) {
+        int total = 0;
+        int i = 0, j = 0;
+        while (i < chunkCount && j < other.chunkCount) {
+            if (keys[i] == other.keys[j]) {
+                Object a = chunks[i];
+                Object b = other.chunks[j];
+                if (a instanceof long[] && b instanceof long[]) {
+                    long[] x = (long[]) a;
+                    long[] y = (long[]) b;
+                    for (int w = 0; w < WORDS_PER_CHUNK; w++) {
+                        total += Long.bitCount(x[w] & y[w]);
+                    }
+                } else {
+                    total += chunkCardinality(andChunks(a, cardinalities[i], b, other.cardinalities[j]));
+                }
+                i++;
+                j++;
+            } else if (keys[i] < other.keys[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return total;
+    }
+
+    // Rows may come in any order, though ascending input avoids shifting
+    static RowBitmap of(int[] rows) {
+        RowBitmap result = new RowBitmap();
+        for (int row : rows) {
+            result.add(row);
+        }
+        return result;
+    }
+
+    // Ascending row ids
+    int[] toArray() {
+        int[] result = new int[cardinality()];
+        int count = 0;
+        for (int i = 0; i < chunkCount; i++) {
+            int base = keys[i] << 16;
+            Object chunk = chunks[i];
+            if (chunk instanceof long[]) {
+                long[] words = (long[]) chunk;
+                for (int w = 0; w < WORDS_PER_CHUNK; w++) {
+                    long word = words[w];
+                    while (word != 0) {
+                        result[count++] = base | (w << 6) | Long.numberOfTrailingZeros(word);
+                        word &= word - 1;
+                    }
+                }
+            } else {
+                char[] values = (char[]) chunk;
+                for (int v = 0; v < cardinalities[i]; v++) {
+                    result[count++] = base | values[v];
+                }
+            }
+        }
+        return result;
+    }
+
+    private int indexOf(char key) {
+        return Arrays.binarySearch(keys, 0, chunkCount, key);
+    }
+
+    private void appendChunk(char key, Object chunk) {
+        // Chunks built by and/or/copy are exactly sized, so the length is the cardinality
+        int count = chunkCardinality(chunk);
+        if (count == 0) {
+            return;
+        }
+        insertChunk(chunkCount, key, chunk, count);
+    }
+
+    private void insertChunk(int index, char key, Object chunk, int count) {
+        if (chunkCount == keys.length) {
+            int capacity = Math.max(4, chunkCount * 2);
+            keys = Arrays.copyOf(keys, capacity);
+            chunks = Arrays.copyOf(chunks, capacity);
+            cardinalities = Arrays.copyOf(cardinalities, capacity);
+        }
+        System.arraycopy(keys, index, keys, index + 1, chunkCount - index);
+        System.arraycopy(chunks, index, chunks, index + 1, chunkCount - index);
+        System.arraycopy(cardinalities, index, cardinalities, index + 1, chunkCount - index);
+        keys[index] = key;
+        chunks[index] = chunk;
+        cardinalities[index] = count;
+        chunkCount++;
+    }
+
+    private void removeChunk(int index) {
+        System.arraycopy(keys, index + 1, keys, index, chunkCount - index - 1);
+        System.arraycopy(chunks, index + 1, chunks, index, chunkCount - index - 1);
+        System.arraycopy(cardinalities, index + 1, cardinalities, index, chunkCount - index - 1);
+        chunkCount--;
+        chunks[chunkCount] = null;
+    }
+
+    private static Object andChunks(Object a, int countA, Object b, int countB) {
+        if (a instanceof long[] && b instanceof long[]) {
+            long[] x = (long[]) a;
+            long[] y = (long[]) b;
+            long[] words = new long[WORDS_PER_CHUNK];
+            int count = 0;
+            for (int w = 0; w < WORDS_PER_CHUNK; w++) {
+                words[w] = x[w] & y[w];
+                count += Long.bitCount(words[w]);
+            }
+            return count > ARRAY_LIMIT ? words : toValues(words, count);
+        }
+        if (a instanceof long[]) {
+            return filterValues((char[]) b, countB, (long[]) a);
+        }
+        if (b instanceof long[]) {
+            return filterValues((char[]) a, countA, (long[]) b);
+        }
+
+        char[] x = (char[]) a;
+        char[] y = (char[]) b;
+        char[] result = new char[Math.min(countA, countB)];
+        int i = 0, j = 0, count = 0;
+        while (i < countA && j < countB) {
+            if (x[i] == y[j]) {
+                result[count++] = x[i];
+                i++;
+                j++;
+            } else if (x[i] < y[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private static Object orChunks(Object a, int countA, Object b, int countB) {
+        if (a instanceof char[] && b instanceof char[] && countA + countB <= ARRAY_LIMIT) {
+            char[] x = (char[]) a;
+            char[] y = (char[]) b;
+            char[] result = new char[countA + countB];
+            int i = 0, j = 0, count = 0;
+            while (i < countA || j < countB) {
+                if (j >= countB || (i < countA && x[i] < y[j])) {
+                    result[count++] = x[i++];
+                } else if (i >= countA || y[j] < x[i]) {
+                    result[count++] = y[j++];
+                } else {
+                    result[count++] = x[i];
+                    i++;
+                    j++;
+                }
+            }
+            return Arrays.copyOf(result, count);
+        }
+
+        long[] words = a instanceof long[] ? ((long[]) a).clone() : toWords((char[]) a, countA);
+        if (b instanceof long[]) {
+            long[] y = (long[]) b;
+            for (int w = 0; w < WORDS_PER_CHUNK; w++) {
+                words[w] |= y[w];
+            }
+        } else {
+            char[] y = (char[]) b;
+            for (int v = 0; v < countB; v++) {
+                words[y[v] >>> 6] |= 1L << y[v];
+            }
+        }
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count > ARRAY_LIMIT ? words : toValues(words, count);
+    }
+
+    private static Object copyChunk(Object chunk, int count) {
+        return chunk instanceof long[] ? ((long[]) chunk).clone() : Arrays.copyOf((char[]) chunk, count);
+    }
+
+    private static char[] filterValues(char[] values, int count, long[] words) {
+        char[] result = new char[count];
+        int size = 0;
+        for (int v = 0; v < count; v++) {
+            char low = values[v];
+            if ((words[low >>> 6] & (1L << low)) != 0) {
+                result[size++] = low;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private static int chunkCardinality(Object chunk) {
+        if (chunk instanceof char[]) {
+            return ((char[]) chunk).length;
+        }
+        int count = 0;
+        for (long word : (long[]) chunk) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    private static long[] toWords(char[] values, int count) {
+        long[] words = new long[WORDS_PER_CHUNK];
+        for (int v = 0; v < count; v++) {
+            words[values[v] >>> 6] |= 1L << values[v];
+        }
+        return words;
+    }
+
+    private static char[] toValues(long[] words, int count) {
+        char[] values = new char[count];
+        int size = 0;
+        for (int w = 0; w < WORDS_PER_CHUNK; w++) {
+            long word = words[w];
+            while (word != 0) {
+                values[size++] = (char) ((w << 6) | Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.realestateapp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+// Sample listings seeded into the shared catalog until real data is available
+final class SampleListings {
+
+    private SampleListings() {
+    }
+
+    static void seed(PropertyCatalog catalog) {
+        // Recommended on the dashboard, which shows the newest listings first
+        catalog.add(new PropertyCatalog.Listing("Modern Downtown Apartment", "PKR 9,500,000", "Islamabad, F-7 Markaz",
+                "https://images.unsplash.com/photo-1540518614846-7eded433c457?ixlib=rb-1.2.1&auto=format&fit=crop&w=500&q=60")
+                .listedAt(1718236800000L));
+        catalog.add(new PropertyCatalog.Listing("Luxury Villa with Pool", "PKR 25,000,000", "DHA Phase 5, Lahore",
+                "https://images.unsplash.com/photo-1564013799919-ab600027ffc6?ixlib=rb-1.2.1&auto=format&fit=crop&w=500&q=60")
+                .listedAt(1718150400000L));
+        catalog.add(new PropertyCatalog.Listing("Cozy Family Home", "PKR 7,000,000", "Gulberg, Lahore",
+                "https://images.unsplash.com/photo-1576941089067-2de3c901e126?ixlib=rb-1.2.1&auto=format&fit=crop&w=500&q=60")
+                .listedAt(1718064000000L));
+        catalog.add(new PropertyCatalog.Listing("Bahria Town Penthouse", "PKR 15,500,000", "Bahria Town, Karachi",
+                "https://images.unsplash.com/photo-1493809842364-78817add7ffb?ixlib=rb-1.2.1&auto=format&fit=crop&w=500&q=60")
+                .listedAt(1717977600000L));
+
+        // Rentals, listed with a monthly price
+        catalog.add(new PropertyCatalog.Listing("Furnished Apartment", "PKR 45,000/month", "DHA Phase 2, Karachi",
+                "https://images.unsplash.com/photo-1522708323590-d24dbb6b0267?ixlib=rb-1.2.1&auto=format&fit=crop&w=500&q=60"));
+        catalog.add(new PropertyCatalog.Listing("2 Bedroom Flat", "PKR 35,000/month", "Bahria Town, Rawalpindi",
+                "https://images.unsplash.com/photo-1560448204-603b3fc33ddc?ixlib=rb-1.2.1&auto=format&fit=crop&w=500&q=60"));
+        catalog.add(new PropertyCatalog.Listing("Modern Studio Apartment", "PKR 25,000/month", "Johar Town, Lahore",
+                "https://images.unsplash.com/photo-1502672260266-1c1ef2d93688?ixlib=rb-1.2.1&auto=format&fit=crop&w=500&q=60"));
+
+        catalog.add(new PropertyCatalog.Listing("Luxury Apartment in DHA", "PKR 15,000,000", "DHA Phase 6, Karachi", "https://via.placeholder.com/300x200"));
+        catalog.add(new PropertyCatalog.Listing("Modern House in Bahria Town", "PKR 25,000,000", "Bahria Town, Lahore", "https://via.placeholder.com/300x200"));
+        catalog.add(new PropertyCatalog.Listing("Commercial Plaza", "PKR 50,000,000", "Blue Area, Islamabad", "https://via.placeholder.com/300x200"));
+
+        // Listings shown on the map
+        catalog.add(new PropertyCatalog.Listing("Luxury Apartment", "$500,000", "123 Main St", null)
+                .coordinates(40.7128, -74.0060).type("Apartment").city("New York").area("City Center")
+                .description("3 bed, 2 bath"));
+        catalog.add(new PropertyCatalog.Listing("Family House", "$750,000", "456 Oak Ave", null)
+                .coordinates(40.7228, -74.0160).type("House").city("New York").area("Suburbs")
+                .description("4 bed, 3 bath"));
+        catalog.add(new PropertyCatalog.Listing("Modern Villa", "$1,200,000", "789 Beach Rd", null)
+                .coordinates(40.7328, -74.0260).type("Villa").city("New York").area("Coastal Area")
+                .description("5 bed, 4 bath"));
+        catalog.add(new PropertyCatalog.Listing("Studio Apartment", "$250,000", "321 Downtown Ave", null)
+                .coordinates(40.7028, -74.0360).type("Apartment").city("New York").area("City Center")
+                .description("1 bed, 1 bath"));
+        catalog.add(new PropertyCatalog.Listing("Countryside House", "$450,000", "159 Rural Lane", null)
+                .coordinates(40.7428, -73.9960).type("House").city("New York").area("Countryside")
+                .description("3 bed, 2 bath"));
+
+        // Stand-ins for the saved and recently viewed screens, seeded with the rest so
+        // the read-only snapshot has them too
+        for (PropertyCatalog.Listing listing : savedPlaceholders()) {
+            catalog.add(listing);
+        }
+        for (PropertyCatalog.Listing listing : viewedPlaceholders()) {
+            catalog.add(listing);
+        }
+    }
+
+    // Shown on the saved screens until something has been saved
+    static CatalogRepository.Query placeholderSaved() {
+        return CatalogRepository.byIds(ids(savedPlaceholders()));
+    }
+
+    // Shown on the recently viewed screen until something has been viewed
+    static CatalogRepository.Query placeholderViewed() {
+        return CatalogRepository.byIds(ids(viewedPlaceholders()));
+    }
+
+    private static PropertyCatalog.Listing[] savedPlaceholders() {
+        return new PropertyCatalog.Listing[]{
+                new PropertyCatalog.Listing("Luxury Villa", "PKR 50,000,000", "DHA Phase 6, Karachi",
+                        "https://via.placeholder.com/300x200"),
+                new PropertyCatalog.Listing("Modern Apartment", "PKR 15,000,000", "Gulberg, Lahore",
+                        "https://via.placeholder.com/300x200")
+        };
+    }
+
+    private static PropertyCatalog.Listing[] viewedPlaceholders() {
+        return new PropertyCatalog.Listing[]{
+                new PropertyCatalog.Listing("Modern Apartment in F-7", "PKR 12,500,000",
+                        "F-7 Markaz, Islamabad", "https://via.placeholder.com/300x200"),
+                new PropertyCatalog.Listing("Luxury Villa in DHA", "PKR 35,000,000", "DHA Phase 5, Lahore",
+                        "https://via.placeholder.com/300x200"),
+                new PropertyCatalog.Listing("Commercial Plaza for Sale", "PKR 85,000,000",
+                        "Blue Area, Islamabad", "https://via.placeholder.com/300x200")
+        };
+    }
+
+    private static long[] ids(PropertyCatalog.Listing[] listings) {
+        long[] ids = new long[listings.length];
+        for (int i = 0; i < listings.length; i++) {
+            ids[i] = PropertyCatalog.stableId(listings[i]);
+        }
+        return ids;
+    }
+
+    // Placeholder detail records for the seeded listings, which come without any
+    static List<ListingDetail> details(PropertyCatalog catalog) {
+        List<String> amenities = Arrays.asList("3 Bedrooms", "2 Bathrooms", "1 Kitchen", "1 Living Room",
+                "Parking Available", "24/7 Security");
+        String description = "This beautiful property features modern amenities including "
+                + "a spacious living area, well-equipped kitchen, and stunning views. "
+                + "Located in a prime area with easy access to shopping centers, schools, "
+                + "and public transportation.";
+        List<ListingDetail> details = new ArrayList<>();
+        for (int row : catalog.rowsMatching(null, null, false)) {
+            String own = catalog.description(row);
+            List<String> none = Collections.emptyList();
+            details.add(own != null
+                    ? new ListingDetail(catalog.id(row), own, none, none)
+                    : new ListingDetail(catalog.id(row), description, amenities, none));
+        }
+        return details;
+    }
+}
@@ -11,14 +11,13 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import com.google.android.material.appbar.MaterialToolbar;
 import java.util.ArrayList;
-import java.util.List;
 
 public class SavedFragment extends Fragment {
 
     private MaterialToolbar toolbar;
     private RecyclerView savedPropertiesRecyclerView;
     private PropertyAdapter propertyAdapter;
-    private List<Property> savedProperties;
+    private CatalogRepository.Subscription subscription;
 
     @Nullable
     @Override
@@ -40,14 +39,31 @@ public class SavedFragment extends Fragment {
         }
 
         // Initialize RecyclerView
-        savedProperties = new ArrayList<>();
-        // Add some dummy data (replace with actual saved properties from database)
-        savedProperties.add(new Property("Luxury Villa", "PKR 50,000,000", "DHA Phase 6, Karachi", "https://via.placeholder.com/300x200"));
-        savedProperties.add(new Property("Modern Apartment", "PKR 15,000,000", "Gulberg, Lahore", "https://via.placeholder.com/300x200"));
-        propertyAdapter = new PropertyAdapter(savedProperties);
+        propertyAdapter = new PropertyAdapter(new ArrayList<>());
         savedPropertiesRecyclerView.setLayoutManager(new LinearLayoutManager(getContext()));
+        PropertyCardPool.attach(savedPropertiesRecyclerView, PropertyCardPool.VERTICAL_LIST);
         savedPropertiesRecyclerView.setAdapter(propertyAdapter);
 
+        // Favorites are stored as ids and resolved through the catalog, with sample
+        // listings standing in until something has been saved
+        SavedListings.favoriteIds(requireContext(), ids -> {
+            if (!isAdded() || getView() == null) {
+                return;
+            }
+            subscription = CatalogRepository.get(requireContext()).observe(
+                    CatalogRepository.orElse(CatalogRepository.byIds(ids), SampleListings.placeholderSaved()),
+                    (items, change) -> propertyAdapter.submitList(items));
+        });
+
         return view;
     }
+
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        if (subscription != null) {
+            subscription.close();
+            subscription = null;
+        }
+    }
 }
@@ -0,0 +1,72 @@
+package com.example.realestateapp;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+// Favorite and recently viewed listings, remembered by listing id in AppDatabase
+public final class SavedListings {
+
+    private static final int MAX_VIEWED = 50;
+
+    private SavedListings() {
+    }
+
+    // Favorite ids, most recently saved first
+    public static void favoriteIds(Context context, AppDatabase.Callback<long[]> callback) {
+        AppDatabase.get(context).read(db -> ids(db, "SELECT listing_id FROM favorites ORDER BY saved_at DESC"),
+                callback);
+    }
+
+    // Viewed ids, most recent first
+    public static void viewedIds(Context context, AppDatabase.Callback<long[]> callback) {
+        AppDatabase.get(context).read(db -> ids(db, "SELECT listing_id FROM viewed ORDER BY viewed_at DESC"),
+                callback);
+    }
+
+    public static void isFavorite(Context context, long id, AppDatabase.Callback<Boolean> callback) {
+        AppDatabase.get(context).read(db -> {
+            try (Cursor cursor = db.rawQuery("SELECT 1 FROM favorites WHERE listing_id = ?",
+                    new String[]{Long.toString(id)})) {
+                return cursor.moveToFirst();
+            }
+        }, callback);
+    }
+
+    public static void setFavorite(Context context, long id, boolean favorite) {
+        long now = System.currentTimeMillis();
+        AppDatabase.get(context).write(db -> {
+            if (favorite) {
+                ContentValues values = new ContentValues();
+                values.put("listing_id", id);
+                values.put("saved_at", now);
+                db.insertWithOnConflict("favorites", null, values, SQLiteDatabase.CONFLICT_REPLACE);
+            } else {
+                db.delete("favorites", "listing_id = ?", new String[]{Long.toString(id)});
+            }
+        });
+    }
+
+    public static void recordViewed(Context context, long id) {
+        long now = System.currentTimeMillis();
+        AppDatabase.get(context).write(db -> {
+            ContentValues values = new ContentValues();
+            values.put("listing_id", id);
+            values.put("viewed_at", now);
+            db.insertWithOnConflict("viewed", null, values, SQLiteDatabase.CONFLICT_REPLACE);
+            db.execSQL("DELETE FROM viewed WHERE listing_id NOT IN "
+                    + "(SELECT listing_id FROM viewed ORDER BY viewed_at DESC LIMIT " + MAX_VIEWED + ")");
+        });
+    }
+
+    private static long[] ids(SQLiteDatabase db, String sql) {
+        try (Cursor cursor = db.rawQuery(sql, null)) {
+            long[] ids = new long[cursor.getCount()];
+            for (int i = 0; cursor.moveToNext(); i++) {
+                ids[i] = cursor.getLong(0);
+            }
+            return ids;
+        }
+    }
+}
@@ -6,13 +6,12 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import com.google.android.material.appbar.MaterialToolbar;
 import java.util.ArrayList;
-import java.util.List;
 
 public class SavedPropertiesActivity extends AppCompatActivity {
 
     private RecyclerView savedPropertiesRecyclerView;
     private PropertyAdapter propertyAdapter;
-    private List<Property> savedProperties = new ArrayList<>();
+    private CatalogRepository.Subscription subscription;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -26,13 +25,29 @@ public class SavedPropertiesActivity extends AppCompatActivity {
 
         savedPropertiesRecyclerView = findViewById(R.id.savedPropertiesRecyclerView);
         savedPropertiesRecyclerView.setLayoutManager(new LinearLayoutManager(this));
+        PropertyCardPool.attach(savedPropertiesRecyclerView, PropertyCardPool.VERTICAL_LIST);
 
-        // Add some dummy data (replace with actual saved properties from database)
-        savedProperties.add(new Property("Luxury Villa", "PKR 50,000,000", "DHA Phase 6, Karachi", "https://via.placeholder.com/300x200"));
-        savedProperties.add(new Property("Modern Apartment", "PKR 15,000,000", "Gulberg, Lahore", "https://via.placeholder.com/300x200"));
-
-        propertyAdapter = new PropertyAdapter(savedProperties);
+        propertyAdapter = new PropertyAdapter(new ArrayList<>());
         savedPropertiesRecyclerView.setAdapter(propertyAdapter);
+
+        // Favorites are stored as ids and resolved through the catalog, with sample
+        // listings standing in until something has been saved
+        SavedListings.favoriteIds(this, ids -> {
+            if (isFinishing() || isDestroyed()) {
+                return;
+            }
+            subscription = CatalogRepository.get(this).observe(
+                    CatalogRepository.orElse(CatalogRepository.byIds(ids), SampleListings.placeholderSaved()),
+                    (items, change) -> propertyAdapter.submitList(items));
+        });
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (subscription != null) {
+            subscription.close();
+        }
     }
 
     @Override
@@ -3,8 +3,10 @@ package com.example.realestateapp;
 import android.os.Bundle;
 import android.text.Editable;
 import android.text.TextWatcher;
+import android.util.Log;
 import android.view.View;
-import android.widget.EditText;
+import android.view.inputmethod.EditorInfo;
+import android.widget.AutoCompleteTextView;
 import android.widget.LinearLayout;
 
 import androidx.appcompat.app.AppCompatActivity;
@@ -17,17 +19,44 @@ import com.google.android.material.chip.Chip;
 import com.google.android.material.chip.ChipGroup;
 import com.google.android.material.slider.RangeSlider;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 public class SearchActivity extends AppCompatActivity {
 
-    private EditText searchEditText;
+    private static final String TAG = "SearchActivity";
+    private static final String AUTOCOMPLETE_CACHE_FILE = "place_autocomplete.bin";
+
+    private AutoCompleteTextView searchEditText;
     private RecyclerView searchResultsRecyclerView;
     private ChipGroup filterChipGroup;
     private PropertyAdapter propertyAdapter;
-    private List<Property> allProperties = new ArrayList<>();
-    private List<Property> filteredProperties = new ArrayList<>();
+    private PlaceSuggestionAdapter placeSuggestionAdapter;
+    private final PropertySearchEngine searchEngine = new PropertySearchEngine();
+    private SearchPipeline<SearchResults> searchPipeline;
+    private CatalogRepository.Subscription catalogSubscription;
+    // Replaced (never mutated) on the main thread and read by the search worker
+    private volatile SearchFilters activeFilters = SearchFilters.NONE;
+
+    // Quick filter chips and the facet value each one selects
+    private static final String[] FILTER_LABELS = {"Houses", "Apartments", "Commercial", "For Sale", "For Rent"};
+    private static final String[] FILTER_FACETS = {FacetIndex.TYPE, FacetIndex.TYPE, FacetIndex.TYPE,
+            FacetIndex.PURPOSE, FacetIndex.PURPOSE};
+    private static final String[] FILTER_VALUES = {ListingClassifier.TYPE_HOUSE, ListingClassifier.TYPE_APARTMENT,
+            ListingClassifier.TYPE_COMMERCIAL, ListingClassifier.PURPOSE_SALE, ListingClassifier.PURPOSE_RENT};
+    private final Chip[] filterChips = new Chip[FILTER_LABELS.length];
+    // Only the best matches are ranked and shown
+    private static final int MAX_RESULTS = 100;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -45,6 +74,11 @@ public class SearchActivity extends AppCompatActivity {
 
         findViewById(R.id.filterButton).setOnClickListener(v -> showFilterDialog());
 
+        searchPipeline = new SearchPipeline<>(
+                query -> searchEngine.search(query, activeFilters, MAX_RESULTS,
+                        FacetIndex.TYPE, FacetIndex.PURPOSE),
+                (query, results) -> showResults(results));
+
         setupSearchView();
         setupRecyclerView();
         loadProperties();
@@ -52,13 +86,24 @@ public class SearchActivity extends AppCompatActivity {
     }
 
     private void setupSearchView() {
+        placeSuggestionAdapter = new PlaceSuggestionAdapter(this);
+        searchEditText.setAdapter(placeSuggestionAdapter);
+        searchEditText.setOnItemClickListener((parent, view, position, id) -> submitSearch());
+        searchEditText.setOnEditorActionListener((view, actionId, event) -> {
+            if (actionId == EditorInfo.IME_ACTION_SEARCH) {
+                submitSearch();
+                return true;
+            }
+            return false;
+        });
+
         searchEditText.addTextChangedListener(new TextWatcher() {
             @Override
             public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
 
             @Override
             public void onTextChanged(CharSequence s, int start, int before, int count) {
-                filterProperties(s.toString());
+                searchPipeline.submit(s.toString());
             }
 
             @Override
@@ -66,43 +111,103 @@ public class SearchActivity extends AppCompatActivity {
         });
     }
 
+    // An explicit search (keyboard search key or a picked suggestion) is also kept in the history
+    private void submitSearch() {
+        String query = searchEditText.getText().toString();
+        searchPipeline.submitNow(query);
+        SearchHistory.record(this, query);
+    }
+
     private void setupRecyclerView() {
-        propertyAdapter = new PropertyAdapter(filteredProperties);
+        propertyAdapter = new PropertyAdapter(new ArrayList<>());
         searchResultsRecyclerView.setLayoutManager(new LinearLayoutManager(this));
+        PropertyCardPool.attach(searchResultsRecyclerView, PropertyCardPool.VERTICAL_LIST);
         searchResultsRecyclerView.setAdapter(propertyAdapter);
     }
 
     private void loadProperties() {
-        // Load sample properties
-        allProperties.add(new Property("Luxury Apartment in DHA", "PKR 15,000,000", "DHA Phase 6, Karachi", "https://via.placeholder.com/300x200"));
-        allProperties.add(new Property("Modern House in Bahria Town", "PKR 25,000,000", "Bahria Town, Lahore", "https://via.placeholder.com/300x200"));
-        allProperties.add(new Property("Commercial Plaza", "PKR 50,000,000", "Blue Area, Islamabad", "https://via.placeholder.com/300x200"));
+        // Every live listing as a live view; the first result builds the search indexes and later
+        // syncs re-index only the listings they touched. Both run on the search thread, ahead of
+        // the search that refreshes the results.
+        File cacheFile = new File(getCacheDir(), AUTOCOMPLETE_CACHE_FILE);
+        catalogSubscription = CatalogRepository.get(this).observe(CatalogRepository.all(), (items, change) -> {
+            searchPipeline.execute(() -> searchEngine.apply(items, change));
+            searchPipeline.submitNow(searchEditText.getText().toString());
+            // Place suggestions come from a saved trie when the listings haven't changed
+            searchPipeline.execute(() -> placeSuggestionAdapter.setAutocomplete(loadAutocomplete(cacheFile, items)));
+        });
+    }
 
-        filteredProperties.addAll(allProperties);
-        propertyAdapter.notifyDataSetChanged();
+    private static PlaceAutocomplete loadAutocomplete(File cacheFile, List<Property> properties) {
+        long fingerprint = PlaceAutocomplete.fingerprint(properties);
+        if (cacheFile.exists()) {
+            try (InputStream in = new BufferedInputStream(new FileInputStream(cacheFile))) {
+                PlaceAutocomplete cached = PlaceAutocomplete.readFrom(in);
+                if (cached.getSourceFingerprint() == fingerprint) {
+                    return cached;
+                }
+            } catch (IOException e) {
+                Log.w(TAG, "Discarding unreadable autocomplete cache", e);
+            }
+        }
+
+        PlaceAutocomplete autocomplete = PlaceAutocomplete.fromProperties(properties);
+        // Write next to the cache file and rename, so a crash never leaves a half-written trie
+        File tempFile = new File(cacheFile.getPath() + ".tmp");
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(tempFile))) {
+            autocomplete.writeTo(out);
+        } catch (IOException e) {
+            Log.w(TAG, "Failed to save autocomplete cache", e);
+            tempFile.delete();
+            return autocomplete;
+        }
+        if (!tempFile.renameTo(cacheFile)) {
+            tempFile.delete();
+        }
+        return autocomplete;
     }
 
     private void setupFilterChips() {
-        String[] filters = {"Houses", "Apartments", "Commercial", "For Sale", "For Rent"};
-        for (String filter : filters) {
+        for (int i = 0; i < FILTER_LABELS.length; i++) {
             Chip chip = new Chip(this);
-            chip.setText(filter);
+            chip.setText(FILTER_LABELS[i]);
             chip.setCheckable(true);
             chip.setChipBackgroundColorResource(R.color.chip_background);
             chip.setTextColor(getResources().getColor(R.color.chip_text_color));
+            chip.setOnCheckedChangeListener((buttonView, isChecked) -> onFiltersChanged());
+            filterChips[i] = chip;
             filterChipGroup.addView(chip);
         }
+        // Fill in the initial chip counts
+        onFiltersChanged();
+    }
+
+    private void onFiltersChanged() {
+        Set<String> types = new HashSet<>();
+        Set<String> purposes = new HashSet<>();
+        for (int i = 0; i < filterChips.length; i++) {
+            if (filterChips[i] != null && filterChips[i].isChecked()) {
+                (FacetIndex.TYPE.equals(FILTER_FACETS[i]) ? types : purposes).add(FILTER_VALUES[i]);
+            }
+        }
+        // Keep the price range from the filter sheet, replace the chip facets
+        activeFilters = activeFilters
+                .withFacet(FacetIndex.TYPE, types)
+                .withFacet(FacetIndex.PURPOSE, purposes);
+        searchPipeline.submitNow(searchEditText.getText().toString());
     }
 
-    private void filterProperties(String query) {
-        filteredProperties.clear();
-        for (Property property : allProperties) {
-            if (property.getTitle().toLowerCase().contains(query.toLowerCase()) ||
-                    property.getLocation().toLowerCase().contains(query.toLowerCase())) {
-                filteredProperties.add(property);
+    // Called on the main thread with the newest result set only
+    private void showResults(SearchResults results) {
+        // Diffed by listing id off the main thread; cards that stay in the results are not rebound
+        propertyAdapter.submitList(results.getProperties());
+
+        for (int i = 0; i < filterChips.length; i++) {
+            if (filterChips[i] != null) {
+                int count = results.getCount(FILTER_FACETS[i], FILTER_VALUES[i]);
+                filterChips[i].setText(FILTER_LABELS[i] + " (" + count + ")");
             }
         }
-        propertyAdapter.notifyDataSetChanged();
     }
 
     private void showFilterDialog() {
@@ -111,12 +216,99 @@ public class SearchActivity extends AppCompatActivity {
 
         RangeSlider priceSlider = dialog.findViewById(R.id.priceRangeSlider);
         ChipGroup propertyTypeChips = dialog.findViewById(R.id.propertyTypeChips);
+        ChipGroup bedroomChips = dialog.findViewById(R.id.bedroomChips);
+        Chip sortAreaChip = dialog.findViewById(R.id.sortAreaChip);
+        Chip sortRelevanceChip = dialog.findViewById(R.id.sortRelevanceChip);
+
+        // The slider works in whole PKR; filters hold base-currency minor units
+        if (priceSlider != null) {
+            float from = priceSlider.getValueFrom();
+            float to = priceSlider.getValueTo();
+            if (activeFilters.hasPriceRange()) {
+                from = Math.max(from, activeFilters.getMinPrice() / (float) Price.MINOR_UNITS);
+                if (activeFilters.getMaxPrice() != SearchFilters.NO_MAX_PRICE) {
+                    to = Math.min(to, activeFilters.getMaxPrice() / (float) Price.MINOR_UNITS);
+                }
+            }
+            priceSlider.setValues(from, to);
+        }
+
+        // Dialog chips are labelled with the type facet values themselves
+        if (propertyTypeChips != null) {
+            for (int i = 0; i < propertyTypeChips.getChildCount(); i++) {
+                Chip chip = (Chip) propertyTypeChips.getChildAt(i);
+                chip.setChecked(activeFilters.isSelected(FacetIndex.TYPE, chip.getText().toString()));
+            }
+        }
+
+        // Bedroom chips carry their minimum count as the tag
+        if (bedroomChips != null) {
+            for (int i = 0; i < bedroomChips.getChildCount(); i++) {
+                Chip chip = (Chip) bedroomChips.getChildAt(i);
+                chip.setChecked(bedroomMinimum(chip) == activeFilters.getMinBedrooms());
+            }
+        }
+        if (sortAreaChip != null && sortRelevanceChip != null) {
+            boolean byArea = activeFilters.getSort() == SearchFilters.SORT_LARGEST_AREA;
+            sortAreaChip.setChecked(byArea);
+            sortRelevanceChip.setChecked(!byArea);
+        }
 
         dialog.findViewById(R.id.applyFilterButton).setOnClickListener(v -> {
-            // Apply filters
+            int minBedrooms = SearchFilters.NO_MIN_BEDROOMS;
+            if (bedroomChips != null) {
+                for (int i = 0; i < bedroomChips.getChildCount(); i++) {
+                    Chip chip = (Chip) bedroomChips.getChildAt(i);
+                    if (chip.isChecked()) {
+                        minBedrooms = bedroomMinimum(chip);
+                    }
+                }
+            }
+            activeFilters = activeFilters.withMinBedrooms(minBedrooms)
+                    .withSort(sortAreaChip != null && sortAreaChip.isChecked()
+                            ? SearchFilters.SORT_LARGEST_AREA : SearchFilters.SORT_RELEVANCE);
+
+            if (priceSlider != null) {
+                List<Float> values = priceSlider.getValues();
+                float low = values.get(0);
+                float high = values.get(values.size() - 1);
+                // The slider's end stops mean "no limit"
+                long minPrice = low <= priceSlider.getValueFrom()
+                        ? SearchFilters.NO_MIN_PRICE : (long) low * Price.MINOR_UNITS;
+                long maxPrice = high >= priceSlider.getValueTo()
+                        ? SearchFilters.NO_MAX_PRICE : (long) high * Price.MINOR_UNITS;
+                activeFilters = activeFilters.withPriceRange(minPrice, maxPrice);
+            }
+            searchPipeline.submitNow(searchEditText.getText().toString());
+
+            // Apply type filters by syncing the quick filter chips, which re-runs the search
+            if (propertyTypeChips != null) {
+                for (int i = 0; i < propertyTypeChips.getChildCount(); i++) {
+                    Chip dialogChip = (Chip) propertyTypeChips.getChildAt(i);
+                    String type = dialogChip.getText().toString();
+                    for (int j = 0; j < filterChips.length; j++) {
+                        if (FacetIndex.TYPE.equals(FILTER_FACETS[j]) && FILTER_VALUES[j].equals(type)) {
+                            filterChips[j].setChecked(dialogChip.isChecked());
+                        }
+                    }
+                }
+            }
             dialog.dismiss();
         });
 
         dialog.show();
     }
+
+    private static int bedroomMinimum(Chip chip) {
+        return Integer.parseInt((String) chip.getTag());
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (catalogSubscription != null) {
+            catalogSubscription.close();
+        }
+        searchPipeline.shutdown();
+    }
 }
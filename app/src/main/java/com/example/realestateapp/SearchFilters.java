@@ -0,0 +1,135 @@
+package com.example.realestateapp;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Immutable snapshot of the active search filters. Values within one facet are
+ * OR-ed together and facets are AND-ed. Being immutable, a snapshot can be
+ * handed to the search worker thread without copying. The sort order travels
+ * with the filters, since the filter sheet sets both.
+ */
+public final class SearchFilters {
+
+    public static final long NO_MIN_PRICE = 0;
+    public static final long NO_MAX_PRICE = Long.MAX_VALUE;
+    public static final int NO_MIN_BEDROOMS = 0;
+
+    // Best text match first, or catalog order when there is no text
+    public static final int SORT_RELEVANCE = 0;
+    // Largest covered area first; listings that do not state an area go last
+    public static final int SORT_LARGEST_AREA = 1;
+
+    public static final SearchFilters NONE = new SearchFilters(new TreeMap<>(), NO_MIN_PRICE, NO_MAX_PRICE,
+            NO_MIN_BEDROOMS, SORT_RELEVANCE);
+
+    // Sorted so equal filter states always produce the same key
+    private final TreeMap<String, Set<String>> facetValues;
+    // Inclusive bounds in base-currency minor units (see ExchangeRates)
+    private final long minPrice;
+    private final long maxPrice;
+    private final int minBedrooms;
+    private final int sort;
+
+    private SearchFilters(TreeMap<String, Set<String>> facetValues, long minPrice, long maxPrice,
+                          int minBedrooms, int sort) {
+        this.facetValues = facetValues;
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+        this.minBedrooms = minBedrooms;
+        this.sort = sort;
+    }
+
+    public Set<String> values(String facet) {
+        Set<String> values = facetValues.get(facet);
+        return values != null ? values : Collections.emptySet();
+    }
+
+    public Map<String, Set<String>> facets() {
+        return Collections.unmodifiableMap(facetValues);
+    }
+
+    public boolean isSelected(String facet, String value) {
+        return values(facet).contains(value);
+    }
+
+    public long getMinPrice() {
+        return minPrice;
+    }
+
+    public long getMaxPrice() {
+        return maxPrice;
+    }
+
+    public boolean hasPriceRange() {
+        return minPrice != NO_MIN_PRICE || maxPrice != NO_MAX_PRICE;
+    }
+
+    public int getMinBedrooms() {
+        return minBedrooms;
+    }
+
+    public int getSort() {
+        return sort;
+    }
+
+    public boolean isEmpty() {
+        return facetValues.isEmpty() && !hasPriceRange() && minBedrooms == NO_MIN_BEDROOMS;
+    }
+
+    public SearchFilters withPriceRange(long minPrice, long maxPrice) {
+        return new SearchFilters(facetValues, Math.max(minPrice, NO_MIN_PRICE), maxPrice, minBedrooms, sort);
+    }
+
+    // Listings with at least this many bedrooms; those that do not state a count are left out
+    public SearchFilters withMinBedrooms(int minBedrooms) {
+        return new SearchFilters(facetValues, minPrice, maxPrice, Math.max(minBedrooms, NO_MIN_BEDROOMS), sort);
+    }
+
+    public SearchFilters withSort(int sort) {
+        return new SearchFilters(facetValues, minPrice, maxPrice, minBedrooms, sort);
+    }
+
+    public SearchFilters toggle(String facet, String value) {
+        TreeSet<String> values = new TreeSet<>(values(facet));
+        if (!values.remove(value)) {
+            values.add(value);
+        }
+        return withFacet(facet, values);
+    }
+
+    public SearchFilters withFacet(String facet, Collection<String> values) {
+        TreeMap<String, Set<String>> copy = new TreeMap<>(facetValues);
+        if (values.isEmpty()) {
+            copy.remove(facet);
+        } else {
+            copy.put(facet, Collections.unmodifiableSet(new TreeSet<>(values)));
+        }
+        return new SearchFilters(copy, minPrice, maxPrice, minBedrooms, sort);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof SearchFilters)) return false;
+        SearchFilters other = (SearchFilters) o;
+        return minPrice == other.minPrice && maxPrice == other.maxPrice && minBedrooms == other.minBedrooms
+                && sort == other.sort && facetValues.equals(other.facetValues);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 31 * (31 * facetValues.hashCode() + Long.hashCode(minPrice)) + Long.hashCode(maxPrice);
+        return 31 * (31 * hash + minBedrooms) + sort;
+    }
+
+    @Override
+    public String toString() {
+        return facetValues + " price=[" + minPrice + ", " + maxPrice + "] bedrooms>=" + minBedrooms
+                + " sort=" + sort;
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.realestateapp;
 
 import android.os.Bundle;
+import android.text.Editable;
+import android.text.TextWatcher;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -26,7 +28,9 @@ public class SearchFragment extends Fragment {
     private RecyclerView searchResultsRecyclerView;
     private LinearLayout emptyState;
     private PropertyAdapter propertyAdapter;
-    private List<Property> searchResults;
+    private SearchPipeline<List<Property>> searchPipeline;
+    private CatalogRepository.Subscription catalogSubscription;
+    private static final int MAX_RESULTS = 100;
 
     @Nullable
     @Override
@@ -42,11 +46,28 @@ public class SearchFragment extends Fragment {
         emptyState = view.findViewById(R.id.emptyState);
 
         // Initialize RecyclerView
-        searchResults = new ArrayList<>();
-        propertyAdapter = new PropertyAdapter(searchResults);
+        propertyAdapter = new PropertyAdapter(new ArrayList<>());
         searchResultsRecyclerView.setLayoutManager(new LinearLayoutManager(getContext()));
+        PropertyCardPool.attach(searchResultsRecyclerView, PropertyCardPool.VERTICAL_LIST);
         searchResultsRecyclerView.setAdapter(propertyAdapter);
 
+        // Search off the main thread over an index that follows the catalog: the first result
+        // indexes every listing and later syncs re-index only the listings they touched. The
+        // view is recreated on back navigation, and its new subscription starts from an empty
+        // view, so each view gets an engine of its own
+        PropertySearchEngine searchEngine = new PropertySearchEngine();
+        searchPipeline = new SearchPipeline<>(
+                query -> query.isEmpty() ? new ArrayList<>()
+                        : searchEngine.search(query, SearchFilters.NONE, MAX_RESULTS).getProperties(),
+                (query, results) -> showResults(query, results));
+        catalogSubscription = CatalogRepository.get(requireContext()).observe(CatalogRepository.all(),
+                (items, change) -> {
+                    searchPipeline.execute(() -> searchEngine.apply(items, change));
+                    if (searchEditText != null) {
+                        searchPipeline.submitNow(searchEditText.getText().toString().trim());
+                    }
+                });
+
         // Set up toolbar
         if (toolbar != null) {
             toolbar.setTitle("Search");
@@ -59,9 +80,21 @@ public class SearchFragment extends Fragment {
 
         // Set up search functionality
         if (searchEditText != null) {
+            searchEditText.addTextChangedListener(new TextWatcher() {
+                @Override
+                public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
+
+                @Override
+                public void onTextChanged(CharSequence s, int start, int before, int count) {
+                    performSearch(s.toString().trim());
+                }
+
+                @Override
+                public void afterTextChanged(Editable s) {}
+            });
             searchEditText.setOnEditorActionListener((v, actionId, event) -> {
                 String query = searchEditText.getText().toString().trim();
-                performSearch(query);
+                searchPipeline.submitNow(query);
                 return true;
             });
         }
@@ -77,18 +110,32 @@ public class SearchFragment extends Fragment {
     }
 
     private void performSearch(String query) {
-        // Simulate search results (replace with actual search logic)
-        searchResults.clear();
-        if (query.isEmpty()) {
+        // Keystrokes are coalesced; matching runs on the pipeline's worker thread
+        searchPipeline.submit(query);
+    }
+
+    private void showResults(String query, List<Property> results) {
+        if (!isAdded()) {
+            return;
+        }
+        propertyAdapter.submitList(results);
+        if (query.isEmpty() || results.isEmpty()) {
             emptyState.setVisibility(View.VISIBLE);
             searchResultsRecyclerView.setVisibility(View.GONE);
         } else {
-            // Add sample properties based on query
-            searchResults.add(new Property("Apartment in " + query, "AED 1,000,000", query, "https://via.placeholder.com/300x200"));
-            searchResults.add(new Property("Villa in " + query, "AED 2,000,000", query, "https://via.placeholder.com/300x200"));
-            propertyAdapter.notifyDataSetChanged();
             emptyState.setVisibility(View.GONE);
             searchResultsRecyclerView.setVisibility(View.VISIBLE);
         }
     }
+
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        if (catalogSubscription != null) {
+            catalogSubscription.close();
+        }
+        if (searchPipeline != null) {
+            searchPipeline.shutdown();
+        }
+    }
 }
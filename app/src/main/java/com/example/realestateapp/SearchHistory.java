@@ -0,0 +1,61 @@
+package com.example.realestateapp;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Queries the user submitted, newest first; repeating a query moves it back to the top
+public final class SearchHistory {
+
+    private static final int MAX_ENTRIES = 100;
+
+    public static final class Entry {
+        public final String query;
+        public final long searchedAt;
+
+        Entry(String query, long searchedAt) {
+            this.query = query;
+            this.searchedAt = searchedAt;
+        }
+    }
+
+    private SearchHistory() {
+    }
+
+    public static void record(Context context, String query) {
+        String trimmed = query.trim();
+        if (trimmed.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        AppDatabase.get(context).write(db -> {
+            ContentValues values = new ContentValues();
+            values.put("query", trimmed);
+            values.put("searched_at", now);
+            db.insertWithOnConflict("search_history", null, values, SQLiteDatabase.CONFLICT_REPLACE);
+            db.execSQL("DELETE FROM search_history WHERE query NOT IN "
+                    + "(SELECT query FROM search_history ORDER BY searched_at DESC LIMIT " + MAX_ENTRIES + ")");
+        });
+    }
+
+    public static void recent(Context context, int limit, AppDatabase.Callback<List<Entry>> callback) {
+        AppDatabase.get(context).read(db -> {
+            try (Cursor cursor = db.rawQuery("SELECT query, searched_at FROM search_history "
+                    + "ORDER BY searched_at DESC LIMIT " + limit, null)) {
+                List<Entry> entries = new ArrayList<>(cursor.getCount());
+                while (cursor.moveToNext()) {
+                    entries.add(new Entry(cursor.getString(0), cursor.getLong(1)));
+                }
+                return entries;
+            }
+        }, callback);
+    }
+
+    public static void clear(Context context) {
+        AppDatabase.get(context).write(db -> db.delete("search_history", null, null));
+    }
+}
@@ -9,11 +9,16 @@ import androidx.appcompat.widget.Toolbar;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
+import java.util.Locale;
 
 public class SearchHistoryActivity extends AppCompatActivity {
 
+    private static final int MAX_ITEMS = 50;
+
     private RecyclerView searchHistoryRecyclerView;
     private TextView emptyStateTextView;
 
@@ -40,9 +45,22 @@ public class SearchHistoryActivity extends AppCompatActivity {
     }
 
     private void loadSearchHistory() {
-        // In a real app, you would fetch search history from Firebase
-        // For now, just display some sample data
-        List<SearchHistoryItem> historyItems = getSampleSearchHistory();
+        SearchHistory.recent(this, MAX_ITEMS, this::showSearchHistory);
+    }
+
+    private void showSearchHistory(List<SearchHistory.Entry> entries) {
+        if (isFinishing() || isDestroyed()) {
+            return;
+        }
+        List<SearchHistoryItem> historyItems = new ArrayList<>(entries.size());
+        SimpleDateFormat dateFormat = new SimpleDateFormat("MMMM d, yyyy", Locale.getDefault());
+        for (SearchHistory.Entry entry : entries) {
+            historyItems.add(new SearchHistoryItem(entry.query, dateFormat.format(new Date(entry.searchedAt))));
+        }
+        if (historyItems.isEmpty()) {
+            // Sample data until something has been searched
+            historyItems = getSampleSearchHistory();
+        }
 
         if (historyItems.isEmpty()) {
             searchHistoryRecyclerView.setVisibility(View.GONE);
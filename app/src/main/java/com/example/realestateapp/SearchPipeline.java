@@ -0,0 +1,121 @@
+package com.example.realestateapp;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs property matching off the main thread. Keystrokes that arrive inside the
+ * debounce window are coalesced, and every query is stamped with a generation
+ * number so that only the newest result set is ever handed back to the UI.
+ */
+public class SearchPipeline<T> {
+
+    public static final long DEFAULT_DEBOUNCE_MS = 150;
+
+    public interface Matcher<T> {
+        T match(String query);
+    }
+
+    public interface Callback<T> {
+        void onResults(String query, T results);
+    }
+
+    private final Matcher<T> matcher;
+    private final Callback<T> callback;
+    private final long debounceMs;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "property-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicLong generation = new AtomicLong();
+    private Runnable pendingDispatch;
+    private Future<?> runningSearch;
+    private boolean shutDown;
+
+    public SearchPipeline(Matcher<T> matcher, Callback<T> callback) {
+        this(matcher, callback, DEFAULT_DEBOUNCE_MS);
+    }
+
+    public SearchPipeline(Matcher<T> matcher, Callback<T> callback, long debounceMs) {
+        this.matcher = matcher;
+        this.callback = callback;
+        this.debounceMs = debounceMs;
+    }
+
+    // Schedules a search once typing pauses for the debounce window. Must be called on the main thread.
+    public void submit(String query) {
+        schedule(query, debounceMs);
+    }
+
+    // Skips the debounce window, e.g. when the user presses the search key
+    public void submitNow(String query) {
+        schedule(query, 0);
+    }
+
+    // Runs task on the search thread after the searches already queued, e.g. to update the index
+    public void execute(Runnable task) {
+        if (!shutDown) {
+            executor.execute(task);
+        }
+    }
+
+    public void shutdown() {
+        shutDown = true;
+        generation.incrementAndGet();
+        if (pendingDispatch != null) {
+            mainHandler.removeCallbacks(pendingDispatch);
+            pendingDispatch = null;
+        }
+        executor.shutdownNow();
+    }
+
+    private void schedule(String query, long delayMs) {
+        if (shutDown) {
+            return;
+        }
+        final long stamp = generation.incrementAndGet();
+        if (pendingDispatch != null) {
+            mainHandler.removeCallbacks(pendingDispatch);
+        }
+        pendingDispatch = () -> dispatch(query, stamp);
+        if (delayMs > 0) {
+            mainHandler.postDelayed(pendingDispatch, delayMs);
+        } else {
+            pendingDispatch.run();
+        }
+    }
+
+    private void dispatch(String query, long stamp) {
+        pendingDispatch = null;
+        if (runningSearch != null) {
+            // The older search can no longer be published, so stop it early
+            runningSearch.cancel(true);
+        }
+        runningSearch = executor.submit(() -> {
+            if (!isCurrent(stamp)) {
+                return;
+            }
+            T results = matcher.match(query);
+            if (!isCurrent(stamp)) {
+                return;
+            }
+            mainHandler.post(() -> {
+                // Re-check on the main thread; a newer keystroke may have arrived meanwhile
+                if (isCurrent(stamp) && !shutDown) {
+                    callback.onResults(query, results);
+                }
+            });
+        });
+    }
+
+    private boolean isCurrent(long stamp) {
+        return stamp == generation.get();
+    }
+}
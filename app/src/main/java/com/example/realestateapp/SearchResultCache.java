@@ -0,0 +1,183 @@
+package com.example.realestateapp;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * LRU cache of finished searches, keyed by normalized query text plus the
+ * filter state. Entries hold row ids rather than listings, and the whole cache
+ * is dropped as soon as the catalog version moves, so a hit is always what a
+ * fresh search would return. Size is bounded by entry count and by an estimate
+ * of retained bytes; hit and memory figures are exposed for tuning.
+ */
+public class SearchResultCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 128;
+    public static final long DEFAULT_MAX_BYTES = 256 * 1024;
+
+    // Rough per-object costs used for the memory estimate
+    private static final int OBJECT_OVERHEAD = 16;
+    private static final int MAP_ENTRY_OVERHEAD = 48;
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long catalogVersion = -1;
+    private long estimatedBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    public SearchResultCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_BYTES);
+    }
+
+    public SearchResultCache(int maxEntries, long maxBytes) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    // Cached result for the key at the given catalog version, or null
+    synchronized Entry get(Key key, long version) {
+        checkVersion(version);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return entry;
+    }
+
+    synchronized void put(Key key, Entry entry, long version) {
+        checkVersion(version);
+        Entry previous = entries.put(key, entry);
+        if (previous != null) {
+            estimatedBytes -= key.estimatedBytes() + previous.estimatedBytes();
+        }
+        estimatedBytes += key.estimatedBytes() + entry.estimatedBytes();
+
+        Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || estimatedBytes > maxBytes) && eldest.hasNext()) {
+            Map.Entry<Key, Entry> evicted = eldest.next();
+            estimatedBytes -= evicted.getKey().estimatedBytes() + evicted.getValue().estimatedBytes();
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        estimatedBytes = 0;
+    }
+
+    private void checkVersion(long version) {
+        if (version != catalogVersion) {
+            if (!entries.isEmpty()) {
+                invalidations++;
+            }
+            clear();
+            catalogVersion = version;
+        }
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    // Fraction of lookups answered from the cache, 0 before the first lookup
+    public synchronized float getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0f : hits / (float) lookups;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    // Number of times a catalog change dropped cached entries
+    public synchronized long getInvalidations() {
+        return invalidations;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format(Locale.ROOT,
+                "SearchResultCache{entries=%d, bytes=%d/%d, hits=%d, misses=%d, hitRate=%.2f, evictions=%d, invalidations=%d}",
+                entries.size(), estimatedBytes, maxBytes, hits, misses, getHitRate(), evictions, invalidations);
+    }
+
+    // Normalized query, filters and the shape of the requested result
+    static final class Key {
+        private final String query;
+        private final SearchFilters filters;
+        private final int limit;
+        private final String[] countFacets;
+        private final int hash;
+
+        Key(String query, SearchFilters filters, int limit, String[] countFacets) {
+            this.query = query;
+            this.filters = filters;
+            this.limit = limit;
+            this.countFacets = countFacets.clone();
+            this.hash = 31 * (31 * (31 * query.hashCode() + filters.hashCode()) + limit)
+                    + Arrays.hashCode(this.countFacets);
+        }
+
+        long estimatedBytes() {
+            // The filters object is usually shared with the caller, so only the strings count
+            return OBJECT_OVERHEAD * 3 + 2L * query.length() + 8L * countFacets.length;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return hash == other.hash && limit == other.limit && query.equals(other.query)
+                    && filters.equals(other.filters) && Arrays.equals(countFacets, other.countFacets);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    // Result rows in display order, the total before the limit and the facet counts
+    static final class Entry {
+        final int[] rows;
+        final int totalMatches;
+        final Map<String, Map<String, Integer>> facetCounts;
+
+        Entry(int[] rows, int totalMatches, Map<String, Map<String, Integer>> facetCounts) {
+            this.rows = rows;
+            this.totalMatches = totalMatches;
+            this.facetCounts = facetCounts;
+        }
+
+        long estimatedBytes() {
+            long bytes = OBJECT_OVERHEAD * 2 + 4L * rows.length;
+            for (Map<String, Integer> counts : facetCounts.values()) {
+                bytes += MAP_ENTRY_OVERHEAD * (counts.size() + 1L);
+            }
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.realestateapp;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+// Result of one search: the best matching listings plus per-chip counts for the requested facets
+public class SearchResults {
+
+    private final List<Property> properties;
+    private final int totalMatches;
+    private final Map<String, Map<String, Integer>> facetCounts;
+
+    SearchResults(List<Property> properties, int totalMatches, Map<String, Map<String, Integer>> facetCounts) {
+        this.properties = properties;
+        this.totalMatches = totalMatches;
+        this.facetCounts = facetCounts;
+    }
+
+    // The best matches, at most the limit passed to the search
+    public List<Property> getProperties() {
+        return properties;
+    }
+
+    // Number of matches before the limit was applied
+    public int getTotalMatches() {
+        return totalMatches;
+    }
+
+    public int getCount(String facet, String value) {
+        Map<String, Integer> counts = facetCounts.get(facet);
+        Integer count = counts != null ? counts.get(value) : null;
+        return count != null ? count : 0;
+    }
+
+    public Map<String, Integer> getCounts(String facet) {
+        Map<String, Integer> counts = facetCounts.get(facet);
+        return counts != null ? counts : Collections.emptyMap();
+    }
+}
@@ -39,6 +39,10 @@ public class SellPropertyActivity extends AppCompatActivity {
     private ActivityResultLauncher<Intent> photoPickerLauncher;
     private List<Uri> propertyImages = new ArrayList<>();
 
+    // The form is kept as a draft whenever the screen is left without submitting
+    private ListingDrafts.Draft draft = new ListingDrafts.Draft();
+    private boolean submitted;
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -53,6 +57,67 @@ public class SellPropertyActivity extends AppCompatActivity {
         initializeViews();
         setupSpinners();
         setupPhotoSelection();
+        ListingDrafts.latest(this, this::restoreDraft);
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        if (!submitted && hasInput()) {
+            draft.title = titleInput.getText().toString();
+            draft.price = priceInput.getText().toString();
+            draft.address = addressInput.getText().toString();
+            draft.description = descriptionInput.getText().toString();
+            draft.type = String.valueOf(propertyTypeSpinner.getSelectedItem());
+            draft.bedrooms = String.valueOf(bedroomsSpinner.getSelectedItem());
+            StringBuilder uris = new StringBuilder();
+            for (Uri uri : propertyImages) {
+                uris.append(uri).append('\n');
+            }
+            draft.imageUris = uris.toString();
+            ListingDrafts.save(this, draft);
+        }
+    }
+
+    private boolean hasInput() {
+        return titleInput.length() > 0 || priceInput.length() > 0 || addressInput.length() > 0
+                || descriptionInput.length() > 0 || !propertyImages.isEmpty();
+    }
+
+    // Fills the form from the last draft, unless the user has already started typing
+    private void restoreDraft(ListingDrafts.Draft saved) {
+        if (saved == null || isFinishing() || isDestroyed() || hasInput()) {
+            return;
+        }
+        draft = saved;
+        titleInput.setText(saved.title);
+        priceInput.setText(saved.price);
+        addressInput.setText(saved.address);
+        descriptionInput.setText(saved.description);
+        selectValue(propertyTypeSpinner, saved.type);
+        selectValue(bedroomsSpinner, saved.bedrooms);
+        if (saved.imageUris != null) {
+            for (String uri : saved.imageUris.split("\n")) {
+                if (!uri.isEmpty()) {
+                    propertyImages.add(Uri.parse(uri));
+                }
+            }
+        }
+        if (!propertyImages.isEmpty()) {
+            selectedImageUri = propertyImages.get(propertyImages.size() - 1);
+            propertyImage.setImageURI(selectedImageUri);
+            propertyImage.setVisibility(View.VISIBLE);
+        }
+        Snackbar.make(submitButton, "Restored your draft", Snackbar.LENGTH_SHORT).show();
+    }
+
+    private static void selectValue(Spinner spinner, String value) {
+        for (int i = 0; i < spinner.getCount(); i++) {
+            if (String.valueOf(spinner.getItemAtPosition(i)).equals(value)) {
+                spinner.setSelection(i);
+                return;
+            }
+        }
     }
 
     private void initializeViews() {
@@ -168,6 +233,8 @@ public class SellPropertyActivity extends AppCompatActivity {
         // Here you would normally upload the property data to your server
         // For now, just show a success message and finish the activity
 
+        submitted = true;
+        ListingDrafts.delete(this, draft);
         Toast.makeText(this, "Property submitted successfully!", Toast.LENGTH_SHORT).show();
 
         // Go back to dashboard after submission
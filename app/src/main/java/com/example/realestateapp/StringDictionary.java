@@ -0,0 +1,51 @@
+package com.example.realestateapp;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// Maps each distinct string of a low-cardinality column (city, area, type) to a small int code
+final class StringDictionary {
+
+    static final int NO_CODE = -1;
+
+    private String[] values = new String[8];
+    private final Map<String, Integer> codes = new HashMap<>();
+    private int size;
+
+    // Code for value, adding it when new; null encodes as NO_CODE
+    int encode(String value) {
+        if (value == null) {
+            return NO_CODE;
+        }
+        Integer code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size] = value;
+        codes.put(value, size);
+        return size++;
+    }
+
+    // Code of an existing value, or NO_CODE when the dictionary has never seen it
+    int find(String value) {
+        Integer code = value != null ? codes.get(value) : null;
+        return code != null ? code : NO_CODE;
+    }
+
+    // The dictionary's own instance of value, so equal strings from many rows share one object
+    String intern(String value) {
+        return decode(encode(value));
+    }
+
+    String decode(int code) {
+        return code == NO_CODE ? null : values[code];
+    }
+
+    int size() {
+        return size;
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.realestateapp;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Character-trigram index over the search vocabulary (title and location
+ * terms). A misspelled term such as "islamabd" only has to be compared with
+ * the few terms that share enough trigrams with it, and each candidate is then
+ * verified with a bounded edit distance that counts a transposition as one edit.
+ */
+final class TrigramIndex {
+
+    private static final char BOUNDARY = '$';
+
+    private final List<String> terms = new ArrayList<>();
+    private final Map<String, Integer> termIds = new HashMap<>();
+    // Packed trigram -> ids of terms containing it
+    private final Map<Long, IntList> postings = new HashMap<>();
+
+    // Scratch counters reused between lookups; callers hold the owning index's lock
+    private int[] sharedCounts = new int[0];
+
+    void add(String term) {
+        if (termIds.containsKey(term)) {
+            return;
+        }
+        int id = terms.size();
+        terms.add(term);
+        termIds.put(term, id);
+        for (long gram : trigrams(term)) {
+            IntList list = postings.get(gram);
+            if (list == null) {
+                list = new IntList();
+                postings.put(gram, list);
+            }
+            list.add(id);
+        }
+    }
+
+    // Edit budget grows with term length; one- and two-letter terms are never corrected
+    static int maxDistance(String term) {
+        if (term.length() < 3) {
+            return 0;
+        }
+        return term.length() < 7 ? 1 : 2;
+    }
+
+    // Vocabulary terms within maxDistance(term) edits of term
+    List<String> similarTerms(String term) {
+        List<String> result = new ArrayList<>();
+        int maxDistance = maxDistance(term);
+        if (maxDistance == 0) {
+            return result;
+        }
+
+        long[] grams = trigrams(term);
+        // Each edit destroys at most three trigrams (q-gram lemma)
+        int minShared = Math.max(1, grams.length - 3 * maxDistance);
+
+        if (sharedCounts.length < terms.size()) {
+            sharedCounts = new int[Math.max(terms.size(), sharedCounts.length * 2)];
+        }
+        IntList touched = new IntList();
+        for (long gram : grams) {
+            IntList list = postings.get(gram);
+            if (list == null) {
+                continue;
+            }
+            for (int i = 0; i < list.size(); i++) {
+                int id = list.get(i);
+                if (sharedCounts[id]++ == 0) {
+                    touched.add(id);
+                }
+            }
+        }
+
+        for (int i = 0; i < touched.size(); i++) {
+            int id = touched.get(i);
+            String candidate = terms.get(id);
+            if (sharedCounts[id] >= minShared
+                    && Math.abs(candidate.length() - term.length()) <= maxDistance
+                    && editDistance(term, candidate, maxDistance) <= maxDistance) {
+                result.add(candidate);
+            }
+            sharedCounts[id] = 0;
+        }
+        return result;
+    }
+
+    private static long[] trigrams(String term) {
+        String padded = BOUNDARY + term + BOUNDARY;
+        long[] grams = new long[Math.max(padded.length() - 2, 0)];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = ((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2);
+        }
+        return grams;
+    }
+
+    /**
+     * Optimal string alignment distance, giving up early once every cell in a
+     * row exceeds the limit. Returns limit + 1 when the distance is larger.
+     */
+    static int editDistance(String a, String b, int limit) {
+        int[] previousPrevious = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previousPrevious[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > limit) {
+                return limit + 1;
+            }
+            int[] recycled = previousPrevious;
+            previousPrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        return Math.min(previous[b.length()], limit + 1);
+    }
+}
@@ -16,7 +16,8 @@ public class ViewedPropertiesActivity extends AppCompatActivity {
 
     private RecyclerView viewedPropertiesRecyclerView;
     private TextView emptyStateTextView;
-    private List<Property> viewedProperties = new ArrayList<>();
+    private PropertyAdapter adapter;
+    private CatalogRepository.Subscription subscription;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -35,58 +36,45 @@ public class ViewedPropertiesActivity extends AppCompatActivity {
 
         // Setup RecyclerView
         viewedPropertiesRecyclerView.setLayoutManager(new LinearLayoutManager(this));
+        PropertyCardPool.attach(viewedPropertiesRecyclerView, PropertyCardPool.VERTICAL_LIST);
+        adapter = new PropertyAdapter(new ArrayList<>(),
+                (property, position) -> {
+                    // Open property details when clicked
+                    // In a real app, you'd navigate to PropertyDetailActivity
+                });
+        viewedPropertiesRecyclerView.setAdapter(adapter);
 
         // Load viewed properties
         loadViewedProperties();
     }
 
-    private void loadViewedProperties() {
-        // In a real app, you would fetch this data from Firebase or local storage
-        // For now, just use sample data
-        viewedProperties = getSampleViewedProperties();
-
-        if (viewedProperties.isEmpty()) {
-            viewedPropertiesRecyclerView.setVisibility(View.GONE);
-            emptyStateTextView.setVisibility(View.VISIBLE);
-        } else {
-            viewedPropertiesRecyclerView.setVisibility(View.VISIBLE);
-            emptyStateTextView.setVisibility(View.GONE);
-
-            PropertyAdapter adapter = new PropertyAdapter(viewedProperties,
-                    (property, position) -> {
-                        // Open property details when clicked
-                        // In a real app, you'd navigate to PropertyDetailActivity
-                    });
-            viewedPropertiesRecyclerView.setAdapter(adapter);
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (subscription != null) {
+            subscription.close();
         }
     }
 
-    private List<Property> getSampleViewedProperties() {
-        List<Property> properties = new ArrayList<>();
-
-        // Add some sample viewed properties
-        properties.add(new Property(
-                "Modern Apartment in F-7",
-                "PKR 12,500,000",
-                "F-7 Markaz, Islamabad",
-                "https://via.placeholder.com/300x200"
-        ));
-
-        properties.add(new Property(
-                "Luxury Villa in DHA",
-                "PKR 35,000,000",
-                "DHA Phase 5, Lahore",
-                "https://via.placeholder.com/300x200"
-        ));
+    private void loadViewedProperties() {
+        SavedListings.viewedIds(this, this::observeViewedProperties);
+    }
 
-        properties.add(new Property(
-                "Commercial Plaza for Sale",
-                "PKR 85,000,000",
-                "Blue Area, Islamabad",
-                "https://via.placeholder.com/300x200"
-        ));
+    private void observeViewedProperties(long[] ids) {
+        if (isFinishing() || isDestroyed()) {
+            return;
+        }
+        // Viewed listings are stored as ids and resolved through the catalog;
+        // fall back to sample listings until something has been viewed
+        subscription = CatalogRepository.get(this).observe(
+                CatalogRepository.orElse(CatalogRepository.byIds(ids), SampleListings.placeholderViewed()),
+                this::showViewedProperties);
+    }
 
-        return properties;
+    private void showViewedProperties(List<Property> items, ListChange change) {
+        adapter.submitList(items);
+        viewedPropertiesRecyclerView.setVisibility(items.isEmpty() ? View.GONE : View.VISIBLE);
+        emptyStateTextView.setVisibility(items.isEmpty() ? View.VISIBLE : View.GONE);
     }
 
     @Override
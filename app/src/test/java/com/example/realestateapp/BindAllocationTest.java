@@ -0,0 +1,220 @@
+package com.example.realestateapp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import androidx.annotation.Nullable;
+import androidx.core.text.PrecomputedTextCompat;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Allocation budgets for the adapter bind paths. Each check runs the step
+ * many times after a warm-up and fails if it averages a byte or more per
+ * call, so a boxed value, iterator or per-row object creeping back into a
+ * bind breaks the build. The real bind code runs against plain stand-ins for
+ * the holders' views; the framework views and Glide behind them are not
+ * measured.
+ */
+public class BindAllocationTest {
+
+    private static final int WARM_UP = 20_000;
+    private static final int CALLS = 200_000;
+
+    private final List<PropertyCard> cards = new ArrayList<>();
+    private final List<PropertyCard> repriced = new ArrayList<>();
+    private final List<PropertyCard> favorited = new ArrayList<>();
+    private long sink;
+
+    @Before
+    public void setUp() {
+        PropertyCatalog catalog = new PropertyCatalog();
+        for (int i = 0; i < 64; i++) {
+            catalog.add(new PropertyCatalog.Listing("Listing " + i, "PKR " + (i + 1) + ",000,000",
+                    "Block " + i + ", Lahore", "https://images.example.com/" + i + ".jpg"));
+        }
+        PropertyCatalog updated = new PropertyCatalog();
+        for (int i = 0; i < 64; i++) {
+            PropertyCatalog.Listing listing = new PropertyCatalog.Listing("Listing " + i,
+                    "PKR " + (i + 2) + ",000,000", "Block " + i + ", Lahore", "https://images.example.com/" + i + ".jpg");
+            listing.id = catalog.getAll().get(i).getId();
+            updated.add(listing);
+        }
+        for (Property property : catalog.getAll()) {
+            cards.add(new PropertyCard(property, false));
+            favorited.add(new PropertyCard(property, true));
+        }
+        for (Property property : updated.getAll()) {
+            repriced.add(new PropertyCard(property, false));
+        }
+    }
+
+    @Test
+    public void payloadDecodingAllocatesNothing() {
+        List<Object> single = Collections.singletonList(PropertyCard.PAYLOAD_PRICE);
+        List<Object> merged = new ArrayList<>(Arrays.asList(PropertyCard.PAYLOAD_PRICE, PropertyCard.PAYLOAD_FAVORITE));
+        assertEquals(PropertyCard.PAYLOAD_PRICE | PropertyCard.PAYLOAD_FAVORITE, PropertyCard.payloadFlags(merged));
+
+        double bytes = bytesPerCall(() -> {
+            sink += PropertyCard.payloadFlags(single);
+            sink += PropertyCard.payloadFlags(merged);
+        });
+        assertBudget("payload decoding", bytes);
+    }
+
+    @Test
+    public void diffCallbacksAllocateNothing() {
+        PropertyCard card = cards.get(3);
+        assertEquals(PropertyCard.PAYLOAD_PRICE, PropertyCard.DIFF.getChangePayload(card, repriced.get(3)));
+        assertEquals(PropertyCard.PAYLOAD_FAVORITE, PropertyCard.DIFF.getChangePayload(card, favorited.get(3)));
+        assertNull(PropertyCard.DIFF.getChangePayload(card, cards.get(4)));
+
+        int[] index = new int[1];
+        double bytes = bytesPerCall(() -> {
+            int i = index[0]++ & 63;
+            PropertyCard oldCard = cards.get(i);
+            if (PropertyCard.DIFF.areItemsTheSame(oldCard, repriced.get(i))
+                    && !PropertyCard.DIFF.areContentsTheSame(oldCard, repriced.get(i))) {
+                sink += (Integer) PropertyCard.DIFF.getChangePayload(oldCard, repriced.get(i));
+            }
+            if (!PropertyCard.DIFF.areContentsTheSame(oldCard, favorited.get(i))) {
+                sink += (Integer) PropertyCard.DIFF.getChangePayload(oldCard, favorited.get(i));
+            }
+        });
+        assertBudget("diff callbacks", bytes);
+    }
+
+    @Test
+    public void cardBindAllocatesNothing() {
+        RecordingCard views = new RecordingCard();
+        PropertyCard card = cards.get(5);
+        PropertyAdapter.bind(card, views);
+        assertSame(card.title, views.title);
+        assertSame(card.price, views.price);
+        assertSame(card.location, views.location);
+        assertSame(card.image, views.image);
+        assertEquals(R.drawable.ic_favorite_border, views.favoriteIcon);
+
+        int[] index = new int[1];
+        double bytes = bytesPerCall(() -> PropertyAdapter.bind(cards.get(index[0]++ & 63), views));
+        assertBudget("card bind", bytes);
+    }
+
+    @Test
+    public void partialCardBindAllocatesNothing() {
+        RecordingCard views = new RecordingCard();
+        PropertyAdapter.bind(cards.get(7), views);
+        PropertyAdapter.bindPartial(favorited.get(7), PropertyCard.PAYLOAD_FAVORITE, views);
+        assertEquals(R.drawable.ic_favorite_filled, views.favoriteIcon);
+        assertSame(cards.get(7).price, views.price);
+        PropertyAdapter.bindPartial(repriced.get(7), PropertyCard.PAYLOAD_PRICE, views);
+        assertSame(repriced.get(7).price, views.price);
+        assertEquals(1, views.images);
+
+        List<Object> payloads = new ArrayList<>(Arrays.asList(PropertyCard.PAYLOAD_PRICE, PropertyCard.PAYLOAD_FAVORITE));
+        int[] index = new int[1];
+        double bytes = bytesPerCall(() -> {
+            int i = index[0]++ & 63;
+            PropertyAdapter.bindPartial(repriced.get(i), PropertyCard.payloadFlags(payloads), views);
+            PropertyAdapter.bindPartial(favorited.get(i), PropertyCard.PAYLOAD_FAVORITE, views);
+        });
+        assertBudget("partial card bind", bytes);
+    }
+
+    @Test
+    public void chatBindAllocatesNothing() {
+        List<ChatMessage> messages = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            messages.add(new ChatMessage(i % 2 == 0 ? ChatMessage.TYPE_USER : ChatMessage.TYPE_AI, "Message " + i));
+        }
+        RecordingBubble bubble = new RecordingBubble();
+        ChatAdapter.bind(messages.get(3), bubble);
+        assertSame(messages.get(3).getMessage(), bubble.text);
+
+        int[] index = new int[1];
+        double bytes = bytesPerCall(() -> ChatAdapter.bind(messages.get(index[0]++ & 63), bubble));
+        assertBudget("chat bind", bytes);
+    }
+
+    private static void assertBudget(String step, double bytesPerCall) {
+        assertTrue(step + " allocated " + bytesPerCall + " bytes per call", bytesPerCall < 1.0);
+    }
+
+    // Average bytes the current thread allocates per run of step
+    private double bytesPerCall(Runnable step) {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        assumeTrue("JVM cannot count allocations",
+                threads instanceof com.sun.management.ThreadMXBean
+                        && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported());
+        com.sun.management.ThreadMXBean meter = (com.sun.management.ThreadMXBean) threads;
+        long thread = Thread.currentThread().getId();
+
+        for (int i = 0; i < WARM_UP; i++) {
+            step.run();
+        }
+        // The meter itself may allocate on its first calls
+        meter.getThreadAllocatedBytes(thread);
+        long before = meter.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < CALLS; i++) {
+            step.run();
+        }
+        long after = meter.getThreadAllocatedBytes(thread);
+        return (after - before) / (double) CALLS;
+    }
+
+    // Keeps what a bind hands over, the way a TextView keeps a reference to its text
+    private static final class RecordingCard implements PropertyAdapter.CardViews {
+        PrecomputedTextCompat measuredTitle;
+        String title, price, location;
+        ListingImage image;
+        int favoriteIcon, images;
+
+        @Override
+        public void showTitle(@Nullable PrecomputedTextCompat measured, String title) {
+            this.measuredTitle = measured;
+            this.title = title;
+        }
+
+        @Override
+        public void showPrice(String price) {
+            this.price = price;
+        }
+
+        @Override
+        public void showLocation(String location) {
+            this.location = location;
+        }
+
+        @Override
+        public void showFavorite(int iconRes) {
+            this.favoriteIcon = iconRes;
+        }
+
+        @Override
+        public void showImage(ListingImage image) {
+            this.image = image;
+            images++;
+        }
+    }
+
+    private static final class RecordingBubble implements ChatAdapter.BubbleView {
+        PrecomputedTextCompat measured;
+        String text;
+
+        @Override
+        public void showText(@Nullable PrecomputedTextCompat measured, String text) {
+            this.measured = measured;
+            this.text = text;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.realestateapp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Writes a catalog as a snapshot and reads it back both ways, onto the heap
+ * with {@link CatalogSnapshot#read} and lazily with {@link MappedCatalog#open},
+ * and checks that every column survives, removed rows included.
+ */
+public class CatalogSnapshotTest {
+
+    private PropertyCatalog catalog;
+    private long withdrawnId;
+
+    @Before
+    public void setUp() {
+        catalog = new PropertyCatalog();
+        SampleListings.seed(catalog);
+        catalog.add(new PropertyCatalog.Listing("Corner House", "PKR 2.5 Crore", "DHA Phase 6, Lahore",
+                "https://images.example.com/corner.jpg")
+                .description("Corner plot facing the park")
+                .coordinates(31.4697, 74.4085).type("House").city("Lahore").area("DHA Phase 6")
+                .bedrooms(5).bathrooms(4).coveredArea(4500).parkingSpaces(2)
+                .listedAt(1718236800000L).updatedAt(1718323200000L));
+        // Nulls and text outside ASCII
+        catalog.add(new PropertyCatalog.Listing("Villa \u00FCber dem See \u2013 \uD83C\uDFE0", "\u20AC 300,000",
+                "\u06A9\u0631\u0627\u0686\u06CC, Clifton", null));
+        withdrawnId = catalog.get(catalog.add(new PropertyCatalog.Listing("Withdrawn Flat", "PKR 4,500,000",
+                "Gulberg, Lahore", "https://images.example.com/withdrawn.jpg"))).getId();
+        catalog.apply(Collections.<PropertyCatalog.Listing>emptyList(), new long[]{withdrawnId}, 7);
+    }
+
+    @Test
+    public void heapReadRestoresEveryColumn() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CatalogSnapshot.write(catalog, out);
+        PropertyCatalog restored = CatalogSnapshot.read(new ByteArrayInputStream(out.toByteArray()));
+
+        assertSameListings(restored);
+        assertEquals(7, restored.feedVersion());
+    }
+
+    @Test
+    public void mappedReadDecodesEveryColumn() throws IOException {
+        File file = File.createTempFile("catalog", ".snapshot");
+        file.deleteOnExit();
+        try (OutputStream out = new FileOutputStream(file)) {
+            CatalogSnapshot.write(catalog, out);
+        }
+        MappedCatalog mapped = MappedCatalog.open(file);
+
+        assertSameListings(mapped);
+        assertEquals(7, mapped.feedVersion());
+    }
+
+    @Test
+    public void flippedByteFailsTheChecksum() throws IOException {
+        byte[] bytes = CatalogSnapshot.encode(catalog, 1718236800000L);
+        CatalogSnapshot.decode(bytes.clone());
+        for (int position : new int[]{CatalogSnapshot.STRINGS_START + 2, bytes.length / 2, bytes.length - 9}) {
+            byte[] corrupt = bytes.clone();
+            corrupt[position] ^= 0x10;
+            try {
+                CatalogSnapshot.decode(corrupt);
+                fail("Read a snapshot with byte " + position + " flipped");
+            } catch (CatalogSnapshot.FormatException expected) {
+                // The trailer no longer matches
+            }
+        }
+    }
+
+    private void assertSameListings(ListingTable restored) {
+        assertEquals(catalog.size(), restored.size());
+        for (int row = 0; row < catalog.size(); row++) {
+            assertEquals("live " + row, catalog.isLive(row), restored.isLive(row));
+            if (catalog.isLive(row)) {
+                assertEquals(fields(catalog, row), fields(restored, row));
+                assertEquals(row, restored.rowOf(catalog.id(row)));
+            }
+        }
+        assertEquals(ListingTable.UNKNOWN, restored.rowOf(withdrawnId));
+        assertFalse(restored.isLive(catalog.size() - 1));
+        assertTrue(restored.getById(catalog.id(catalog.size() - 2)).getTitle().endsWith("\uD83C\uDFE0"));
+    }
+
+    private static List<Object> fields(ListingTable table, int row) {
+        return Arrays.asList(table.id(row), table.title(row), table.priceText(row), table.location(row),
+                table.imageUrl(row), table.description(row), table.price(row), table.hasCoordinates(row),
+                table.latitude(row), table.longitude(row), table.bedrooms(row), table.bathrooms(row),
+                table.coveredAreaSqFt(row), table.parkingSpaces(row), table.listedAt(row), table.updatedAt(row),
+                table.type(row), table.city(row), table.area(row));
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.realestateapp;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Syncs a fresh catalog against {@link LocalFeedServer}, which answers with
+ * the same encoded deltas as the real feed, and checks what the catalog and
+ * the sync result end up with.
+ */
+public class CatalogSyncTest {
+
+    private PropertyCatalog catalog;
+    private LocalFeedServer server;
+    private CatalogSync sync;
+    private final List<CatalogChangeSet> notified = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        catalog = new PropertyCatalog();
+        server = new LocalFeedServer();
+        sync = new CatalogSync(catalog, server);
+        sync.addListener(notified::add);
+    }
+
+    @Test
+    public void upsertsAppendNewIdsAndRewriteKnownOnesInPlace() throws IOException {
+        server.put(101, listing("Corner House", "PKR 9,000,000"));
+        server.put(102, listing("Garden Flat", "PKR 4,500,000"));
+        CatalogChangeSet first = sync.sync().getChanges();
+        assertEquals(2, first.getInserted().length);
+        assertEquals(0, first.getUpdated().length);
+        int row = catalog.rowOf(101);
+
+        server.put(101, listing("Corner House", "PKR 8,500,000"));
+        CatalogChangeSet second = sync.sync().getChanges();
+        assertEquals(0, second.getInserted().length);
+        assertArrayEquals(new int[]{row}, second.getUpdated());
+        assertEquals(row, catalog.rowOf(101));
+        assertEquals("PKR 8,500,000", catalog.getById(101).getPrice());
+        assertEquals(2, catalog.size());
+        assertEquals(2, notified.size());
+    }
+
+    @Test
+    public void tombstonesRemoveTheRowAndItsId() throws IOException {
+        server.put(201, listing("Corner House", "PKR 9,000,000"));
+        server.put(202, listing("Garden Flat", "PKR 4,500,000"));
+        sync.sync();
+        int row = catalog.rowOf(201);
+
+        server.remove(201);
+        CatalogChangeSet changes = sync.sync().getChanges();
+        assertArrayEquals(new int[]{row}, changes.getRemoved());
+        assertEquals(ListingTable.UNKNOWN, catalog.rowOf(201));
+        assertFalse(catalog.isLive(row));
+        assertArrayEquals(new int[]{catalog.rowOf(202)}, catalog.rowsMatching(null, null, false));
+    }
+
+    @Test
+    public void severalChangesToOneIdArriveAsOne() throws IOException {
+        server.put(301, listing("Draft title", "PKR 1,000,000"));
+        server.put(301, listing("Better title", "PKR 1,000,000"));
+        server.put(301, listing("Final title", "PKR 1,200,000"));
+        assertEquals(1, ListingDelta.decode(server.changesSince(0)).getUpserts().size());
+
+        CatalogChangeSet changes = sync.sync().getChanges();
+        assertEquals(1, changes.getInserted().length);
+        assertEquals("Final title", catalog.getById(301).getTitle());
+        assertEquals("PKR 1,200,000", catalog.getById(301).getPrice());
+
+        // Added and withdrawn between two syncs: the client never sees the listing
+        server.put(302, listing("Withdrawn", "PKR 2,000,000"));
+        server.remove(302);
+        ListingDelta delta = ListingDelta.decode(server.changesSince(catalog.feedVersion()));
+        assertEquals(0, delta.getUpserts().size());
+        assertArrayEquals(new long[]{302}, delta.getTombstones());
+        assertTrue(sync.sync().getChanges().isEmpty());
+        assertEquals(ListingTable.UNKNOWN, catalog.rowOf(302));
+        assertEquals(1, catalog.size());
+    }
+
+    @Test
+    public void versionAdvancesWhenNoRowChanged() throws IOException {
+        server.put(401, listing("Corner House", "PKR 9,000,000"));
+        sync.sync();
+        notified.clear();
+
+        server.put(402, listing("Withdrawn", "PKR 2,000,000"));
+        server.remove(402);
+        CatalogSync.Result result = sync.sync();
+        assertTrue(result.getChanges().isEmpty());
+        assertTrue(result.getToVersion() > result.getFromVersion());
+        assertEquals(server.version(), catalog.feedVersion());
+        assertTrue(notified.isEmpty());
+        assertEquals(server.version(), sync.sync().getFromVersion());
+    }
+
+    @Test
+    public void resultReportsBytesAndApplyTime() throws IOException {
+        for (int i = 0; i < 50; i++) {
+            server.put(500 + i, listing("Listing " + i, "PKR " + (i + 1) + ",000,000"));
+        }
+        CatalogSync.Result full = sync.sync();
+        assertEquals(1, server.requests());
+        assertEquals(server.bytesServed(), full.getBytesTransferred());
+        assertEquals(0, full.getFromVersion());
+        assertEquals(server.version(), full.getToVersion());
+        assertTrue("apply took no time", full.getApplyNanos() > 0);
+        assertTrue("fetch took no time", full.getFetchNanos() > 0);
+        assertEquals(50, full.getDetails().size());
+
+        // Only what changed since the last sync is transferred
+        server.put(500, listing("Listing 0", "PKR 900,000"));
+        CatalogSync.Result incremental = sync.sync();
+        assertEquals(server.bytesServed(), full.getBytesTransferred() + incremental.getBytesTransferred());
+        assertTrue("incremental sync sent " + incremental.getBytesTransferred() + " bytes",
+                incremental.getBytesTransferred() * 10 < full.getBytesTransferred());
+    }
+
+    @Test
+    public void feedThatSkipsVersionsIsRejected() throws IOException {
+        byte[] gap = new ListingDelta(5, 9, Collections.<PropertyCatalog.Listing>emptyList(), new long[0]).encode();
+        CatalogSync skipping = new CatalogSync(catalog, since -> gap);
+        try {
+            skipping.sync();
+            fail("Applied a delta that starts after the catalog's version");
+        } catch (IOException expected) {
+            assertEquals(0, catalog.feedVersion());
+        }
+    }
+
+    private static PropertyCatalog.Listing listing(String title, String price) {
+        return new PropertyCatalog.Listing(title, price, "Block 7, Lahore", "https://images.example.com/" + title + ".jpg");
+    }
+}
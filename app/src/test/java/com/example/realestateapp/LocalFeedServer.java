@@ -0,0 +1,86 @@
+package com.example.realestateapp;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-process stand-in for the listing backend, so {@link CatalogSync} can be
+ * tested without a network. Every put or remove bumps the feed version;
+ * changesSince() collapses the log after a version to the last change per id
+ * and answers with the same encoded {@link ListingDelta} bytes a real server
+ * would send.
+ */
+final class LocalFeedServer implements ListingFeed {
+
+    private final List<Change> log = new ArrayList<>();
+    private long version;
+    private int requests;
+    private long bytesServed;
+
+    // Inserts or replaces the listing with this id; returns the new feed version
+    synchronized long put(long id, PropertyCatalog.Listing listing) {
+        log.add(new Change(++version, id, listing.id(id)));
+        return version;
+    }
+
+    // Removes the listing with this id; returns the new feed version
+    synchronized long remove(long id) {
+        log.add(new Change(++version, id, null));
+        return version;
+    }
+
+    synchronized long version() {
+        return version;
+    }
+
+    @Override
+    public synchronized byte[] changesSince(long since) throws IOException {
+        Map<Long, Change> latest = new LinkedHashMap<>();
+        for (Change change : log) {
+            if (change.version > since) {
+                latest.remove(change.id);
+                latest.put(change.id, change);
+            }
+        }
+        List<PropertyCatalog.Listing> upserts = new ArrayList<>();
+        long[] tombstones = new long[latest.size()];
+        int tombstoneCount = 0;
+        for (Change change : latest.values()) {
+            if (change.listing != null) {
+                upserts.add(change.listing);
+            } else {
+                tombstones[tombstoneCount++] = change.id;
+            }
+        }
+        byte[] body = new ListingDelta(since, Math.max(since, version), upserts,
+                Arrays.copyOf(tombstones, tombstoneCount)).encode();
+        requests++;
+        bytesServed += body.length;
+        return body;
+    }
+
+    synchronized int requests() {
+        return requests;
+    }
+
+    synchronized long bytesServed() {
+        return bytesServed;
+    }
+
+    private static final class Change {
+        final long version;
+        final long id;
+        // Null for a removal
+        final PropertyCatalog.Listing listing;
+
+        Change(long version, long id, PropertyCatalog.Listing listing) {
+            this.version = version;
+            this.id = id;
+            this.listing = listing;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.realestateapp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+/**
+ * Parses display prices in the formats listings use and checks the currency
+ * and amount each one comes out as.
+ */
+public class PriceTest {
+
+    // Display price, currency, amount in minor units
+    private static final Object[][] CASES = {
+            {"PKR 15,000,000", "PKR", 1_500_000_000L},
+            {"AED 800,000", "AED", 80_000_000L},
+            {"$500,000", "USD", 50_000_000L},
+            {"PKR 45,000/month", "PKR", 4_500_000L},
+            {"Rs. 1,250.50", "PKR", 125_050L},
+            {"\u20AC 300,000", "EUR", 30_000_000L},
+            {"25,000,000", ExchangeRates.BASE_CURRENCY, 2_500_000_000L},
+            // Multiplier words, spelled out or glued on, scale the amount like a typed query does
+            {"PKR 2.5 Crore", "PKR", 2_500_000_000L},
+            {"PKR 50 Lakh", "PKR", 500_000_000L},
+            {"$1.2M", "USD", 120_000_000L},
+            {"AED 750K", "AED", 75_000_000L},
+            {"PKR 45k/month", "PKR", 4_500_000L},
+            {"PKR 1.275 crore", "PKR", 1_275_000_000L},
+            {"PKR 9,500,000 negotiable", "PKR", 950_000_000L},
+    };
+
+    @Test
+    public void parsesListingPrices() {
+        for (Object[] c : CASES) {
+            Price price = Price.parse((String) c[0]);
+            assertEquals((String) c[0], new Price((String) c[1], (Long) c[2]), price);
+        }
+    }
+
+    @Test
+    public void textWithoutAnAmountHasNoPrice() {
+        assertNull(Price.parse("Price on request"));
+        assertNull(Price.parse(""));
+        assertNull(Price.parse(null));
+    }
+
+    @Test
+    public void listingPricesAndTypedBoundsShareAScale() {
+        QueryPlan plan = new QueryCompiler().compile("under 3 crore");
+        assertEquals(plan.getMaxPrice(), Price.parse("PKR 3 Crore"));
+        assertEquals(plan.getMaxPrice(), Price.parse("PKR 30,000,000"));
+    }
+}
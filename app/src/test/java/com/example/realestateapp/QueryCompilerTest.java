@@ -0,0 +1,62 @@
+package com.example.realestateapp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Compiles typed phrases and checks what each part of the phrase became:
+ * the leftover text terms, the words ranked by, and the bedroom and price
+ * bounds.
+ */
+public class QueryCompilerTest {
+
+    private static final int ANY = QueryPlan.NO_BEDROOM_LIMIT;
+
+    // Query, leftover text, min and max bedrooms, min and max price (null for no bound)
+    private static final Object[][] CASES = {
+            {"3 bed under 2 crore in dha", "dha", 3, 3, null, pkr(20_000_000)},
+            {"3+ beds in dha", "dha", 3, ANY, null, null},
+            {"upto 2 bedrooms", "", ANY, 2, null, null},
+            {"2-3 beds 50 lakh to 1.5 crore", "", 2, 3, pkr(5_000_000), pkr(15_000_000)},
+            {"2 to 3 bedrooms", "", 2, 3, null, null},
+            {"between 2 and 4 br in gulberg", "gulberg", 2, 4, null, null},
+            {"dha phase 6 3 beds", "dha phase 6", 3, 3, null, null},
+            {"under 10M", "", ANY, ANY, null, pkr(10_000_000)},
+            {"10-20 lakh", "", ANY, ANY, pkr(1_000_000), pkr(2_000_000)},
+            {"above 5 crore", "", ANY, ANY, pkr(50_000_000), null},
+            {"$500k", "", ANY, ANY, null, new Price("USD", 500_000L * Price.MINOR_UNITS)},
+            {"aed 800,000 to 1.2m", "", ANY, ANY, new Price("AED", 800_000L * Price.MINOR_UNITS),
+                    new Price("AED", 1_200_000L * Price.MINOR_UNITS)},
+    };
+
+    @Test
+    public void compilesEachPartOfThePhrase() {
+        for (Object[] c : CASES) {
+            QueryPlan plan = new QueryCompiler().compile((String) c[0]);
+            String query = "\"" + c[0] + "\": " + plan;
+            assertEquals(query, c[1], plan.getTextQuery());
+            assertEquals(query, c[2], plan.getMinBedrooms());
+            assertEquals(query, c[3], plan.getMaxBedrooms());
+            assertEquals(query, c[4], plan.getMinPrice());
+            assertEquals(query, c[5], plan.getMaxPrice());
+        }
+    }
+
+    @Test
+    public void typeWordsNarrowByFacetAndStillRank() {
+        QueryPlan plan = new QueryCompiler().compile("houses in dha");
+        assertEquals("dha", plan.getTextQuery());
+        assertEquals("houses dha", plan.getRankQuery());
+        assertTrue(plan.toString(), plan.getFacets().get(FacetIndex.TYPE).contains(ListingClassifier.TYPE_HOUSE));
+
+        QueryPlan house = new QueryCompiler().compile("house");
+        assertEquals("", house.getTextQuery());
+        assertEquals("house", house.getRankQuery());
+    }
+
+    private static Price pkr(long rupees) {
+        return new Price("PKR", rupees * Price.MINOR_UNITS);
+    }
+}